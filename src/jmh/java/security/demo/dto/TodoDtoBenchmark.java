@@ -0,0 +1,71 @@
+package security.demo.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import security.demo.entity.TodoEntity;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/*
+ * 투두 목록 응답 비용
+ * - TodoEntity -> TodoDTO 변환(컨트롤러의 stream().map(TodoDTO::new))
+ * - ResponseDTO<TodoDTO> JSON 직렬화(목록 크기 10 / 1k / 100k)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TodoDtoBenchmark {
+    @Param({"10", "1000", "100000"})
+    int size;
+
+    private List<TodoEntity> entities;
+    private ResponseDTO<TodoDTO> response;
+    private ObjectMapper objectMapper;
+    private ObjectWriter writer;
+
+    @Setup
+    public void setUp() {
+        entities = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            entities.add(TodoEntity.builder()
+                    .id((long) i + 1)
+                    .userId("1")
+                    .title("todo title " + i)
+                    .done(i % 2 == 0)
+                    .build());
+        }
+        response = ResponseDTO.<TodoDTO>builder().data(toDtos()).build();
+
+        objectMapper = new ObjectMapper();
+        writer = objectMapper.writerFor(ResponseDTO.class);
+    }
+
+    @Benchmark
+    public List<TodoDTO> toDtos() {
+        return entities.stream().map(TodoDTO::new).collect(Collectors.toList());
+    }
+
+    // ObjectMapper 를 그대로 사용(바이트 배열로 직렬화)
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    // 미리 만든 ObjectWriter 로 스트림에 바로 쓰는 경우(중간 바이트 배열 없음)
+    @Benchmark
+    public void serializeToStream() throws Exception {
+        writer.writeValue(OutputStream.nullOutputStream(), response);
+    }
+}
@@ -0,0 +1,114 @@
+package security.demo.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import security.demo.config.cache.PrincipalCacheProperties;
+import security.demo.config.jwt.JwtProperties;
+import security.demo.entity.UserEntity;
+import security.demo.repository.RevokedTokenRepository;
+import security.demo.repository.UserRepository;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static security.demo.BenchmarkSupport.inject;
+import static security.demo.BenchmarkSupport.stub;
+
+/*
+ * JwtAuthenticationFilter 한 요청 처리 비용(다음 필터는 아무것도 하지 않는 mock chain)
+ * - cached: 같은 토큰 반복 요청(검증 캐시 적중)
+ * - uncached: 매번 서명 검증(검증 캐시가 항상 비어있는 경우)
+ * - anonymous: Authorization 헤더 없음
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtAuthenticationFilterBenchmark {
+    @Param({"HS512", "RS256"})
+    String algorithm;
+
+    private JwtAuthenticationFilter cachedFilter;
+    private JwtAuthenticationFilter uncachedFilter;
+    private MockHttpServletRequest request;
+    private MockHttpServletRequest anonymousRequest;
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    // 다음 필터: 인증 정보만 지운다(요청마다 SecurityContext 가 쌓이지 않도록).
+    private final FilterChain chain = (req, res) -> SecurityContextHolder.clearContext();
+
+    @Setup
+    public void setUp() throws Exception {
+        TokenProvider tokenProvider = TokenProviderBenchmark.tokenProvider(algorithm);
+
+        JwtProperties jwtProperties = new JwtProperties();
+        VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache();
+        inject(verifiedTokenCache, "jwtProperties", jwtProperties);
+
+        // 항상 miss 인 캐시
+        VerifiedTokenCache missingCache = new VerifiedTokenCache() {
+            @Override
+            public JwtClaims get(CharSequence token, int start, int end) {
+                return null;
+            }
+
+            @Override
+            public void put(CharSequence token, int start, int end, JwtClaims claims) {
+            }
+        };
+
+        cachedFilter = filter(tokenProvider, verifiedTokenCache);
+        uncachedFilter = filter(tokenProvider, missingCache);
+
+        request = new MockHttpServletRequest("GET", "/api/todo");
+        request.addHeader("Authorization", "Bearer " + tokenProvider.create("1"));
+        anonymousRequest = new MockHttpServletRequest("GET", "/api/todo");
+    }
+
+    @Benchmark
+    public void cached() throws Exception {
+        cachedFilter.doFilterInternal(request, response, chain);
+    }
+
+    @Benchmark
+    public void uncached() throws Exception {
+        uncachedFilter.doFilterInternal(request, response, chain);
+    }
+
+    @Benchmark
+    public void anonymous() throws Exception {
+        cachedFilter.doFilterInternal(anonymousRequest, response, chain);
+    }
+
+    private static JwtAuthenticationFilter filter(TokenProvider tokenProvider, VerifiedTokenCache verifiedTokenCache)
+            throws ReflectiveOperationException {
+        UserEntity user = UserEntity.builder().id(1L).email("bench@demo.com").username("bench").password("x").build();
+        UserPrincipalCache userPrincipalCache = new UserPrincipalCache();
+        inject(userPrincipalCache, "properties", new PrincipalCacheProperties());
+        inject(userPrincipalCache, "userRepository", stub(UserRepository.class, Map.of(
+                "findById", args -> Optional.of(user))));
+
+        TokenRevocationList tokenRevocationList = new TokenRevocationList();
+        inject(tokenRevocationList, "repository", stub(RevokedTokenRepository.class, Map.of()));
+
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter();
+        inject(filter, "tokenProvider", tokenProvider);
+        inject(filter, "verifiedTokenCache", verifiedTokenCache);
+        inject(filter, "tokenRevocationList", tokenRevocationList);
+        inject(filter, "userPrincipalCache", userPrincipalCache);
+        inject(filter, "meterRegistry", new SimpleMeterRegistry());
+        filter.initMetrics();
+        return filter;
+    }
+}
@@ -0,0 +1,122 @@
+package security.demo.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import security.demo.config.jwt.JwtProperties;
+import security.demo.entity.UserEntity;
+import security.demo.repository.JwtSigningKeyRepository;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static security.demo.BenchmarkSupport.inject;
+import static security.demo.BenchmarkSupport.stub;
+
+/*
+ * 기존 방식(호출마다 Jwts.builder()/Jwts.parser() 생성)과
+ * TokenProvider(미리 만든 HmacJwtCodec / RsaJwtCodec 재사용)의 토큰 발급/검증 비용 비교
+ *
+ * ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TokenProviderBenchmark {
+    private static final String SECRET_KEY = "4291";
+
+    private UserEntity user;
+    private String legacyToken;
+
+    // 서명 알고리즘별 TokenProvider
+    @State(Scope.Benchmark)
+    public static class Provider {
+        @Param({"HS512", "RS256"})
+        String algorithm;
+
+        TokenProvider tokenProvider;
+        String token;
+
+        @Setup
+        public void setUp() throws Exception {
+            tokenProvider = tokenProvider(algorithm);
+            token = tokenProvider.create("1");
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        user = UserEntity.builder().id(1L).email("bench@demo.com").username("bench").password("x").build();
+        legacyToken = createLegacy();
+    }
+
+    @Benchmark
+    public String createLegacy() {
+        return Jwts.builder()
+                .signWith(SignatureAlgorithm.HS512, SECRET_KEY)
+                .setSubject(String.valueOf(user.getId()))
+                .setIssuer("demo app")
+                .setIssuedAt(new Date())
+                .setExpiration(Date.from(Instant.now().plus(1, ChronoUnit.DAYS)))
+                .compact();
+    }
+
+    @Benchmark
+    public String create(Provider provider) {
+        return provider.tokenProvider.create(user);
+    }
+
+    @Benchmark
+    public String validateLegacy() {
+        return Jwts.parser()
+                .setSigningKey(SECRET_KEY)
+                .parseClaimsJws(legacyToken)
+                .getBody()
+                .getSubject();
+    }
+
+    @Benchmark
+    public String validate(Provider provider) {
+        return provider.tokenProvider.validateAndGetUserId(provider.token);
+    }
+
+    // 스프링 컨테이너, DB 없이 TokenProvider 조립(RS256 공개키 테이블은 stub)
+    static TokenProvider tokenProvider(String algorithm) throws ReflectiveOperationException {
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setSecretKey(SECRET_KEY);
+        jwtProperties.setAlgorithm(algorithm);
+        jwtProperties.setKeyEncryptionKey(Base64.getEncoder().encodeToString(new byte[32]));
+
+        VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache();
+        inject(verifiedTokenCache, "jwtProperties", jwtProperties);
+
+        JwtKeyRing jwtKeyRing = new JwtKeyRing();
+        inject(jwtKeyRing, "jwtProperties", jwtProperties);
+        inject(jwtKeyRing, "repository", stub(JwtSigningKeyRepository.class, Map.of(
+                "save", args -> args[0],
+                "findByExpiresAtAfter", args -> List.of(),
+                "findById", args -> Optional.empty(),
+                "deleteExpired", args -> 0)));
+        jwtKeyRing.init();
+
+        TokenProvider tokenProvider = new TokenProvider();
+        inject(tokenProvider, "jwtProperties", jwtProperties);
+        inject(tokenProvider, "verifiedTokenCache", verifiedTokenCache);
+        inject(tokenProvider, "jwtKeyRing", jwtKeyRing);
+        tokenProvider.init();
+        return tokenProvider;
+    }
+}
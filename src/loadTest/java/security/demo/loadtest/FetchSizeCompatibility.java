@@ -0,0 +1,59 @@
+package security.demo.loadtest;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+
+/*
+ * H2 에서 MySQL 전용 스트리밍 힌트 무시(부하 테스트 전용)
+ * - 리포지토리의 스트리밍 조회는 MySQL Connector/J 방식(fetch size = Integer.MIN_VALUE)을 사용한다.
+ * - H2 는 음수 fetch size 를 거부하므로 DataSource 를 감싸서 음수 setFetchSize 호출만 건너뛴다.
+ */
+@Component
+@Profile("loadtest")
+class FetchSizeCompatibility implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            return wrap(DataSource.class, dataSource);
+        }
+        return bean;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T wrap(Class<T> type, T target) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getName().equals("setFetchSize") && (int) args[0] < 0) {
+                return null;
+            }
+            if (method.getName().equals("unwrap") && ((Class<?>) args[0]).isInstance(target)) {
+                return target;
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof Connection connection && method.getReturnType() == Connection.class) {
+                return wrap(Connection.class, connection);
+            }
+            if (result instanceof Statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return wrapStatement(method.getReturnType(), result);
+            }
+            return result;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object wrapStatement(Class<?> type, Object statement) {
+        return wrap((Class<Object>) type, statement);
+    }
+}
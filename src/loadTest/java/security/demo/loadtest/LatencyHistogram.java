@@ -0,0 +1,80 @@
+package security.demo.loadtest;
+
+/*
+ * 응답 시간 히스토그램(마이크로초)
+ * - 값 구간마다 상위 7bit 정밀도(오차 1% 미만)로 세는 log-linear 버킷 -> 요청 수와 관계없이 메모리 고정
+ * - 스레드마다 하나씩 사용하고(동기화 없음), 끝난 뒤 merge 로 합친다.
+ */
+final class LatencyHistogram {
+    private static final int SUB_BUCKETS = 64;
+    private static final int BUCKETS = SUB_BUCKETS * 58 + 2 * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long errors;
+    private long max;
+
+    void record(long micros, boolean error) {
+        long value = Math.max(0, micros);
+        counts[index(value)]++;
+        count++;
+        if (error) {
+            errors++;
+        }
+        max = Math.max(max, value);
+    }
+
+    void merge(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        errors += other.errors;
+        max = Math.max(max, other.max);
+    }
+
+    long count() {
+        return count;
+    }
+
+    long errors() {
+        return errors;
+    }
+
+    long max() {
+        return max;
+    }
+
+    // 백분위(0 < percentile <= 100) 값 -> 해당 버킷의 하한값
+    long percentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(count * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(lowerBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    // 0~127 은 그대로, 그 이상은 최상위 bit 아래 6bit 까지만 구분
+    private static int index(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 57 - Long.numberOfLeadingZeros(value);
+        return SUB_BUCKETS * shift + (int) (value >>> shift);
+    }
+
+    private static long lowerBound(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        return (long) (index - SUB_BUCKETS * shift) << shift;
+    }
+}
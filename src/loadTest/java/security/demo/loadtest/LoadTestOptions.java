@@ -0,0 +1,67 @@
+package security.demo.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/*
+ * 부하 테스트 옵션(-PloadTest.xxx=값 -> 시스템 프로퍼티 loadTest.xxx)
+ * - concurrency: 동시에 요청하는 가상 사용자 수(사용자마다 계정 하나)
+ * - warmup / duration: 측정 전 예열 시간 / 측정 시간
+ * - mix: 작업 비율(read:60,page:10,create:15,update:10,delete:5)
+ * - profiles: 추가로 켤 스프링 프로필(예: vt, reactive)
+ * - baseUrl: 지정하면 앱을 띄우지 않고 이미 실행 중인 서버에 요청
+ * - report: 결과 JSON 파일 경로
+ */
+record LoadTestOptions(int concurrency, Duration warmup, Duration duration, Map<Operation, Integer> mix,
+                       String profiles, String baseUrl, Path report) {
+
+    enum Operation {
+        READ, PAGE, CREATE, UPDATE, DELETE
+    }
+
+    static LoadTestOptions fromSystemProperties() {
+        return new LoadTestOptions(
+                Integer.parseInt(property("concurrency", "32")),
+                DurationStyle.detectAndParse(property("warmup", "10s")),
+                DurationStyle.detectAndParse(property("duration", "30s")),
+                parseMix(property("mix", "read:60,page:10,create:15,update:10,delete:5")),
+                property("profiles", ""),
+                property("baseUrl", ""),
+                Path.of(property("report", "build/loadtest/report.json")));
+    }
+
+    // 0 이상 전체 비율 합 미만의 난수 -> 작업 선택
+    Operation pick(int random) {
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            random -= entry.getValue();
+            if (random < 0) {
+                return entry.getKey();
+            }
+        }
+        return Operation.READ;
+    }
+
+    int mixTotal() {
+        return mix.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    private static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : value.split(",")) {
+            String[] pair = part.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("loadTest.mix must look like read:60,create:20 but was " + value);
+            }
+            mix.put(Operation.valueOf(pair[0].trim().toUpperCase()), Integer.parseInt(pair[1].trim()));
+        }
+        return mix;
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty("loadTest." + name, defaultValue);
+    }
+}
@@ -0,0 +1,164 @@
+package security.demo.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import security.demo.DemoApplication;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*
+ * 엔드 투 엔드 부하 테스트
+ * - 앱 전체를 메모리 H2(MySQL 호환 모드)로 띄운다(loadtest 프로필).
+ *   DemoApplication.main 은 .env 를 읽으므로 거치지 않고 SpringApplicationBuilder 로 바로 실행
+ * - 가상 사용자(concurrency 명)가 회원가입 -> 로그인 -> /api/todo 혼합 작업을 반복
+ * - 엔드포인트별 처리량, p50/p99/p999, 에러율을 출력하고 JSON 으로 저장(다른 성능 변경과 비교용)
+ *
+ * ./gradlew loadTest -PloadTest.concurrency=64 -PloadTest.duration=60s -PloadTest.profiles=vt
+ * ./gradlew loadTest -PloadTest.profiles=reactive  (WebFlux + R2DBC 모드와 비교)
+ */
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.fromSystemProperties();
+
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.baseUrl();
+        if (baseUrl.isEmpty()) {
+            context = startApplication(options);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            baseUrl = "http://localhost:" + port;
+        }
+
+        try {
+            Map<String, LatencyHistogram> results = run(options, baseUrl);
+            report(options, results);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(LoadTestOptions options) {
+        List<String> profiles = new ArrayList<>();
+        for (String profile : options.profiles().split(",")) {
+            if (!profile.isBlank()) {
+                profiles.add(profile.trim());
+            }
+        }
+        // 마지막 프로필이 우선 -> DB 설정은 항상 loadtest(H2) 것을 사용
+        profiles.add("loadtest");
+        System.out.println("Starting application with profiles " + profiles);
+        return new SpringApplicationBuilder(DemoApplication.class)
+                .profiles(profiles.toArray(String[]::new))
+                .run();
+    }
+
+    private static Map<String, LatencyHistogram> run(LoadTestOptions options, String baseUrl) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup().toNanos();
+        long stopAt = measureFrom + options.duration().toNanos();
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+
+        System.out.printf("Running %d users against %s (warmup %s, duration %s, mix %s)%n",
+                options.concurrency(), baseUrl, options.warmup(), options.duration(), options.mix());
+
+        List<VirtualUser> users = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(options.concurrency());
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < options.concurrency(); i++) {
+                VirtualUser user = new VirtualUser(client, objectMapper, options, baseUrl,
+                        "loadtest-" + runId + "-" + i + "@demo.com", measureFrom, stopAt);
+                users.add(user);
+                futures.add(executor.submit(user));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Map<String, LatencyHistogram> merged = new TreeMap<>();
+        for (VirtualUser user : users) {
+            user.histograms().forEach((endpoint, histogram) ->
+                    merged.computeIfAbsent(endpoint, key -> new LatencyHistogram()).merge(histogram));
+        }
+        return merged;
+    }
+
+    /*
+     * 엔드포인트별 결과(시간 단위 ms)
+     * - 회원가입/로그인은 사용자마다 한 번뿐이라 처리량(req/s)은 계산하지 않는다.
+     */
+    private static void report(LoadTestOptions options, Map<String, LatencyHistogram> results) throws IOException {
+        double seconds = options.duration().toNanos() / 1e9;
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+
+        System.out.printf("%n%-26s %10s %10s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "errors", "p50", "p99", "p999", "max");
+        for (Map.Entry<String, LatencyHistogram> entry : results.entrySet()) {
+            String endpoint = entry.getKey();
+            LatencyHistogram histogram = entry.getValue();
+            boolean setup = endpoint.startsWith("POST /api/auth/");
+            double throughput = setup ? Double.NaN : histogram.count() / seconds;
+            double errorRate = histogram.count() == 0 ? 0 : (double) histogram.errors() / histogram.count();
+
+            System.out.printf("%-26s %10d %10s %8.2f%% %9.2f %9.2f %9.2f %9.2f%n",
+                    endpoint, histogram.count(), setup ? "-" : String.format("%.1f", throughput), errorRate * 100,
+                    millis(histogram.percentile(50)), millis(histogram.percentile(99)),
+                    millis(histogram.percentile(99.9)), millis(histogram.max()));
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("endpoint", endpoint);
+            result.put("requests", histogram.count());
+            result.put("throughput", setup ? null : throughput);
+            result.put("errors", histogram.errors());
+            result.put("errorRate", errorRate);
+            result.put("p50Millis", millis(histogram.percentile(50)));
+            result.put("p99Millis", millis(histogram.percentile(99)));
+            result.put("p999Millis", millis(histogram.percentile(99.9)));
+            result.put("maxMillis", millis(histogram.max()));
+            endpoints.add(result);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("concurrency", options.concurrency());
+        report.put("warmup", options.warmup().toString());
+        report.put("duration", options.duration().toString());
+        report.put("mix", options.mix());
+        report.put("profiles", options.profiles());
+        report.put("endpoints", endpoints);
+
+        if (options.report().getParent() != null) {
+            Files.createDirectories(options.report().getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(options.report().toFile(), report);
+        System.out.println("\nReport written to " + options.report().toAbsolutePath());
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,200 @@
+package security.demo.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import security.demo.loadtest.LoadTestOptions.Operation;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+ * 부하 테스트 가상 사용자(스레드 하나 = 계정 하나)
+ * 1. 회원가입 -> 로그인(access token 발급)
+ * 2. 종료 시각까지 options.mix 비율로 /api/todo 조회/생성/수정/삭제 반복
+ *    - 수정/삭제는 자기가 만든 투두 id 로만 요청(정상 요청 기준의 에러율을 보기 위해)
+ *
+ * 응답 시간은 엔드포인트별 히스토그램에 기록, 예열(warmup) 구간의 요청은 기록하지 않는다.
+ */
+final class VirtualUser implements Runnable {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int MAX_TODOS = 100;
+    private static final int AUTH_ATTEMPTS = 20;
+    private static final Duration AUTH_RETRY_DELAY = Duration.ofMillis(200);
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final LoadTestOptions options;
+    private final String baseUrl;
+    private final String email;
+    private final long measureFrom;
+    private final long stopAt;
+
+    private final Map<String, LatencyHistogram> histograms = new HashMap<>();
+    private final List<Long> todoIds = new ArrayList<>();
+    private String authorization;
+    private int sequence;
+
+    VirtualUser(HttpClient client, ObjectMapper objectMapper, LoadTestOptions options, String baseUrl,
+                String email, long measureFrom, long stopAt) {
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.options = options;
+        this.baseUrl = baseUrl;
+        this.email = email;
+        this.measureFrom = measureFrom;
+        this.stopAt = stopAt;
+    }
+
+    Map<String, LatencyHistogram> histograms() {
+        return histograms;
+    }
+
+    @Override
+    public void run() {
+        if (!signIn()) {
+            return;
+        }
+
+        int mixTotal = options.mixTotal();
+        while (System.nanoTime() < stopAt) {
+            Operation operation = options.pick(ThreadLocalRandom.current().nextInt(mixTotal));
+            if (operation == Operation.CREATE && todoIds.size() >= MAX_TODOS) {
+                operation = Operation.DELETE; // 목록 크기가 계속 커지지 않도록
+            }
+            if ((operation == Operation.UPDATE || operation == Operation.DELETE) && todoIds.isEmpty()) {
+                operation = Operation.CREATE;
+            }
+
+            switch (operation) {
+                case READ -> send("GET /api/todo", request("/api/todo").GET());
+                case PAGE -> send("GET /api/todo?limit", request("/api/todo?limit=20").GET());
+                case CREATE -> create();
+                case UPDATE -> update();
+                case DELETE -> delete();
+            }
+        }
+    }
+
+    // 회원가입/로그인은 한 번뿐이라 예열 구간과 관계없이 항상 기록
+    private boolean signIn() {
+        String body = json(Map.of("email", email, "username", email, "password", "password-" + email));
+
+        HttpResponse<byte[]> signup = sendAuth("POST /api/auth/signup", "/api/auth/signup", body);
+        if (signup == null || signup.statusCode() != 200) {
+            return false;
+        }
+
+        HttpResponse<byte[]> signin = sendAuth("POST /api/auth/signin", "/api/auth/signin", body);
+        if (signin == null || signin.statusCode() != 200) {
+            return false;
+        }
+        authorization = "Bearer " + read(signin).path("token").asText();
+        return true;
+    }
+
+    // BCrypt 대기열이 가득 차면 503 -> 잠시 후 다시 시도(503 도 에러로 기록됨)
+    private HttpResponse<byte[]> sendAuth(String endpoint, String path, String body) {
+        HttpResponse<byte[]> response = null;
+        for (int attempt = 0; attempt < AUTH_ATTEMPTS && System.nanoTime() < stopAt; attempt++) {
+            response = send(endpoint, request(path).POST(HttpRequest.BodyPublishers.ofString(body)), true);
+            if (response == null || response.statusCode() != 503) {
+                return response;
+            }
+            try {
+                Thread.sleep(AUTH_RETRY_DELAY.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return response;
+            }
+        }
+        return response;
+    }
+
+    private void create() {
+        String body = json(Map.of("title", "load test todo " + sequence++, "done", false));
+        HttpResponse<byte[]> response = send("POST /api/todo",
+                request("/api/todo").POST(HttpRequest.BodyPublishers.ofString(body)));
+        if (response == null || response.statusCode() != 200) {
+            return;
+        }
+
+        // 응답은 전체 목록 -> 가장 큰 id 가 방금 만든 투두
+        long createdId = -1;
+        for (JsonNode todo : read(response).path("data")) {
+            createdId = Math.max(createdId, todo.path("id").asLong());
+        }
+        if (createdId > 0) {
+            todoIds.add(createdId);
+        }
+    }
+
+    private void update() {
+        long id = todoIds.get(ThreadLocalRandom.current().nextInt(todoIds.size()));
+        String body = json(Map.of("title", "updated " + sequence++, "done", ThreadLocalRandom.current().nextBoolean()));
+        send("PUT /api/todo/{id}", request("/api/todo/" + id).PUT(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    private void delete() {
+        long id = todoIds.remove(todoIds.size() - 1);
+        send("DELETE /api/todo/{id}", request("/api/todo/" + id).DELETE());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json");
+        if (authorization != null) {
+            builder.header("Authorization", authorization);
+        }
+        return builder;
+    }
+
+    private HttpResponse<byte[]> send(String endpoint, HttpRequest.Builder request) {
+        return send(endpoint, request, false);
+    }
+
+    // 상태 코드 4xx/5xx, 타임아웃, 연결 실패는 에러로 기록
+    private HttpResponse<byte[]> send(String endpoint, HttpRequest.Builder request, boolean alwaysRecord) {
+        long startedAt = System.nanoTime();
+        HttpResponse<byte[]> response = null;
+        try {
+            response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            // 에러로 기록
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (alwaysRecord || startedAt >= measureFrom) {
+            boolean error = response == null || response.statusCode() >= 400;
+            histograms.computeIfAbsent(endpoint, key -> new LatencyHistogram())
+                    .record((System.nanoTime() - startedAt) / 1_000, error);
+        }
+        return response;
+    }
+
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private JsonNode read(HttpResponse<byte[]> response) {
+        try {
+            return objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            return objectMapper.missingNode();
+        }
+    }
+}
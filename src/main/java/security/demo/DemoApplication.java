@@ -12,6 +12,10 @@ public class DemoApplication {
 		System.setProperty("DB_URL", dotenv.get("DB_URL"));
 		System.setProperty("DB_USERNAME", dotenv.get("DB_USERNAME"));
 		System.setProperty("DB_PASSWORD", dotenv.get("DB_PASSWORD"));
+		// reactive 프로필에서만 필요(r2dbc:mysql://...)
+		if (dotenv.get("R2DBC_URL") != null) {
+			System.setProperty("R2DBC_URL", dotenv.get("R2DBC_URL"));
+		}
 		SpringApplication.run(DemoApplication.class, args);
 	}
 
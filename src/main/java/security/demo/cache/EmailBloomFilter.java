@@ -0,0 +1,139 @@
+package security.demo.cache;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import security.demo.config.cache.EmailFilterProperties;
+import security.demo.repository.UserRepository;
+
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/*
+ * 가입된 이메일 Bloom filter
+ * - mightContain() 이 false 면 그 이메일은 확실히 가입되지 않은 이메일 -> 회원가입 시 existsByEmail 조회 생략
+ * - true 면 가입됐을 수도 있음(오탐 가능) -> 기존처럼 DB 조회
+ * - 기동 후 User 테이블의 이메일을 스트리밍으로 읽어 채우고, 회원가입마다 추가한다.
+ * - 채우기 전(warm-up 중)에는 항상 true 를 리턴해서 DB 조회를 하게 한다.
+ *
+ * 다른 서버에서 가입한 이메일은 여기 없을 수 있지만 email unique 제약조건이 최종적으로 중복을 막는다.
+ * 대소문자 구분 없이(소문자로) 저장한다. -> DB collation 이 대소문자를 구분하지 않아도 오탐 쪽으로만 틀린다.
+ */
+@Slf4j
+@Component
+public class EmailBloomFilter {
+    // 비트 수 최대 2^32 (index() 계산이 long 범위를 넘지 않도록), 512MB
+    private static final long MAX_WORDS = 1L << 26;
+
+    @Autowired
+    private EmailFilterProperties properties;
+
+    @Autowired
+    private UserRepository repository;
+
+    private AtomicLongArray words;
+    private long bitCount;
+    private int hashCount;
+    private volatile boolean ready;
+
+    @PostConstruct
+    public void init() {
+        long n = Math.max(1, properties.getExpectedInsertions());
+        double p = properties.getFalsePositiveRate();
+
+        // m = -n ln(p) / (ln 2)^2, k = m / n ln 2
+        long bits = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.min(MAX_WORDS, (bits + 63) / 64);
+
+        words = new AtomicLongArray(wordCount);
+        bitCount = (long) wordCount * 64;
+        hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+    }
+
+    // 기동이 끝나면 User 테이블의 이메일 전체를 스트리밍으로 읽어서 채운다.
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        long count = 0;
+        try (Stream<String> emails = repository.streamAllEmails()) {
+            Iterator<String> iterator = emails.iterator();
+            while (iterator.hasNext()) {
+                put(iterator.next());
+                count++;
+            }
+        }
+        ready = true;
+        log.info("Email bloom filter is ready, {} emails loaded", count);
+    }
+
+    // false: 확실히 없음, true: 있을 수도 있음
+    public boolean mightContain(String email) {
+        if (!ready || email == null) {
+            return true;
+        }
+
+        long hash = hash(email);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(h1 + i * h2);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void put(String email) {
+        if (email == null) {
+            return;
+        }
+
+        long hash = hash(email);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(h1 + i * h2);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+
+            long current;
+            do {
+                current = words.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!words.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private long index(int combined) {
+        return ((combined & 0xffffffffL) * bitCount) >>> 32;
+    }
+
+    // FNV-1a 64bit + murmur3 finalizer
+    private static long hash(String email) {
+        String normalized = email.toLowerCase(Locale.ROOT);
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < normalized.length(); i++) {
+            h ^= normalized.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
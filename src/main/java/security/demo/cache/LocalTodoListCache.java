@@ -0,0 +1,155 @@
+package security.demo.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import security.demo.config.cache.TodoCacheProperties;
+import security.demo.entity.TodoEntity;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/*
+ * 로컬 메모리 투두 목록 캐시(기본 구현, 분산 캐시 대용으로도 사용)
+ * - 유저 아이디별로 목록을 보관, todo.cache.ttl 이 지나면 다시 DB에서 읽는다.
+ * - 최대 todo.cache.max-users 명까지 보관(SegmentedCache), 넘으면 한동안 조회되지 않은 목록부터 정리
+ * - 목록은 수정 불가능한 리스트로 보관하고, 수정 시에는 새 리스트로 교체(copy-on-write)
+ * - 엔티티는 복사본을 보관한다(영속성 컨텍스트나 호출한 쪽에서 바뀌지 않도록).
+ */
+@Component
+@ConditionalOnProperty(name = "todo.cache.type", havingValue = "local", matchIfMissing = true)
+public class LocalTodoListCache implements TodoListCache {
+    private static final int STAMP_STRIPES = 64;
+
+    @Autowired
+    private TodoCacheProperties properties;
+
+    private final SegmentedCache<String, Entry> entries =
+            new SegmentedCache<>("Todo list", () -> properties.getMaxUsers(), Entry::expiresAt);
+
+    // 유저 아이디 해시별 변경 횟수 -> DB 조회 중에 변경이 있었는지 확인
+    private final AtomicLongArray stamps = new AtomicLongArray(STAMP_STRIPES);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @Override
+    public List<TodoEntity> get(String userId) {
+        Entry entry = entries.get(userId, System.currentTimeMillis());
+
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        return entry.todos();
+    }
+
+    @Override
+    public long loadStamp(String userId) {
+        return stamps.get(stripe(userId));
+    }
+
+    @Override
+    public void put(String userId, List<TodoEntity> todos, long loadStamp) {
+        long now = System.currentTimeMillis();
+        List<TodoEntity> copies = new ArrayList<>(todos.size());
+        for (TodoEntity todo : todos) {
+            copies.add(copyOf(todo));
+        }
+        Entry entry = new Entry(Collections.unmodifiableList(copies), now + properties.getTtl().toMillis());
+
+        entries.put(userId, entry);
+        // 조회하는 사이에 변경이 있었다면 방금 넣은 목록은 오래된 목록이므로 제거
+        if (stamps.get(stripe(userId)) != loadStamp) {
+            entries.remove(userId, entry);
+        }
+    }
+
+    @Override
+    public void add(String userId, TodoEntity todo) {
+        TodoEntity copy = copyOf(todo);
+        patch(userId, todos -> {
+            List<TodoEntity> updated = new ArrayList<>(todos.size() + 1);
+            updated.addAll(todos);
+            updated.add(copy);
+            return updated;
+        });
+    }
+
+    @Override
+    public void replace(String userId, TodoEntity todo) {
+        TodoEntity copy = copyOf(todo);
+        patch(userId, todos -> {
+            List<TodoEntity> updated = new ArrayList<>(todos.size());
+            for (TodoEntity cached : todos) {
+                updated.add(cached.getId().equals(copy.getId()) ? copy : cached);
+            }
+            return updated;
+        });
+    }
+
+    @Override
+    public void remove(String userId, long todoId) {
+        patch(userId, todos -> {
+            List<TodoEntity> updated = new ArrayList<>(todos.size());
+            for (TodoEntity cached : todos) {
+                if (cached.getId() != todoId) {
+                    updated.add(cached);
+                }
+            }
+            return updated;
+        });
+    }
+
+    @Override
+    public void evict(String userId) {
+        stamps.incrementAndGet(stripe(userId));
+        entries.remove(userId);
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return entries.getEvictionCount();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // 캐시된 목록이 있을 때만 새 목록으로 교체(만료 시각은 그대로 유지)
+    private void patch(String userId, UnaryOperator<List<TodoEntity>> change) {
+        stamps.incrementAndGet(stripe(userId));
+        entries.computeIfPresent(userId, (key, entry) ->
+                new Entry(Collections.unmodifiableList(change.apply(entry.todos())), entry.expiresAt()));
+    }
+
+    private static int stripe(String userId) {
+        return (userId.hashCode() & 0x7fffffff) % STAMP_STRIPES;
+    }
+
+    private static TodoEntity copyOf(TodoEntity todo) {
+        return TodoEntity.builder()
+                .id(todo.getId())
+                .userId(todo.getUserId())
+                .title(todo.getTitle())
+                .done(todo.isDone())
+                .version(todo.getVersion())
+                .build();
+    }
+
+    private record Entry(List<TodoEntity> todos, long expiresAt) {
+    }
+}
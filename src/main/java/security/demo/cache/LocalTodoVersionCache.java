@@ -0,0 +1,62 @@
+package security.demo.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import security.demo.config.cache.TodoCacheProperties;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * 로컬 메모리 version 캐시(기본 구현)
+ * - 항상 더 큰 값만 남긴다(advance) -> DB 에서 읽는 사이 커밋된 변경이 있어도 뒤로 가지 않는다.
+ * - 크기/만료는 목록 캐시와 같은 todo.cache.max-users, todo.cache.ttl(SegmentedCache)
+ *   -> 다른 서버 인스턴스에서 처리된 변경은 ttl 이 지나 다시 읽을 때 반영된다.
+ */
+@Component
+@ConditionalOnProperty(name = "todo.cache.type", havingValue = "local", matchIfMissing = true)
+public class LocalTodoVersionCache implements TodoVersionCache {
+    @Autowired
+    private TodoCacheProperties properties;
+
+    private final SegmentedCache<String, Entry> entries =
+            new SegmentedCache<>("Todo version", () -> properties.getMaxUsers(), Entry::expiresAt);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @Override
+    public Long get(String userId) {
+        Entry entry = entries.get(userId, System.currentTimeMillis());
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.version();
+    }
+
+    // 캐시된 값과 비교해서 더 큰 version 저장(만료 시각은 새로 계산)
+    @Override
+    public void advance(String userId, long version) {
+        long now = System.currentTimeMillis();
+        Entry entry = new Entry(version, now + properties.getTtl().toMillis());
+        entries.merge(userId, entry, (current, updated) ->
+                new Entry(Math.max(current.version(), updated.version()), updated.expiresAt()));
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private record Entry(long version, long expiresAt) {
+    }
+}
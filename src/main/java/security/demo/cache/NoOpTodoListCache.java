@@ -0,0 +1,43 @@
+package security.demo.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import security.demo.entity.TodoEntity;
+
+import java.util.List;
+
+// todo.cache.type=none -> 캐시를 사용하지 않고 항상 DB 조회
+@Component
+@ConditionalOnProperty(name = "todo.cache.type", havingValue = "none")
+public class NoOpTodoListCache implements TodoListCache {
+
+    @Override
+    public List<TodoEntity> get(String userId) {
+        return null;
+    }
+
+    @Override
+    public long loadStamp(String userId) {
+        return 0;
+    }
+
+    @Override
+    public void put(String userId, List<TodoEntity> todos, long loadStamp) {
+    }
+
+    @Override
+    public void add(String userId, TodoEntity todo) {
+    }
+
+    @Override
+    public void replace(String userId, TodoEntity todo) {
+    }
+
+    @Override
+    public void remove(String userId, long todoId) {
+    }
+
+    @Override
+    public void evict(String userId) {
+    }
+}
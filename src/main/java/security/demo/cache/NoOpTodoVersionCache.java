@@ -0,0 +1,19 @@
+package security.demo.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// todo.cache.type=none -> version 도 캐시하지 않고 항상 todo_sync 조회(여러 인스턴스에서도 항상 최신 ETag)
+@Component
+@ConditionalOnProperty(name = "todo.cache.type", havingValue = "none")
+public class NoOpTodoVersionCache implements TodoVersionCache {
+
+    @Override
+    public Long get(String userId) {
+        return null;
+    }
+
+    @Override
+    public void advance(String userId, long version) {
+    }
+}
@@ -0,0 +1,175 @@
+package security.demo.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.IntSupplier;
+import java.util.function.ToLongFunction;
+
+/*
+ * 크기 제한이 있는 메모리 캐시(투두 목록/version 캐시, principal 캐시, 검증된 토큰 캐시가 같이 사용)
+ * - 최대 크기는 세그먼트 두 개(current, previous)로 나눠서 지킨다.
+ *   -> 새 값은 current 에 넣고, current 가 최대 크기의 절반이 되면 previous 를 통째로 버리고 current 를 previous 로 돌린다.
+ *   -> previous 에서 조회된 값은 current 로 옮긴다(최근에 쓴 값은 남고, 한동안 안 쓴 값만 버려짐).
+ *   -> 저장할 때마다 전체를 훑거나 아무 값이나 골라 지우지 않는다(제거 비용 O(1), 버린 세그먼트는 GC 가 정리).
+ * - 값마다 만료 시각(expiresAt)이 있고, 조회할 때 지난 값은 제거한다.
+ * - 최대 크기는 매번 읽는다 -> 설정값이 바뀌면 다음 저장부터 반영
+ */
+@Slf4j
+public final class SegmentedCache<K, V> {
+    private static final int STAMP_STRIPES = 64;
+
+    private final String name;
+    private final IntSupplier maxSize;
+    private final ToLongFunction<V> expiresAt;
+
+    private final AtomicReference<Segments<K, V>> segments = new AtomicReference<>(Segments.empty());
+
+    // 키 해시별 제거 횟수 -> previous 에서 current 로 옮기는 사이에 제거된 값이 되살아나지 않도록 확인
+    private final AtomicLongArray stamps = new AtomicLongArray(STAMP_STRIPES);
+
+    // 만료, 세그먼트 교체, remove(key) 로 제거된 값 수
+    private final LongAdder evictions = new LongAdder();
+
+    public SegmentedCache(String name, IntSupplier maxSize, ToLongFunction<V> expiresAt) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.expiresAt = expiresAt;
+    }
+
+    // 만료되지 않은 값, 없으면 null
+    public V get(K key, long now) {
+        Segments<K, V> current = segments.get();
+        V value = current.current().get(key);
+        if (value != null) {
+            if (isExpired(value, now)) {
+                if (current.current().remove(key, value)) {
+                    evictions.increment();
+                }
+                return null;
+            }
+            return value;
+        }
+
+        long stamp = stamps.get(stripe(key));
+        value = current.previous().get(key);
+        if (value == null) {
+            return null;
+        }
+        if (isExpired(value, now)) {
+            if (current.previous().remove(key, value)) {
+                evictions.increment();
+            }
+            return null;
+        }
+
+        if (current.previous().remove(key, value) && current.current().putIfAbsent(key, value) == null) {
+            // 옮기는 사이에 제거되었으면 옮긴 값도 제거
+            if (stamps.get(stripe(key)) != stamp) {
+                current.current().remove(key, value);
+            } else {
+                rotateIfFull(current);
+            }
+        }
+        return value;
+    }
+
+    public void put(K key, V value) {
+        Segments<K, V> current = segments.get();
+        current.current().put(key, value);
+        current.previous().remove(key);
+        rotateIfFull(current);
+    }
+
+    // 저장된 값이 value 일 때만 제거
+    public boolean remove(K key, V value) {
+        stamps.incrementAndGet(stripe(key));
+        Segments<K, V> current = segments.get();
+        return current.current().remove(key, value) | current.previous().remove(key, value);
+    }
+
+    public boolean remove(K key) {
+        stamps.incrementAndGet(stripe(key));
+        Segments<K, V> current = segments.get();
+        boolean removed = current.current().remove(key) != null | current.previous().remove(key) != null;
+        if (removed) {
+            evictions.increment();
+        }
+        return removed;
+    }
+
+    // 저장된 값이 있을 때만 교체(세그먼트는 옮기지 않는다)
+    public void computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remapping) {
+        Segments<K, V> current = segments.get();
+        if (current.current().computeIfPresent(key, remapping) == null) {
+            current.previous().computeIfPresent(key, remapping);
+        }
+    }
+
+    /*
+     * 저장된 값과 합쳐서 current 에 저장(없으면 value 그대로)
+     * - previous 에 있던 값도 합친 뒤 previous 에서는 제거
+     * - 동시에 remove 된 값이 합쳐질 수 있다 -> version 처럼 커지기만 하는 값에 사용
+     */
+    public void merge(K key, V value, BinaryOperator<V> merger) {
+        Segments<K, V> current = segments.get();
+        V previous = current.previous().remove(key);
+        current.current().merge(key, previous == null ? value : merger.apply(previous, value), merger);
+        rotateIfFull(current);
+    }
+
+    // 모두 제거(서명 키 교체 등)
+    public void clear() {
+        Segments<K, V> cleared = segments.getAndSet(Segments.empty());
+        evictions.add(cleared.size());
+    }
+
+    public int size() {
+        return segments.get().size();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    private boolean isExpired(V value, long now) {
+        return expiresAt.applyAsLong(value) <= now;
+    }
+
+    /*
+     * current 가 최대 크기의 절반 이상이면 세그먼트 교체
+     * - 교체는 CAS 한번 -> 동시에 교체하려는 스레드 중 하나만 성공, 나머지는 이미 바뀐 세그먼트를 그대로 사용
+     * - 교체 직전에 예전 current 에 들어간 값은 previous 에 남으므로 잃어버리지 않는다.
+     */
+    private void rotateIfFull(Segments<K, V> current) {
+        int segmentSize = Math.max(1, maxSize.getAsInt() / 2);
+        if (current.current().size() >= segmentSize) {
+            Segments<K, V> next = new Segments<>(new ConcurrentHashMap<>(), current.current());
+            if (segments.compareAndSet(current, next)) {
+                evictions.add(current.previous().size());
+                log.debug("{} cache segment rotated, dropped: {}", name, current.previous().size());
+            }
+        }
+    }
+
+    private static int stripe(Object key) {
+        return (key.hashCode() & 0x7fffffff) % STAMP_STRIPES;
+    }
+
+    // current: 새로 넣거나 최근에 조회된 값, previous: 직전 세그먼트(다음 교체 때 통째로 버려짐)
+    private record Segments<K, V>(Map<K, V> current, Map<K, V> previous) {
+        static <K, V> Segments<K, V> empty() {
+            return new Segments<>(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        }
+
+        int size() {
+            return current.size() + previous.size();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package security.demo.cache;
+
+import security.demo.entity.TodoEntity;
+
+import java.util.List;
+
+/*
+ * 유저별 투두 목록 캐시
+ * - TodoService 가 GET /api/todo 조회 시 DB 대신 먼저 확인한다.
+ * - create/update/delete 시에는 캐시를 버리지 않고 목록을 그 자리에서 수정(patch)한다.
+ * - 구현체는 todo.cache.type 으로 선택(local: LocalTodoListCache, none: NoOpTodoListCache)
+ *   -> 분산 캐시(Redis 등)를 붙일 때는 이 인터페이스를 구현하면 된다.
+ *
+ * 리턴되는 목록은 읽기 전용으로 취급해야 한다.
+ */
+public interface TodoListCache {
+
+    // 캐시된 목록 리턴, 없거나 만료되었으면 null
+    List<TodoEntity> get(String userId);
+
+    /*
+     * DB 조회 직전에 받아두는 값
+     * - 조회하는 사이에 같은 유저의 투두가 바뀌면 put() 에서 오래된 목록을 저장하지 않는다.
+     */
+    long loadStamp(String userId);
+
+    // DB에서 읽은 목록 저장(loadStamp 이후 변경이 있었으면 저장하지 않음)
+    void put(String userId, List<TodoEntity> todos, long loadStamp);
+
+    // 새로 생성된 투두를 캐시된 목록 끝에 추가
+    void add(String userId, TodoEntity todo);
+
+    // 수정된 투두로 캐시된 목록의 같은 id 항목 교체
+    void replace(String userId, TodoEntity todo);
+
+    // 삭제된 투두를 캐시된 목록에서 제거
+    void remove(String userId, long todoId);
+
+    // 유저의 캐시된 목록 전체 제거
+    void evict(String userId);
+}
@@ -0,0 +1,17 @@
+package security.demo.cache;
+
+/*
+ * 유저별 투두 목록 version 캐시(ETag, ?since= 조회에서 DB 를 읽지 않고 확인)
+ * - 값은 TodoSyncEntity.version 과 같다. 변경 커밋 후 TodoService 가 advance() 로 올린다.
+ * - 구현체는 목록 캐시와 같이 todo.cache.type 으로 선택(local: LocalTodoVersionCache, none: NoOpTodoVersionCache)
+ *   -> 분산 캐시를 붙일 때는 목록 캐시와 같은 저장소로 이 인터페이스를 구현하면 된다
+ *      (로컬 version 캐시는 다른 인스턴스의 변경을 ttl 동안 모름).
+ */
+public interface TodoVersionCache {
+
+    // 캐시된 version, 없거나 만료되었으면 null(호출한 쪽이 todo_sync 를 읽는다)
+    Long get(String userId);
+
+    // 커밋된 version 반영(캐시된 값보다 작으면 무시)
+    void advance(String userId, long version);
+}
@@ -0,0 +1,24 @@
+package security.demo.config;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/*
+ * reactive 프로필의 R2DBC 트랜잭션
+ * - R2dbcTransactionManager 를 빈으로 등록하면 JPA 트랜잭션 매니저와 함께 두 개가 되어
+ *   기존 @Transactional(JPA)이 어느 것을 쓸지 정하지 못한다.
+ *   -> 빈으로 등록하지 않고 TransactionalOperator 안에서만 사용(R2DBC 작업은 명시적으로 트랜잭션 지정)
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfig {
+
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator(ConnectionFactory connectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+}
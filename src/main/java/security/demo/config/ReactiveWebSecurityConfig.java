@@ -0,0 +1,114 @@
+package security.demo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.web.server.ManagementServerProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.security.web.server.util.matcher.AndServerWebExchangeMatcher;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import security.demo.repository.reactive.ReactiveUserRepository;
+import security.demo.security.ReactiveJwtAuthenticationFilter;
+import security.demo.security.TokenProvider;
+import security.demo.security.TokenRevocationList;
+import security.demo.security.UserPrincipalCache;
+import security.demo.security.VerifiedTokenCache;
+
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+
+import static org.springframework.security.config.Customizer.withDefaults;
+
+/*
+ * reactive 프로필(WebFlux)의 보안 설정 -> 허용 경로(관리 포트의 지표 수집 포함), 무상태, cors 는 WebSecurityConfig 와 같다.
+ * - 인증 없이 보호된 경로에 접근하면 서블릿 모드와 같이 403
+ */
+@Configuration
+@EnableWebFluxSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWebSecurityConfig {
+    @Autowired
+    private TokenProvider tokenProvider;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    private ReactiveUserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ManagementServerProperties managementServerProperties;
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        ReactiveJwtAuthenticationFilter jwtAuthenticationFilter = new ReactiveJwtAuthenticationFilter(
+                tokenProvider, verifiedTokenCache, tokenRevocationList, userPrincipalCache, userRepository, meterRegistry);
+
+        return http.cors(withDefaults())
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                // 세션에 인증 정보를 저장하지 않음(STATELESS)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .exceptionHandling(exceptionHandling -> exceptionHandling
+                        .authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.FORBIDDEN)))
+                .authorizeExchange(authorize -> authorize
+                        .pathMatchers("/", "/api/auth/**").permitAll()
+                        .pathMatchers("/.well-known/jwks.json").permitAll()
+                        .pathMatchers("/actuator/health").permitAll()
+                        // 지표 수집은 관리 포트로 들어온 요청만 허용, 서비스 포트에서는 인증 필요
+                        .matchers(new AndServerWebExchangeMatcher(
+                                ServerWebExchangeMatchers.pathMatchers("/actuator/prometheus"),
+                                exchange -> {
+                                    InetSocketAddress local = exchange.getRequest().getLocalAddress();
+                                    return local != null && isManagementPort(local.getPort())
+                                            ? ServerWebExchangeMatcher.MatchResult.match()
+                                            : ServerWebExchangeMatcher.MatchResult.notMatch();
+                                })).permitAll()
+                        .anyExchange().authenticated())
+                .addFilterAt(jwtAuthenticationFilter, SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    // 관리 포트를 따로 두지 않았으면(management.server.port 미설정) 항상 false
+    private boolean isManagementPort(int port) {
+        Integer managementPort = managementServerProperties.getPort();
+        return managementPort != null && managementPort > 0 && managementPort == port;
+    }
+
+    @Bean
+    public CorsConfigurationSource corsConfigurationSource() {
+        CorsConfiguration config = new CorsConfiguration();
+
+        config.setAllowCredentials(true);
+        config.setAllowedOriginPatterns(Arrays.asList("*"));
+        config.setAllowedMethods(Arrays.asList("HEAD", "POST", "GET", "DELETE", "PUT", "PATCH"));
+        config.setAllowedHeaders((Arrays.asList("*")));
+
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", config);
+
+        return source;
+    }
+}
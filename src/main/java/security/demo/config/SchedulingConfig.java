@@ -0,0 +1,9 @@
+package security.demo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling // @Scheduled 작업 활성화(만료된 토큰 정리 등)
+public class SchedulingConfig {
+}
@@ -1,8 +1,11 @@
 package security.demo.config;
 
+import jakarta.servlet.DispatcherType;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.filter.CorsFilter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.web.server.ManagementServerProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -21,11 +24,15 @@ import static org.springframework.security.config.Customizer.withDefaults;
 
 @Configuration // 스프링 컨테이너에게 해당 클래스가 spring 설정 클래스임을 알림
 @EnableWebSecurity // spring security 활성화
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET) // reactive 프로필은 ReactiveWebSecurityConfig
 @Slf4j
 public class WebSecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private ManagementServerProperties managementServerProperties;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity httpSecurity) throws Exception {
         httpSecurity.cors(withDefaults()) // cors 설정을 기본을호 설정
@@ -34,9 +41,23 @@ public class WebSecurityConfig {
                         // session 기반이 아니므로 무상태(STATELESS)로 설정
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(authorize -> authorize
+                        // 비동기 응답(SSE 스트림, 내보내기)이 끝날 때의 재디스패치 -> 처음 요청에서 이미 인증됨
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC)
+                        .permitAll()
                         .requestMatchers("/", "/api/auth/**")
                         // 요청경로가 "/", "/auth/**" 허용(permitAll)한다. -> 인증 안해도(제외) 된다.
                         .permitAll()
+                        // 공개키 목록(JWKS)은 다른 서비스가 인증 없이 가져간다.
+                        .requestMatchers("/.well-known/jwks.json")
+                        .permitAll()
+                        // 헬스 체크
+                        .requestMatchers("/actuator/health")
+                        .permitAll()
+                        // 지표 수집(Prometheus scrape)은 관리 포트(management.server.port, 외부에 열지 않음)로 들어온 요청만 허용
+                        // -> 서비스 포트의 /actuator/prometheus 는 인증 필요
+                        .requestMatchers(request -> isManagementPort(request.getLocalPort())
+                                && "/actuator/prometheus".equals(request.getRequestURI()))
+                        .permitAll()
                         // 그 이외의 모든 경로는 인증해야한다.
                         .anyRequest().authenticated());
 
@@ -45,6 +66,12 @@ public class WebSecurityConfig {
         return httpSecurity.build();
     }
 
+    // 관리 포트를 따로 두지 않았으면(management.server.port 미설정) 항상 false
+    private boolean isManagementPort(int port) {
+        Integer managementPort = managementServerProperties.getPort();
+        return managementPort != null && managementPort > 0 && managementPort == port;
+    }
+
     // cors 설정
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
@@ -0,0 +1,19 @@
+package security.demo.config.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("user.email-filter")
+public class EmailFilterProperties {
+    private long expectedInsertions = 1_000_000;
+    // 예상 가입자 수 -> user.email-filter.expected-insertions
+    private double falsePositiveRate = 0.01;
+    // 오탐률(없는 이메일을 있다고 판단할 확률) -> user.email-filter.false-positive-rate
+}
+
+// 가입 이메일 Bloom filter 크기 설정 값을 가져오는 클래스
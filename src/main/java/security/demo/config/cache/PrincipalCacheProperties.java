@@ -0,0 +1,23 @@
+package security.demo.config.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("user.principal-cache")
+public class PrincipalCacheProperties {
+    private int maxSize = 100_000;
+    // 캐시할 최대 유저 수 -> user.principal-cache.max-size
+    private Duration ttl = Duration.ofMinutes(10);
+    // DB에서 읽은 유저 정보를 캐시에 유지하는 시간 -> user.principal-cache.ttl
+    private Duration negativeTtl = Duration.ofSeconds(30);
+    // 없는 유저를 "없음"으로 캐시에 유지하는 시간(ttl 보다 짧게) -> user.principal-cache.negative-ttl
+}
+
+// 인증된 유저 정보(principal) 캐시 설정 값을 가져오는 클래스
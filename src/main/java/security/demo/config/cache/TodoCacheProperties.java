@@ -0,0 +1,23 @@
+package security.demo.config.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("todo.cache")
+public class TodoCacheProperties {
+    private String type = "local";
+    // 캐시 구현 선택(목록, version 캐시 같이) -> todo.cache.type (local: 로컬 메모리, none: 캐시 사용 안함)
+    private int maxUsers = 10_000;
+    // 목록을 캐시할 최대 유저 수 -> todo.cache.max-users
+    private Duration ttl = Duration.ofMinutes(5);
+    // 목록을 DB에서 읽은 뒤 캐시에 유지하는 시간 -> todo.cache.ttl
+}
+
+// 유저별 투두 목록 캐시 설정 값을 가져오는 클래스
@@ -0,0 +1,79 @@
+package security.demo.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import security.demo.datasource.ReplicaLagMonitor;
+import security.demo.datasource.ReplicaRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * 읽기/쓰기 DataSource 분리(app.datasource.replica.urls 를 설정했을 때만)
+ * - dataSource(@Primary, JPA/JdbcTemplate 이 사용) = LazyConnectionDataSourceProxy(ReplicaRoutingDataSource)
+ *   -> 트랜잭션 시작 시 커넥션을 바로 가져오지 않고 첫 쿼리에서 가져온다.
+ *   -> ReplicaRoutingDataSource.readFromReplica() 안의 조회만 복제본, 나머지(읽기 전용 트랜잭션 포함)는 primary
+ * - primary 풀은 spring.datasource.*, spring.datasource.hikari.* 그대로 사용
+ * - 풀 지표(hikaricp.connections.*)는 pool 태그로 구분: primary, replica-1, replica-2, ...
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.urls")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        return dataSource;
+    }
+
+    // 복제본 풀은 빈이 아니므로 스프링의 Hikari 지표 설정이 적용되지 않음 -> 여기서 직접 연결
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties primaryProperties,
+                                                             ReplicaDataSourceProperties properties,
+                                                             ObjectProvider<MeterRegistry> meterRegistry) {
+        List<ReplicaRoutingDataSource.Replica> replicas = new ArrayList<>();
+        for (String url : properties.getUrls()) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(properties.getUsername() != null
+                    ? properties.getUsername() : primaryProperties.determineUsername());
+            replica.setPassword(properties.getPassword() != null
+                    ? properties.getPassword() : primaryProperties.determinePassword());
+            replica.setMaximumPoolSize(properties.getMaximumPoolSize());
+            replica.setReadOnly(true);
+            // 복제본이 내려가 있어도 애플리케이션은 기동(primary 로 읽기)
+            replica.setInitializationFailTimeout(-1);
+            meterRegistry.ifAvailable(registry ->
+                    replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            replicas.add(new ReplicaRoutingDataSource.Replica(replica.getPoolName(), replica));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(HikariDataSource primaryDataSource,
+                                               ReplicaRoutingDataSource replicaRoutingDataSource,
+                                               ReplicaDataSourceProperties properties) {
+        return new ReplicaLagMonitor(primaryDataSource, replicaRoutingDataSource.getReplicas(), properties.getMaxLag());
+    }
+}
@@ -0,0 +1,31 @@
+package security.demo.config.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("app.datasource.replica")
+public class ReplicaDataSourceProperties {
+    private List<String> urls = new ArrayList<>();
+    // 읽기 전용 복제본 JDBC URL 목록(쉼표로 구분), 비워두면 모든 쿼리가 spring.datasource.url 로 -> app.datasource.replica.urls
+    private String username;
+    // 복제본 계정, 없으면 spring.datasource.username -> app.datasource.replica.username
+    private String password;
+    // 복제본 비밀번호, 없으면 spring.datasource.password -> app.datasource.replica.password
+    private int maximumPoolSize = 10;
+    // 복제본마다의 커넥션 풀 크기 -> app.datasource.replica.maximum-pool-size
+    private Duration maxLag = Duration.ofSeconds(2);
+    // 복제 지연이 이보다 크면 그 복제본으로 보내지 않는다(모두 지연되면 primary) -> app.datasource.replica.max-lag
+    private Duration checkInterval = Duration.ofSeconds(1);
+    // heartbeat 기록 + 복제 지연 확인 주기 -> app.datasource.replica.check-interval
+}
+
+// 읽기 전용 복제본 DB 설정 값을 가져오는 클래스
@@ -5,6 +5,9 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.time.Instant;
+
 @Getter
 @Setter
 @Component
@@ -14,6 +17,22 @@ public class JwtProperties {
     // application.properties JWT주석 아래에 jwt.issuer
     private String secretKey;
     // application.properties jwt.secret_key 가져옴  secret_key =  private String secretKey; 같음
+    private int verifiedTokenCacheSize = 10_000;
+    // 서명 검증이 끝난 토큰을 보관할 최대 개수(jwt.verified-token-cache-size)
+    private Duration accessTokenValidity = Duration.ofMinutes(15);
+    // access token(JWT) 유효 시간 -> jwt.access-token-validity
+    private Duration refreshTokenValidity = Duration.ofDays(14);
+    // refresh token 유효 시간 -> jwt.refresh-token-validity
+    private String algorithm = "HS512";
+    // access token 서명 알고리즘(HS512: 공유 비밀키, RS256: kid 별 RSA 키 + JWKS 공개) -> jwt.algorithm
+    private Duration keyRotationInterval = Duration.ofDays(1);
+    // RS256 서명 키 교체 주기 -> jwt.key-rotation-interval
+    private int rsaKeySize = 2048;
+    // RS256 키 길이(bit) -> jwt.rsa-key-size
+    private Instant legacyHs512Until;
+    // RS256 일 때 HS512 토큰을 계속 검증할 시각(없으면 HS512 토큰 거절) -> jwt.legacy-hs512-until
+    private String keyEncryptionKey;
+    // RS256 개인키를 DB 에 저장할 때 쓰는 AES 키(Base64, 16/24/32 바이트, 모든 인스턴스가 같은 값) -> jwt.key-encryption-key
 }
 
 // application.properties에 파일에 있는 설정 값을 가졍고자 하는 클래스
\ No newline at end of file
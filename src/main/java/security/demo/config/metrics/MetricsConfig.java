@@ -0,0 +1,198 @@
+package security.demo.config.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import security.demo.cache.LocalTodoListCache;
+import security.demo.datasource.ReplicaRoutingDataSource;
+import security.demo.security.PasswordHasher;
+import security.demo.security.SigninAttemptLimiter;
+import security.demo.security.TokenRevocationList;
+import security.demo.security.UserPrincipalCache;
+import security.demo.security.VerifiedTokenCache;
+import security.demo.stream.TodoChangeFeed;
+import security.demo.writebehind.TodoWriteBehind;
+
+import javax.cache.CacheManager;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/*
+ * 컴포넌트들이 LongAdder 로 모아둔 카운터를 Micrometer 지표로 노출(/actuator/prometheus)
+ * - 요청 경로에서는 기존 카운터만 증가시키고, 값은 수집(scrape)할 때 읽는다.
+ * - 엔드포인트별 응답 시간은 스프링 기본 지표 http.server.requests(uri 태그), 리포지토리 쿼리 시간은
+ *   spring.data.repository.invocations 를 사용한다(application.properties 에서 히스토그램 활성화).
+ * - 캐시 지표(cache.*)는 JCacheMetrics 와 같은 태그(cache, cacheManager)를 붙인다.
+ *   -> Prometheus 는 같은 이름의 지표가 같은 태그 키를 가져야 함
+ */
+@Configuration
+public class MetricsConfig {
+    private static final String LOCAL_CACHE_MANAGER = "local";
+
+    @Bean
+    public MeterBinder verifiedTokenCacheMetrics(VerifiedTokenCache cache) {
+        return registry -> bindCache(registry, "jwt.verified-token", cache,
+                VerifiedTokenCache::getHitCount, VerifiedTokenCache::getMissCount,
+                VerifiedTokenCache::getEvictionCount, VerifiedTokenCache::size);
+    }
+
+    @Bean
+    public MeterBinder userPrincipalCacheMetrics(UserPrincipalCache cache) {
+        return registry -> {
+            FunctionCounter.builder("cache.gets", cache, UserPrincipalCache::getHitCount)
+                    .tags("cache", "user.principal", "cacheManager", LOCAL_CACHE_MANAGER, "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", cache, UserPrincipalCache::getMissCount)
+                    .tags("cache", "user.principal", "cacheManager", LOCAL_CACHE_MANAGER, "result", "miss")
+                    .register(registry);
+            Gauge.builder("cache.size", cache, UserPrincipalCache::size)
+                    .tags("cache", "user.principal", "cacheManager", LOCAL_CACHE_MANAGER).register(registry);
+        };
+    }
+
+    // todo.cache.type=none 이면 LocalTodoListCache 빈이 없음
+    @Bean
+    public MeterBinder todoListCacheMetrics(ObjectProvider<LocalTodoListCache> cacheProvider) {
+        return registry -> cacheProvider.ifAvailable(cache -> bindCache(registry, "todo.list", cache,
+                LocalTodoListCache::getHitCount, LocalTodoListCache::getMissCount,
+                LocalTodoListCache::getEvictionCount, LocalTodoListCache::size));
+    }
+
+    /*
+     * Hibernate 2차 캐시 영역(user, user-email, todo, todo-by-user, ...)별 적중/미스/저장/제거 수
+     * - Ehcache 의 JCache 통계(ehcache.xml enable-statistics)를 읽는다.
+     */
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                    .getCache().getRegionFactory();
+            if (!(regionFactory instanceof JCacheRegionFactory jCacheRegionFactory)) {
+                return; // 2차 캐시를 끈 경우
+            }
+            CacheManager cacheManager = jCacheRegionFactory.getCacheManager();
+            for (String name : cacheManager.getCacheNames()) {
+                JCacheMetrics.monitor(registry, cacheManager.getCache(name));
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder passwordHasherMetrics(PasswordHasher hasher) {
+        return registry -> {
+            // BCrypt 계산 시간 / 대기열에서 기다린 시간
+            FunctionTimer.builder("password.hash", hasher,
+                            PasswordHasher::getCompletedCount, PasswordHasher::getHashTimeNanos, TimeUnit.NANOSECONDS)
+                    .description("BCrypt hash/compare time").register(registry);
+            FunctionTimer.builder("password.hash.queue", hasher,
+                            PasswordHasher::getCompletedCount, PasswordHasher::getQueueTimeNanos, TimeUnit.NANOSECONDS)
+                    .description("Time spent waiting for a hash thread").register(registry);
+            FunctionCounter.builder("password.hash.rejected", hasher, PasswordHasher::getRejectedCount)
+                    .register(registry);
+            Gauge.builder("password.hash.queue.size", hasher, PasswordHasher::getQueueSize)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder signinLimiterMetrics(SigninAttemptLimiter limiter) {
+        return registry -> {
+            FunctionCounter.builder("signin.failures", limiter, SigninAttemptLimiter::getFailureCount)
+                    .register(registry);
+            FunctionCounter.builder("signin.blocked", limiter, SigninAttemptLimiter::getBlockedByEmailCount)
+                    .tag("by", "email").register(registry);
+            FunctionCounter.builder("signin.blocked", limiter, SigninAttemptLimiter::getBlockedByIpCount)
+                    .tag("by", "ip").register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder tokenRevocationListMetrics(TokenRevocationList revocationList) {
+        return registry -> {
+            FunctionCounter.builder("jwt.revoked.rejected", revocationList, TokenRevocationList::getRejectedCount)
+                    .register(registry);
+            Gauge.builder("jwt.revoked.size", revocationList, TokenRevocationList::size)
+                    .register(registry);
+        };
+    }
+
+    // 투두 변경 스트림: 연결된 구독자 수, 발행한 이벤트 수, 대기열이 넘쳐서 snapshot 으로 다시 보낸 횟수
+    @Bean
+    public MeterBinder todoChangeFeedMetrics(TodoChangeFeed feed) {
+        return registry -> {
+            Gauge.builder("todo.stream.subscribers", feed, TodoChangeFeed::getSubscriberCount)
+                    .register(registry);
+            FunctionCounter.builder("todo.stream.events", feed, TodoChangeFeed::getPublishedCount)
+                    .register(registry);
+            FunctionCounter.builder("todo.stream.overflows", feed, TodoChangeFeed::getOverflowCount)
+                    .register(registry);
+        };
+    }
+
+    // done 변경 write-behind: 반영 대기 중인 투두 수, 접수/병합/반영/거절(가득 차서 바로 DB 에 씀) 수
+    @Bean
+    @ConditionalOnProperty(name = "todo.write-behind.enabled", havingValue = "true")
+    public MeterBinder todoWriteBehindMetrics(TodoWriteBehind writeBehind) {
+        return registry -> {
+            Gauge.builder("todo.write-behind.pending", writeBehind, TodoWriteBehind::getPendingCount)
+                    .register(registry);
+            FunctionCounter.builder("todo.write-behind.changes", writeBehind, TodoWriteBehind::getAcceptedCount)
+                    .tag("result", "accepted").register(registry);
+            FunctionCounter.builder("todo.write-behind.changes", writeBehind, TodoWriteBehind::getCoalescedCount)
+                    .tag("result", "coalesced").register(registry);
+            FunctionCounter.builder("todo.write-behind.changes", writeBehind, TodoWriteBehind::getFlushedCount)
+                    .tag("result", "flushed").register(registry);
+            FunctionCounter.builder("todo.write-behind.changes", writeBehind, TodoWriteBehind::getRejectedCount)
+                    .tag("result", "rejected").register(registry);
+        };
+    }
+
+    // 읽기 전용 커넥션 라우팅: 복제본별로 보낸 수(정상인 복제본이 없어서 primary 로 보낸 수는 target=primary),
+    // 복제 지연(측정 실패면 음수), 라우팅 대상 여부. 풀별 커넥션 지표는 hikaricp.connections.*(pool 태그)
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.replica.urls")
+    public MeterBinder replicaRoutingMetrics(ReplicaRoutingDataSource routing) {
+        return registry -> {
+            for (ReplicaRoutingDataSource.Replica replica : routing.getReplicas()) {
+                FunctionCounter.builder("datasource.routing.connections", replica,
+                                ReplicaRoutingDataSource.Replica::getRoutedCount)
+                        .tag("target", replica.getName()).register(registry);
+                TimeGauge.builder("datasource.replica.lag", replica, TimeUnit.MILLISECONDS,
+                                ReplicaRoutingDataSource.Replica::getLagMillis)
+                        .tag("pool", replica.getName()).register(registry);
+                Gauge.builder("datasource.replica.healthy", replica, r -> r.isHealthy() ? 1 : 0)
+                        .tag("pool", replica.getName()).register(registry);
+            }
+            FunctionCounter.builder("datasource.routing.connections", routing,
+                            ReplicaRoutingDataSource::getFallbackCount)
+                    .tag("target", ReplicaRoutingDataSource.PRIMARY).register(registry);
+        };
+    }
+
+    private static <T> void bindCache(MeterRegistry registry, String name, T cache,
+                                      ToDoubleFunction<T> hits,
+                                      ToDoubleFunction<T> misses,
+                                      ToDoubleFunction<T> evictions,
+                                      ToDoubleFunction<T> size) {
+        FunctionCounter.builder("cache.gets", cache, hits)
+                .tags("cache", name, "cacheManager", LOCAL_CACHE_MANAGER, "result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", cache, misses)
+                .tags("cache", name, "cacheManager", LOCAL_CACHE_MANAGER, "result", "miss").register(registry);
+        FunctionCounter.builder("cache.evictions", cache, evictions)
+                .tags("cache", name, "cacheManager", LOCAL_CACHE_MANAGER).register(registry);
+        Gauge.builder("cache.size", cache, size)
+                .tags("cache", name, "cacheManager", LOCAL_CACHE_MANAGER).register(registry);
+    }
+}
@@ -0,0 +1,21 @@
+package security.demo.config.password;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("password.hash")
+public class PasswordHashProperties {
+    private int strength = 10;
+    // BCrypt strength(log rounds) -> password.hash.strength
+    private int threads = Runtime.getRuntime().availableProcessors();
+    // 해시 계산 전용 스레드 수 -> password.hash.threads
+    private int queueCapacity = 64;
+    // 대기열 최대 길이, 넘으면 바로 503 응답 -> password.hash.queue-capacity
+}
+
+// BCrypt 해시 계산용 실행기 설정 값을 가져오는 클래스
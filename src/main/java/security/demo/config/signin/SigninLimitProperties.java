@@ -0,0 +1,25 @@
+package security.demo.config.signin;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("signin.limit")
+public class SigninLimitProperties {
+    private int maxFailuresPerEmail = 5;
+    // 이메일당 window 안에서 허용하는 로그인 실패 횟수 -> signin.limit.max-failures-per-email
+    private int maxFailuresPerIp = 50;
+    // IP당 window 안에서 허용하는 로그인 실패 횟수 -> signin.limit.max-failures-per-ip
+    private Duration window = Duration.ofMinutes(15);
+    // 실패 횟수를 세는 시간 단위, 지난 window 의 실패는 시간이 지날수록 덜 반영됨 -> signin.limit.window
+    private int stripes = 4096;
+    // 카운터 배열 크기(2의 제곱수로 올림) -> signin.limit.stripes
+}
+
+// 로그인 실패 제한 설정 값을 가져오는 클래스
@@ -0,0 +1,25 @@
+package security.demo.config.stream;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("todo.stream")
+public class TodoStreamProperties {
+    private int bufferSize = 256;
+    // 구독자(연결)별로 보내지 못하고 쌓아둘 최대 이벤트 수 -> todo.stream.buffer-size (넘치면 비우고 snapshot 으로 다시 동기화)
+    private int historySize = 1024;
+    // 유저별로 보관하는 최근 이벤트 수(Last-Event-ID 로 이어받기) -> todo.stream.history-size
+    private Duration timeout = Duration.ofMinutes(30);
+    // 연결 유지 시간, 끊기면 클라이언트가 Last-Event-ID 로 다시 연결 -> todo.stream.timeout
+    private Duration idleTtl = Duration.ofMinutes(10);
+    // 구독자가 없는 유저의 이벤트 기록을 유지하는 시간 -> todo.stream.idle-ttl
+}
+
+// 투두 변경 스트림(/api/todo/stream) 설정 값을 가져오는 클래스
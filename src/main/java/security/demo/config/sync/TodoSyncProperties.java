@@ -0,0 +1,19 @@
+package security.demo.config.sync;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("todo.sync")
+public class TodoSyncProperties {
+    private Duration tombstoneTtl = Duration.ofDays(30);
+    // 삭제 기록 보관 기간, 이보다 오래된 since 로 조회하면 전체 목록을 응답 -> todo.sync.tombstone-ttl
+}
+
+// 투두 변경분 조회(GET /api/todo?since=) 설정 값을 가져오는 클래스
@@ -0,0 +1,29 @@
+package security.demo.config.writebehind;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("todo.write-behind")
+public class TodoWriteBehindProperties {
+    private boolean enabled = false;
+    // done 변경(PATCH /api/todo/{id})을 로컬 로그에 먼저 기록하고 DB 에는 모아서 반영 -> todo.write-behind.enabled
+    private String logPath = "data/todo-done.log";
+    // 반영 전 변경을 기록하는 append-only 로그(세그먼트 파일 <log-path>.1, .2, ..., 재시작 시 여기서 복구) -> todo.write-behind.log-path
+    private boolean fsync = true;
+    // 응답 전에 로그를 디스크에 강제로 쓰기(fsync), 끄면 OS 장애 시 최근 변경 유실 가능 -> todo.write-behind.fsync
+    private Duration flushInterval = Duration.ofMillis(200);
+    // DB 반영 주기(반영 지연의 상한) -> todo.write-behind.flush-interval
+    private int batchSize = 500;
+    // 한번에 DB 에 반영하는 최대 변경 수 -> todo.write-behind.batch-size
+    private int maxPending = 100_000;
+    // 반영 대기 최대 투두 수, 넘으면 바로 DB 에 쓴다(DB 장애 시 메모리/로그가 계속 늘지 않도록) -> todo.write-behind.max-pending
+}
+
+// 투두 done 변경 write-behind 설정 값을 가져오는 클래스
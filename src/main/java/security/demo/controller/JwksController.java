@@ -0,0 +1,31 @@
+package security.demo.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import security.demo.security.JwtKeyRing;
+
+import java.time.Duration;
+import java.util.Map;
+
+/*
+ * JWKS(JSON Web Key Set) 공개
+ * - 다른 서비스는 이 공개키로 access token 을 직접 검증한다(비밀키 공유, 검증 요청 불필요).
+ * - 응답은 5분 동안 캐시 가능(Cache-Control) -> 새 키는 서명에 쓰이기 5분 전에 먼저 공개된다.
+ */
+@RestController
+public class JwksController {
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic();
+
+    @Autowired
+    private JwtKeyRing jwtKeyRing;
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CACHE_CONTROL)
+                .body(jwtKeyRing.getJwks());
+    }
+}
@@ -2,23 +2,39 @@ package security.demo.controller;
 
 import com.fasterxml.jackson.databind.deser.CreatorProperty;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import security.demo.dto.ResponseDTO;
+import security.demo.dto.TodoBatchResultDTO;
 import security.demo.dto.TodoDTO;
 import security.demo.entity.TodoEntity;
+import security.demo.security.UserPrincipal;
+import security.demo.service.TodoDelta;
 import security.demo.service.TodoService;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/todo")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET) // reactive 프로필은 ReactiveTodoController
 public class TodoController {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_BATCH_SIZE = 500;
+    // 목록 응답은 유저마다 다르고, 쓰기 전에 매번 ETag 로 확인해야 한다.
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     @Autowired
     private TodoService service;
 
@@ -38,7 +54,7 @@ public class TodoController {
      *  - 우리코드에서   jwtAuthenticationFilter 클래스에서 userId 바탕으로 이중 객쳏함
      * */
     @PostMapping
-    public ResponseEntity<?> create(@AuthenticationPrincipal String userId, @RequestBody TodoDTO dto) {
+    public ResponseEntity<?> create(@AuthenticationPrincipal UserPrincipal principal, @RequestBody TodoDTO dto) {
         try {
             // TODO: 임시 유저로 하드코딩한 부분으로 추후 로그인된 유저로 변경 필요
             // 아직 유저를 구현하지 않아 임시아이디 생성
@@ -55,7 +71,8 @@ public class TodoController {
             // TODO: 임시 유저로 하드코딩한 부분으로 추후 로그인된 유저로 변경 필요
             // entity.setUserId(temporaryUserId);
             // 기존 temporaryUserId 대신 매개변수로 넘어온 userId로 설정
-            entity.setUserId(userId);
+            // [after] principal 은 UserPrincipal(인증 필터에서 캐시된 유저 정보) -> getId()가 userId
+            entity.setUserId(principal.getId());
 
             // 4. 서비스 계층을 이용해 todo 엔티티 생성
             List<TodoEntity> entities = service.create(entity);
@@ -92,8 +109,31 @@ public class TodoController {
 
     // 여기서 @RequestBody TodoDTO는 왜 안받아 오는가? -> 일반적인 Get 요청은 서버에서 사용
     // 지금은 본문에 데이터가 포함되어있지 않고, 쿼리 파라미터로 특정아이디를 조회하지 않기 때문이다.
+    // [after] 페이지 조회: GET /api/todo?cursor={이전 응답의 nextCursor}&limit={개수}
+    // cursor, limit 둘 다 없으면 기존처럼 전체 목록을 리턴
+    // [after] 조건부 조회: 목록 version 을 ETag 로 응답, If-None-Match 가 같으면 목록을 읽지 않고 304
+    // [after] 변경분 조회: GET /api/todo?since={이전 응답의 version} -> 그 이후 바뀐 투두와 삭제된 id 만 리턴
     @GetMapping
-    public ResponseEntity<?> read(@AuthenticationPrincipal String userId) {
+    public ResponseEntity<?> read(@AuthenticationPrincipal UserPrincipal principal,
+                                  @RequestParam(required = false) Long cursor,
+                                  @RequestParam(required = false) Integer limit,
+                                  @RequestParam(required = false) Long since,
+                                  WebRequest request) {
+        if (cursor != null || limit != null) {
+            return readPage(principal.getId(), cursor, limit);
+        }
+
+        long version = service.currentVersion(principal.getId());
+        String eTag = eTag(version, service.pendingStamp(principal.getId()));
+        // 변경 없음 -> 304(응답 헤더는 checkNotModified 가 설정), DB/캐시 목록 조회 안함
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+
+        if (since != null) {
+            return readSince(principal.getId(), since, version, eTag);
+        }
+
         // TODO: 임시 유저 하드코딩으로 추후 수정 필요
         //String temporaryUserId = "temporary-user";
 
@@ -103,18 +143,142 @@ public class TodoController {
         // 서비스:데이터베이스와 가장 가까운 곳에서 비즈니스(TodoEntity) 로직을 처리한다.
         // 컨트롤러: 클라이언트와 소통하는 역할
         // 서비스에서 데이터베이스 조회 -> todoEntity 반환 -> 클라어트로 보낼때 DTO 변환
-        List<TodoEntity> entities = service.retrieve(userId);
+        List<TodoEntity> entities = service.retrieve(principal.getId());
 
         // 2.리턴된 엔티티 리스트를 TodoDTO 리스트로 변환 -> 이건 서비스-> 컨트롤러 디티오 형식으로 받아야해서 변환
         List<TodoDTO> dtos = entities.stream().map(TodoDTO::new).collect(Collectors.toList());
 
         // 3. 변환된 TodoDTO 리스트를 이용해서 응답형태인 ResponseDTO를 초기화 -> 2. 리턴된걸 출력하면 안돼나?
-        ResponseDTO<TodoDTO> response = ResponseDTO.<TodoDTO>builder().data(dtos).build();
+        ResponseDTO<TodoDTO> response = ResponseDTO.<TodoDTO>builder().data(dtos).version(version).build();
 
         // 4. ResponsDTO를 리턴 -> 아래에는 ResponseEntity 이유는 반환타입이기 떄문에
+        // 목록은 version 을 읽은 뒤에 조회하므로 ETag 보다 같거나 새로운 목록(다음 요청에서 다시 비교하면 됨)
+        return ResponseEntity.ok().eTag(eTag).cacheControl(REVALIDATE).body(response);
+    }
+
+    /*
+     * 변경분 조회
+     * - since 가 현재 version 과 같으면 DB 조회 없이 빈 변경분
+     * - 아니면 since 이후 생성/수정된 투두(data)와 삭제된 id(deleted), 너무 오래된 since 면 전체 목록(reset)
+     * - 응답의 version 은 ETag 보다 클 수 있다(그 사이 커밋된 변경까지 포함, 같은 변경을 다시 받아도 결과는 같음).
+     */
+    private ResponseEntity<?> readSince(String userId, long since, long version, String eTag) {
+        if (since < 0) {
+            ResponseDTO<TodoDTO> response = ResponseDTO.<TodoDTO>builder()
+                    .error("since는 0 이상이어야 합니다.")
+                    .build();
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        TodoDelta delta = since == version
+                ? TodoDelta.changes(version, List.of(), List.of())
+                : service.retrieveSince(userId, since);
+
+        ResponseDTO<TodoDTO> response = ResponseDTO.<TodoDTO>builder()
+                .data(delta.todos().stream().map(TodoDTO::new).toList())
+                .deleted(delta.deleted())
+                .version(delta.version())
+                .reset(delta.reset() ? Boolean.TRUE : null)
+                .build();
+        return ResponseEntity.ok().eTag(eTag).cacheControl(REVALIDATE).body(response);
+    }
+
+    // 목록 순서가 캐시/DB 에 따라 다를 수 있어서 weak ETag
+    // write-behind 로 아직 반영되지 않은 done 변경이 있으면 그 순번도 붙인다(W/"version.stamp").
+    private static String eTag(long version, long pendingStamp) {
+        return pendingStamp == 0 ? "W/\"" + version + "\"" : "W/\"" + version + "." + pendingStamp + "\"";
+    }
+
+    /*
+     * 페이지 조회
+     * 1. limit + 1 개를 조회해서 limit 보다 많으면 다음 페이지가 있는 것
+     * 2. 다음 페이지가 있으면 이번 페이지 마지막 투두 id를 nextCursor로 응답
+     */
+    private ResponseEntity<?> readPage(String userId, Long cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            ResponseDTO<TodoDTO> response = ResponseDTO.<TodoDTO>builder()
+                    .error("limit은 1 ~ " + MAX_PAGE_SIZE + " 사이여야 합니다.")
+                    .build();
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        List<TodoEntity> entities = service.retrievePage(userId, cursor, pageSize);
+
+        Long nextCursor = null;
+        if (entities.size() > pageSize) {
+            entities = entities.subList(0, pageSize);
+            nextCursor = entities.get(pageSize - 1).getId();
+        }
+
+        List<TodoDTO> dtos = entities.stream().map(TodoDTO::new).collect(Collectors.toList());
+        ResponseDTO<TodoDTO> response = ResponseDTO.<TodoDTO>builder()
+                .data(dtos)
+                .nextCursor(nextCursor)
+                .build();
+
         return ResponseEntity.ok().body(response);
     }
 
+    /*
+     * 내보내기(대용량 목록)
+     * - 전체 목록을 메모리에 올리지 않고 DB에서 읽는 대로 응답에 바로 쓴다.
+     * - StreamingResponseBody 는 요청 스레드가 아닌 비동기 스레드에서 실행된다.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@AuthenticationPrincipal UserPrincipal principal) {
+        StreamingResponseBody body = out -> service.export(principal.getId(), out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    /*
+     * 일괄 처리(오프라인에서 쌓인 변경을 한번에 동기화)
+     * - POST   /api/todo/batch : 생성, 본문은 TodoDTO 목록
+     * - PUT    /api/todo/batch : 수정, 본문은 id 가 있는 TodoDTO 목록
+     * - DELETE /api/todo/batch : 삭제, 본문은 id 목록
+     * - 항목별 결과(TodoBatchResultDTO)를 요청 순서대로 한번에 응답
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> createBatch(@AuthenticationPrincipal UserPrincipal principal,
+                                         @RequestBody List<TodoDTO> dtos) {
+        return batch(dtos, () -> service.createAll(principal.getId(), dtos));
+    }
+
+    @PutMapping("/batch")
+    public ResponseEntity<?> updateBatch(@AuthenticationPrincipal UserPrincipal principal,
+                                         @RequestBody List<TodoDTO> dtos) {
+        return batch(dtos, () -> service.updateAll(principal.getId(), dtos));
+    }
+
+    @DeleteMapping("/batch")
+    public ResponseEntity<?> deleteBatch(@AuthenticationPrincipal UserPrincipal principal,
+                                         @RequestBody List<Long> ids) {
+        return batch(ids, () -> service.deleteAll(principal.getId(), ids));
+    }
+
+    private ResponseEntity<?> batch(List<?> items, Supplier<List<TodoBatchResultDTO>> operation) {
+        try {
+            if (items == null || items.isEmpty() || items.size() > MAX_BATCH_SIZE) {
+                throw new RuntimeException("batch size must be 1 ~ " + MAX_BATCH_SIZE);
+            }
+
+            ResponseDTO<TodoBatchResultDTO> response = ResponseDTO.<TodoBatchResultDTO>builder()
+                    .data(operation.get())
+                    .build();
+            return ResponseEntity.ok().body(response);
+        } catch (Exception e) {
+            String error = e.getMessage();
+            ResponseDTO<TodoBatchResultDTO> response = ResponseDTO.<TodoBatchResultDTO>builder()
+                    .error(error)
+                    .build();
+
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
     /*
      * 수정은 TodoEntity의 아이디의 경로로 수정한다.
      * 해당 유저는 인증이 된 유저로서 로그인시 자기가 작성한 투두만 수정 가능
@@ -125,10 +289,10 @@ public class TodoController {
      */
     @PutMapping("{id}")
     public ResponseEntity<?> update(@PathVariable long id,
-                                    @AuthenticationPrincipal String userId,
+                                    @AuthenticationPrincipal UserPrincipal principal,
                                     @RequestBody TodoDTO dto) {
         try {
-            TodoDTO update = service.update(id, userId, dto);
+            TodoDTO update = service.update(id, principal.getId(), dto);
 
             ResponseDTO<TodoDTO> response = ResponseDTO.<TodoDTO>builder()
                     .data(Collections.singletonList(update))
@@ -144,6 +308,30 @@ public class TodoController {
         }
     }
 
+    /*
+     * done 만 변경: PATCH /api/todo/{id} {"done": true}
+     * - todo.write-behind.enabled=true 면 로그에 기록하고 바로 응답, DB 반영은 모아서(TodoWriteBehind)
+     * - 없는 투두이거나 다른 유저의 투두면 400
+     */
+    @PatchMapping("{id}")
+    public ResponseEntity<?> updateDone(@PathVariable long id,
+                                        @AuthenticationPrincipal UserPrincipal principal,
+                                        @RequestBody TodoDTO dto) {
+        try {
+            TodoDTO updated = service.updateDone(id, principal.getId(), dto.isDone());
+
+            ResponseDTO<TodoDTO> response = ResponseDTO.<TodoDTO>builder()
+                    .data(Collections.singletonList(updated))
+                    .build();
+            return ResponseEntity.ok().body(response);
+        } catch (Exception e) {
+            ResponseDTO<TodoDTO> response = ResponseDTO.<TodoDTO>builder()
+                    .error(e.getMessage())
+                    .build();
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
    /*
    * 1. 서비스 계층의 삭제 메소드 호출
    * 2. 삭제 성공시 200 리턴
@@ -151,10 +339,10 @@ public class TodoController {
    * */
     @DeleteMapping("{id}")
     public ResponseEntity<?> delete(@PathVariable long id,
-                                    @AuthenticationPrincipal String userId) {
+                                    @AuthenticationPrincipal UserPrincipal principal) {
 
      try {
-         service.delete(id, userId);
+         service.delete(id, principal.getId());
 
          return ResponseEntity.ok().body("삭제 성공");
      }catch (Exception e) {
@@ -0,0 +1,91 @@
+package security.demo.controller;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import security.demo.config.stream.TodoStreamProperties;
+import security.demo.dto.TodoDTO;
+import security.demo.security.UserPrincipal;
+import security.demo.service.TodoService;
+import security.demo.stream.TodoChange;
+import security.demo.stream.TodoChangeFeed;
+import security.demo.stream.TodoChangeSubscription;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/*
+ * 투두 변경 스트림(SSE) -> GET /api/todo 를 주기적으로 다시 조회(polling)하는 대신 변경분만 받는다.
+ * - 처음 연결하면 snapshot(전체 목록), 이후 created/updated/deleted 이벤트
+ * - 다시 연결할 때 Last-Event-ID 헤더(또는 ?lastEventId=)를 보내면 놓친 이벤트부터 이어서 보낸다.
+ * - 이벤트 전송은 요청 스레드가 아닌 작업 실행기에서 한다(연결 하나가 스레드를 계속 잡지 않음).
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/todo")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET) // reactive 프로필은 ReactiveTodoStreamController
+public class TodoStreamController {
+    @Autowired
+    private TodoChangeFeed changeFeed;
+
+    @Autowired
+    private TodoService service;
+
+    @Autowired
+    private TodoStreamProperties properties;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor taskExecutor;
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@AuthenticationPrincipal UserPrincipal principal,
+                             @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                             @RequestParam(value = "lastEventId", required = false) String lastEventIdParam) {
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        TodoChangeSubscription subscription = changeFeed.subscribe(
+                principal.getId(), lastEventId != null ? lastEventId : lastEventIdParam);
+
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+
+        Runnable drain = () -> subscription.drain(() -> true, change -> send(emitter, subscription, change));
+        subscription.onAvailable(() -> taskExecutor.execute(drain));
+        taskExecutor.execute(drain);
+
+        return emitter;
+    }
+
+    private void send(SseEmitter emitter, TodoChangeSubscription subscription, TodoChange change) {
+        try {
+            if (change.type() == TodoChange.Type.HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+                return;
+            }
+
+            // snapshot 은 보내는 시점에 목록 조회(캐시 먼저) -> 그 사이 변경은 뒤따르는 이벤트로 다시 적용된다.
+            List<TodoDTO> snapshot = change.type() == TodoChange.Type.SNAPSHOT
+                    ? service.retrieve(subscription.getUserId()).stream().map(TodoDTO::new).toList()
+                    : null;
+            emitter.send(SseEmitter.event()
+                    .id(change.eventId())
+                    .name(change.type().eventName())
+                    .data(change.payload(snapshot), MediaType.APPLICATION_JSON));
+        } catch (Exception e) {
+            // 클라이언트 연결 종료 등
+            log.debug("Todo stream closed, user: {}", subscription.getUserId(), e);
+            subscription.close();
+            emitter.completeWithError(e);
+        }
+    }
+}
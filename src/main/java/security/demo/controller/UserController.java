@@ -1,21 +1,35 @@
 package security.demo.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import security.demo.dto.ResponseDTO;
 import security.demo.dto.UserDTO;
 import security.demo.entity.UserEntity;
+import security.demo.security.JwtClaims;
+import security.demo.security.PasswordHasher;
+import security.demo.security.RefreshTokenService;
+import security.demo.security.SigninAttemptLimiter;
 import security.demo.security.TokenProvider;
+import security.demo.security.TokenRevocationList;
 import security.demo.service.UserService;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("/api/auth")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET) // reactive 프로필은 ReactiveUserController
 public class UserController {
     @Autowired
     private UserService service;
@@ -24,68 +38,170 @@ public class UserController {
     @Autowired
     private TokenProvider tokenProvider;
 
+    // [after] refresh token 적용
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    // 로그아웃한 access token 폐기 목록
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
     // [aftre] 패스워드 암호화 적용
-    private PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    // [after] BCrypt 계산은 PasswordHasher 전용 스레드 풀에서 실행(요청 스레드 점유 방지)
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    // 로그인 실패 횟수 제한
+    @Autowired
+    private SigninAttemptLimiter signinAttemptLimiter;
+
+    // 해시 계산 후 DB 저장은 해시 전용 스레드가 아닌 스프링 기본 작업 실행기에서 진행
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor taskExecutor;
 
     @PostMapping("/signup")
-    public ResponseEntity<?> create(@RequestBody UserDTO dto) {
-        try {
-            // 요청 본문을 이용해 저장할 사용자 생성
-            UserEntity user = UserEntity.builder()
-                    .email(dto.getEmail())
-                    // .password(dto.getPassword())
-                    .password(passwordEncoder.encode(dto.getPassword()))
-                    .username(dto.getUsername())
+    public CompletableFuture<ResponseEntity<?>> create(@RequestBody UserDTO dto) {
+        return passwordHasher.encode(dto.getPassword())
+                .<ResponseEntity<?>>thenApplyAsync(encodedPassword -> {
+                    // 요청 본문을 이용해 저장할 사용자 생성
+                    UserEntity user = UserEntity.builder()
+                            .email(dto.getEmail())
+                            // .password(dto.getPassword())
+                            .password(encodedPassword)
+                            .username(dto.getUsername())
+                            .build();
+
+                    // 서비스 계층 메서드를 이용해 repository에 저장
+                    UserEntity registeredUser = service.create(user);
+                    UserDTO response = UserDTO.builder()
+                            .email(registeredUser.getEmail())
+                            .password(registeredUser.getPassword())
+                            .username(registeredUser.getUsername())
+                            .build();
+
+                    return ResponseEntity.ok().body(response);
+                }, taskExecutor)
+                .exceptionally(this::failure);
+    }
+
+    @PostMapping("/signin")
+    public CompletableFuture<ResponseEntity<?>> authenticate(@RequestBody UserDTO dto, HttpServletRequest request) {
+        String clientIp = request.getRemoteAddr();
+
+        // 같은 이메일이나 IP로 로그인 실패가 반복되면 DB 조회, BCrypt 비교 없이 바로 거절
+        if (signinAttemptLimiter.isBlocked(dto.getEmail(), clientIp)) {
+            ResponseDTO response = ResponseDTO.builder()
+                    .error("로그인 시도 횟수를 초과했습니다. 잠시 후 다시 시도하세요.")
                     .build();
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(response));
+        }
+
+        return service.getByCredentials(dto.getEmail(), dto.getPassword(), passwordHasher)
+                // getByCredentials() 이용해 이메일, 비민번호를 검사한 결과를 user로 받음
+                // 토큰 발급(refresh token 은 DB 저장)은 해시 전용 스레드가 아닌 작업 실행기에서 진행
+                .<ResponseEntity<?>>thenApplyAsync(user -> {
+                    if (user != null) {
+                        // 로그인 검사 성공
+                        signinAttemptLimiter.recordSuccess(dto.getEmail());
+
+                        /*
+                         * jwt 적용전
+                         *   final UserDTO response = UserDTO.builder()
+                         *      .email(user.getEmail())
+                         *      .id(user.getId())
+                         *      .build()
+                         */
+
+                        // jwt 적용 후
+                        final String token = tokenProvider.create(user);
+                        final String refreshToken = refreshTokenService.issue(String.valueOf(user.getId()));
+                        final UserDTO response = UserDTO.builder()
+                                .email(user.getEmail())
+                                .id(user.getId())
+                                .token(token)
+                                .refreshToken(refreshToken)
+                                .build();
 
-            // 서비스 계층 메서드를 이용해 repository에 저장
-            UserEntity registeredUser = service.create(user);
-            UserDTO response = UserDTO.builder()
-                    .email(registeredUser.getEmail())
-                    .password(registeredUser.getPassword())
-                    .username(registeredUser.getUsername())
+                        return ResponseEntity.ok().body(response);
+                    } else {
+                        // 로그인 실패
+                        signinAttemptLimiter.recordFailure(dto.getEmail(), clientIp);
+                        ResponseDTO response = ResponseDTO.builder()
+                                .error("로그인 실패!")
+                                .build();
+                        return ResponseEntity.badRequest().body(response);
+                    }
+                }, taskExecutor)
+                .exceptionally(this::failure);
+    }
+
+    /*
+     * access token 재발급
+     * - 요청 본문의 refreshToken 으로 새 access token + 새 refresh token 발급(rotation)
+     * - 비밀번호 비교(BCrypt)를 하지 않으므로 다시 로그인하는 것보다 훨씬 가볍다.
+     * - 사용된 refresh token 은 다시 쓸 수 없다.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody UserDTO dto) {
+        try {
+            RefreshTokenService.Rotation rotation = refreshTokenService.rotate(dto.getRefreshToken());
+
+            final UserDTO response = UserDTO.builder()
+                    .id(Long.valueOf(rotation.userId()))
+                    .token(tokenProvider.create(rotation.userId()))
+                    .refreshToken(rotation.refreshToken())
                     .build();
 
             return ResponseEntity.ok().body(response);
         } catch (Exception e) {
             ResponseDTO response = ResponseDTO.builder().error(e.getMessage()).build();
 
-            return ResponseEntity.badRequest().body(response);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
         }
     }
 
-    @PostMapping("/signin")
-    public ResponseEntity<?> authenticate(@RequestBody UserDTO dto) {
-        UserEntity user = service.getByCredentials(
-                dto.getEmail(), dto.getPassword(), passwordEncoder
-        ); // 시큐리티가 제공하는 getByCredentials() 이용해 이메일, 비민번호를 변수 user에 담음
-
-        if (user != null) {
-            // 로그인 검사 성공
-
-            /*
-             * jwt 적용전
-             *   final UserDTO response = UserDTO.builder()
-             *      .email(user.getEmail())
-             *      .id(user.getId())
-             *      .build()
-             */
-
-            // jwt 적용 후
-            final String token = tokenProvider.create(user);
-            final UserDTO response = UserDTO.builder()
-                    .email(user.getEmail())
-                    .id(user.getId())
-                    .token(token)
-                    .build();
+    /*
+     * 로그아웃
+     * - Authorization 헤더의 access token 을 폐기 목록에 추가(jti) -> exp 전이라도 더 이상 인증되지 않음
+     * - 요청 본문에 refreshToken 이 있으면 그 refresh token 묶음도 폐기
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authorization,
+                                    @RequestBody(required = false) UserDTO dto) {
+        try {
+            if (authorization == null || !authorization.startsWith("Bearer ")) {
+                throw new RuntimeException("Access token is required");
+            }
+            JwtClaims claims = tokenProvider.validateAndGetClaims(authorization, "Bearer ".length(), authorization.length());
+            tokenRevocationList.revoke(claims);
 
-            return ResponseEntity.ok().body(response);
-        } else {
-            // 로그인 실패
-            ResponseDTO response = ResponseDTO.builder()
-                    .error("로그인 실패!")
-                    .build();
-            return ResponseEntity.badRequest().body(response);
+            if (dto != null) {
+                refreshTokenService.revoke(dto.getRefreshToken());
+            }
+
+            return ResponseEntity.ok().build();
+        } catch (Exception e) {
+            ResponseDTO response = ResponseDTO.builder().error(e.getMessage()).build();
+
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
         }
     }
+
+    /*
+     * 비동기 처리 중 예외 처리
+     * - 해시 대기열이 가득 찬 경우(RejectedExecutionException): 503 Service Unavailable
+     * - 그 외: 400 Bad Request
+     */
+    private ResponseEntity<?> failure(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+
+        if (cause instanceof RejectedExecutionException) {
+            ResponseDTO response = ResponseDTO.builder().error("Server is busy, try again later").build();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+        }
+
+        ResponseDTO response = ResponseDTO.builder().error(cause.getMessage()).build();
+        return ResponseEntity.badRequest().body(response);
+    }
 }
@@ -0,0 +1,235 @@
+package security.demo.controller.reactive;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import security.demo.dto.ResponseDTO;
+import security.demo.dto.TodoBatchResultDTO;
+import security.demo.dto.TodoDTO;
+import security.demo.entity.TodoEntity;
+import security.demo.security.UserPrincipal;
+import security.demo.service.TodoDelta;
+import security.demo.service.reactive.ReactiveTodoService;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/*
+ * /api/todo 의 리액티브 버전(reactive 프로필) -> 경로, 요청/응답 형식, 상태 코드는 TodoController 와 같다.
+ * - 핸들러는 Mono/Flux 를 리턴하고 DB 응답이 오면 이어서 응답을 쓴다(요청마다 스레드를 잡고 기다리지 않음).
+ */
+@RestController
+@RequestMapping("/api/todo")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTodoController {
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private final DataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+
+    @Autowired
+    private ReactiveTodoService service;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PostMapping
+    public Mono<ResponseEntity<?>> create(@AuthenticationPrincipal UserPrincipal principal, @RequestBody TodoDTO dto) {
+        return Mono.defer(() -> {
+                    TodoEntity entity = TodoDTO.toEntity(dto);
+                    entity.setId(null);
+                    entity.setUserId(principal.getId());
+                    return service.create(entity);
+                })
+                .<ResponseEntity<?>>map(entities -> ResponseEntity.ok().body(toResponse(entities, null)))
+                .onErrorResume(e -> Mono.just(ResponseEntity.badRequest()
+                        .body(ResponseDTO.<TodoDTO>builder().error(e.getMessage()).build())));
+    }
+
+    // cursor, limit 둘 다 없으면 전체 목록, 있으면 페이지 조회
+    // 목록 version 이 ETag, If-None-Match 가 같으면 목록을 읽지 않고 304 / ?since= 면 변경분만
+    @GetMapping
+    public Mono<ResponseEntity<?>> read(@AuthenticationPrincipal UserPrincipal principal,
+                                        @RequestParam(required = false) Long cursor,
+                                        @RequestParam(required = false) Integer limit,
+                                        @RequestParam(required = false) Long since,
+                                        ServerWebExchange exchange) {
+        if (cursor != null || limit != null) {
+            return readPage(principal.getId(), cursor, limit);
+        }
+        if (since != null && since < 0) {
+            return Mono.just(ResponseEntity.badRequest().body(ResponseDTO.<TodoDTO>builder()
+                    .error("since는 0 이상이어야 합니다.")
+                    .build()));
+        }
+
+        String userId = principal.getId();
+        return service.currentVersion(userId).<ResponseEntity<?>>flatMap(version -> {
+            String eTag = eTag(version);
+            // 변경 없음 -> 304(응답 헤더는 checkNotModified 가 설정)
+            if (exchange.checkNotModified(eTag)) {
+                return Mono.empty();
+            }
+
+            if (since != null) {
+                Mono<TodoDelta> delta = since == version
+                        ? Mono.just(TodoDelta.changes(version, List.of(), List.of()))
+                        : service.retrieveSince(userId, since);
+                return delta.<ResponseEntity<?>>map(changes -> ResponseEntity.ok().eTag(eTag).cacheControl(REVALIDATE)
+                        .body(ResponseDTO.<TodoDTO>builder()
+                                .data(changes.todos().stream().map(TodoDTO::new).toList())
+                                .deleted(changes.deleted())
+                                .version(changes.version())
+                                .reset(changes.reset() ? Boolean.TRUE : null)
+                                .build()));
+            }
+
+            return service.retrieve(userId)
+                    .<ResponseEntity<?>>map(entities -> {
+                        ResponseDTO<TodoDTO> response = toResponse(entities, null);
+                        response.setVersion(version);
+                        return ResponseEntity.ok().eTag(eTag).cacheControl(REVALIDATE).body(response);
+                    });
+        });
+    }
+
+    private Mono<ResponseEntity<?>> readPage(String userId, Long cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            ResponseDTO<TodoDTO> response = ResponseDTO.<TodoDTO>builder()
+                    .error("limit은 1 ~ " + MAX_PAGE_SIZE + " 사이여야 합니다.")
+                    .build();
+            return Mono.just(ResponseEntity.badRequest().body(response));
+        }
+
+        return service.retrievePage(userId, cursor, pageSize)
+                .<ResponseEntity<?>>map(entities -> {
+                    Long nextCursor = null;
+                    if (entities.size() > pageSize) {
+                        entities = entities.subList(0, pageSize);
+                        nextCursor = entities.get(pageSize - 1).getId();
+                    }
+                    return ResponseEntity.ok().body(toResponse(entities, nextCursor));
+                });
+    }
+
+    /*
+     * 내보내기: {"data":[...]} 를 DB 에서 읽는 대로 조각(DataBuffer)으로 나눠서 쓴다.
+     * - 클라이언트가 느리면 DB 에서도 그만큼만 읽는다(backpressure).
+     */
+    @GetMapping("/export")
+    public ResponseEntity<Flux<DataBuffer>> export(@AuthenticationPrincipal UserPrincipal principal) {
+        ObjectWriter writer = objectMapper.writerFor(TodoDTO.class);
+
+        Flux<DataBuffer> todos = service.export(principal.getId())
+                .index()
+                .map(indexed -> {
+                    byte[] json = toJson(writer, new TodoDTO(indexed.getT2()));
+                    DataBuffer buffer = bufferFactory.allocateBuffer(json.length + 1);
+                    if (indexed.getT1() > 0) {
+                        buffer.write((byte) ',');
+                    }
+                    return buffer.write(json);
+                });
+        Flux<DataBuffer> body = Flux.concat(
+                Mono.fromSupplier(() -> wrap("{\"data\":[")),
+                todos,
+                Mono.fromSupplier(() -> wrap("]}")));
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<?>> createBatch(@AuthenticationPrincipal UserPrincipal principal,
+                                               @RequestBody List<TodoDTO> dtos) {
+        return batch(dtos, () -> service.createAll(principal.getId(), dtos));
+    }
+
+    @PutMapping("/batch")
+    public Mono<ResponseEntity<?>> updateBatch(@AuthenticationPrincipal UserPrincipal principal,
+                                               @RequestBody List<TodoDTO> dtos) {
+        return batch(dtos, () -> service.updateAll(principal.getId(), dtos));
+    }
+
+    @DeleteMapping("/batch")
+    public Mono<ResponseEntity<?>> deleteBatch(@AuthenticationPrincipal UserPrincipal principal,
+                                               @RequestBody List<Long> ids) {
+        return batch(ids, () -> service.deleteAll(principal.getId(), ids));
+    }
+
+    private Mono<ResponseEntity<?>> batch(List<?> items, Supplier<Mono<List<TodoBatchResultDTO>>> operation) {
+        return Mono.defer(() -> {
+                    if (items == null || items.isEmpty() || items.size() > MAX_BATCH_SIZE) {
+                        return Mono.error(new RuntimeException("batch size must be 1 ~ " + MAX_BATCH_SIZE));
+                    }
+                    return operation.get();
+                })
+                .<ResponseEntity<?>>map(results -> ResponseEntity.ok().body(
+                        ResponseDTO.<TodoBatchResultDTO>builder().data(results).build()))
+                .onErrorResume(e -> Mono.just(ResponseEntity.badRequest().body(
+                        ResponseDTO.<TodoBatchResultDTO>builder().error(e.getMessage()).build())));
+    }
+
+    @PutMapping("{id}")
+    public Mono<ResponseEntity<?>> update(@PathVariable long id,
+                                          @AuthenticationPrincipal UserPrincipal principal,
+                                          @RequestBody TodoDTO dto) {
+        return service.update(id, principal.getId(), dto)
+                .<ResponseEntity<?>>map(update -> ResponseEntity.ok().body(ResponseDTO.<TodoDTO>builder()
+                        .data(Collections.singletonList(update))
+                        .build()))
+                .onErrorResume(e -> Mono.just(ResponseEntity.badRequest().body("존재하지 않습니다.")));
+    }
+
+    @DeleteMapping("{id}")
+    public Mono<ResponseEntity<?>> delete(@PathVariable long id,
+                                          @AuthenticationPrincipal UserPrincipal principal) {
+        return service.delete(id, principal.getId())
+                .then(Mono.<ResponseEntity<?>>fromSupplier(() -> ResponseEntity.ok().body("삭제 성공")))
+                .onErrorResume(e -> Mono.just(ResponseEntity.badRequest().body("존재하지 않습니다.")));
+    }
+
+    private ResponseDTO<TodoDTO> toResponse(List<TodoEntity> entities, Long nextCursor) {
+        return ResponseDTO.<TodoDTO>builder()
+                .data(entities.stream().map(TodoDTO::new).toList())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    // 목록 순서가 캐시/DB 에 따라 다를 수 있어서 weak ETag
+    private static String eTag(long version) {
+        return "W/\"" + version + "\"";
+    }
+
+    private DataBuffer wrap(String text) {
+        return bufferFactory.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] toJson(ObjectWriter writer, TodoDTO dto) {
+        try {
+            return writer.writeValueAsBytes(dto);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package security.demo.controller.reactive;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import security.demo.config.stream.TodoStreamProperties;
+import security.demo.dto.TodoDTO;
+import security.demo.dto.TodoEventDTO;
+import security.demo.security.UserPrincipal;
+import security.demo.service.reactive.ReactiveTodoService;
+import security.demo.stream.TodoChange;
+import security.demo.stream.TodoChangeFeed;
+import security.demo.stream.TodoChangeSubscription;
+
+import java.util.List;
+
+/*
+ * 투두 변경 스트림(SSE)의 리액티브 버전 -> 이벤트 형식은 TodoStreamController 와 같다.
+ * - 클라이언트가 요청한 만큼만 대기열에서 꺼내서 보낸다(나머지는 구독자 대기열에 남고, 넘치면 snapshot).
+ */
+@RestController
+@RequestMapping("/api/todo")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTodoStreamController {
+    @Autowired
+    private TodoChangeFeed changeFeed;
+
+    @Autowired
+    private ReactiveTodoService service;
+
+    @Autowired
+    private TodoStreamProperties properties;
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<TodoEventDTO>> stream(@AuthenticationPrincipal UserPrincipal principal,
+                                                      @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                                      @RequestParam(value = "lastEventId", required = false) String lastEventIdParam) {
+        String userId = principal.getId();
+        String resumeFrom = lastEventId != null ? lastEventId : lastEventIdParam;
+
+        Flux<TodoChange> changes = Flux.create(sink -> {
+            TodoChangeSubscription subscription = changeFeed.subscribe(userId, resumeFrom);
+            Runnable drain = () -> subscription.drain(
+                    () -> sink.requestedFromDownstream() > 0 && !sink.isCancelled(), sink::next);
+            subscription.onAvailable(drain);
+            sink.onRequest(n -> drain.run());
+            sink.onDispose(subscription::close);
+        });
+
+        return changes
+                .concatMap(change -> toEvent(userId, change))
+                .take(properties.getTimeout());
+    }
+
+    private Mono<ServerSentEvent<TodoEventDTO>> toEvent(String userId, TodoChange change) {
+        if (change.type() == TodoChange.Type.HEARTBEAT) {
+            return Mono.just(ServerSentEvent.<TodoEventDTO>builder().comment("heartbeat").build());
+        }
+        if (change.type() == TodoChange.Type.SNAPSHOT) {
+            return service.retrieve(userId)
+                    .map(entities -> event(change, entities.stream().map(TodoDTO::new).toList()));
+        }
+        return Mono.just(event(change, null));
+    }
+
+    private ServerSentEvent<TodoEventDTO> event(TodoChange change, List<TodoDTO> snapshot) {
+        return ServerSentEvent.<TodoEventDTO>builder()
+                .id(change.eventId())
+                .event(change.type().eventName())
+                .data(change.payload(snapshot))
+                .build();
+    }
+}
@@ -0,0 +1,156 @@
+package security.demo.controller.reactive;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import security.demo.dto.ResponseDTO;
+import security.demo.dto.UserDTO;
+import security.demo.entity.reactive.UserRow;
+import security.demo.security.JwtClaims;
+import security.demo.security.PasswordHasher;
+import security.demo.security.RefreshTokenService;
+import security.demo.security.SigninAttemptLimiter;
+import security.demo.security.TokenProvider;
+import security.demo.security.TokenRevocationList;
+import security.demo.service.reactive.ReactiveUserService;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.RejectedExecutionException;
+
+/*
+ * /api/auth 의 리액티브 버전(reactive 프로필) -> 요청/응답 형식은 UserController 와 같다.
+ * - 유저 조회/저장은 R2DBC, BCrypt 는 PasswordHasher 전용 스레드
+ * - refresh token, 폐기 토큰 저장은 JPA(블로킹)라서 boundedElastic 스레드에서 실행
+ */
+@RestController
+@RequestMapping("/api/auth")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserController {
+    @Autowired
+    private ReactiveUserService service;
+
+    @Autowired
+    private TokenProvider tokenProvider;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private SigninAttemptLimiter signinAttemptLimiter;
+
+    @PostMapping("/signup")
+    public Mono<ResponseEntity<?>> create(@RequestBody UserDTO dto) {
+        return Mono.fromFuture(() -> passwordHasher.encode(dto.getPassword()))
+                .flatMap(encodedPassword -> service.create(UserRow.builder()
+                        .email(dto.getEmail())
+                        .password(encodedPassword)
+                        .username(dto.getUsername())
+                        .build()))
+                .<ResponseEntity<?>>map(registeredUser -> ResponseEntity.ok().body(UserDTO.builder()
+                        .email(registeredUser.getEmail())
+                        .password(registeredUser.getPassword())
+                        .username(registeredUser.getUsername())
+                        .build()))
+                .onErrorResume(e -> Mono.just(failure(e)));
+    }
+
+    @PostMapping("/signin")
+    public Mono<ResponseEntity<?>> authenticate(@RequestBody UserDTO dto, ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        String clientIp = remoteAddress == null || remoteAddress.getAddress() == null
+                ? null : remoteAddress.getAddress().getHostAddress();
+
+        if (signinAttemptLimiter.isBlocked(dto.getEmail(), clientIp)) {
+            ResponseDTO response = ResponseDTO.builder()
+                    .error("로그인 시도 횟수를 초과했습니다. 잠시 후 다시 시도하세요.")
+                    .build();
+            return Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(response));
+        }
+
+        return service.getByCredentials(dto.getEmail(), dto.getPassword(), passwordHasher)
+                .<ResponseEntity<?>>flatMap(user -> Mono.fromCallable(() -> {
+                    signinAttemptLimiter.recordSuccess(dto.getEmail());
+
+                    final String userId = String.valueOf(user.getId());
+                    final UserDTO response = UserDTO.builder()
+                            .email(user.getEmail())
+                            .id(user.getId())
+                            .token(tokenProvider.create(userId))
+                            .refreshToken(refreshTokenService.issue(userId))
+                            .build();
+                    return ResponseEntity.ok().body(response);
+                }).subscribeOn(Schedulers.boundedElastic()))
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    signinAttemptLimiter.recordFailure(dto.getEmail(), clientIp);
+                    ResponseDTO response = ResponseDTO.builder()
+                            .error("로그인 실패!")
+                            .build();
+                    return ResponseEntity.badRequest().body(response);
+                }))
+                .onErrorResume(e -> Mono.just(failure(e)));
+    }
+
+    @PostMapping("/refresh")
+    public Mono<ResponseEntity<?>> refresh(@RequestBody UserDTO dto) {
+        return Mono.<ResponseEntity<?>>fromCallable(() -> {
+                    RefreshTokenService.Rotation rotation = refreshTokenService.rotate(dto.getRefreshToken());
+
+                    final UserDTO response = UserDTO.builder()
+                            .id(Long.valueOf(rotation.userId()))
+                            .token(tokenProvider.create(rotation.userId()))
+                            .refreshToken(rotation.refreshToken())
+                            .build();
+                    return ResponseEntity.ok().body(response);
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(ResponseDTO.builder().error(e.getMessage()).build())));
+    }
+
+    @PostMapping("/logout")
+    public Mono<ResponseEntity<?>> logout(@RequestHeader(value = "Authorization", required = false) String authorization,
+                                          @RequestBody(required = false) UserDTO dto) {
+        return Mono.<ResponseEntity<?>>fromCallable(() -> {
+                    if (authorization == null || !authorization.startsWith("Bearer ")) {
+                        throw new RuntimeException("Access token is required");
+                    }
+                    JwtClaims claims = tokenProvider.validateAndGetClaims(authorization, "Bearer ".length(), authorization.length());
+                    tokenRevocationList.revoke(claims);
+
+                    if (dto != null) {
+                        refreshTokenService.revoke(dto.getRefreshToken());
+                    }
+
+                    return ResponseEntity.ok().build();
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(ResponseDTO.builder().error(e.getMessage()).build())));
+    }
+
+    // 해시 대기열이 가득 찬 경우 503, 그 외 400
+    private ResponseEntity<?> failure(Throwable e) {
+        if (e instanceof RejectedExecutionException) {
+            ResponseDTO response = ResponseDTO.builder().error("Server is busy, try again later").build();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+        }
+
+        ResponseDTO response = ResponseDTO.builder().error(e.getMessage()).build();
+        return ResponseEntity.badRequest().body(response);
+    }
+}
@@ -0,0 +1,85 @@
+package security.demo.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * 복제 지연 확인(app.datasource.replica.check-interval 마다)
+ * 1. primary 의 ReplicaHeartbeat 행에 현재 시각 기록
+ * 2. 복제본마다 heartbeat 를 읽어서 지연 = 현재 시각 - 복제된 시각
+ * 3. 지연이 max-lag 이하면 정상, 넘거나 읽지 못하면(장애, 아직 복제 안 됨) 라우팅에서 제외 -> primary 로 읽기
+ *
+ * 지연은 heartbeat 기록 주기만큼 부정확할 수 있으므로 max-lag 는 check-interval 보다 크게 둔다.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+    private static final String UPDATE_HEARTBEAT_SQL = "update replica_heartbeat set beat_at = ? where id = 1";
+    private static final String INSERT_HEARTBEAT_SQL = "insert into replica_heartbeat (id, beat_at) values (1, ?)";
+    private static final String SELECT_HEARTBEAT_SQL = "select beat_at from replica_heartbeat where id = 1";
+
+    private final JdbcTemplate primary;
+    private final List<ReplicaRoutingDataSource.Replica> replicas;
+    private final List<JdbcTemplate> replicaTemplates = new ArrayList<>();
+    private final long maxLagMillis;
+
+    public ReplicaLagMonitor(DataSource primary, List<ReplicaRoutingDataSource.Replica> replicas, Duration maxLag) {
+        this.primary = new JdbcTemplate(primary);
+        this.replicas = List.copyOf(replicas);
+        for (ReplicaRoutingDataSource.Replica replica : this.replicas) {
+            JdbcTemplate template = new JdbcTemplate(replica.getDataSource());
+            template.setQueryTimeout(1);
+            replicaTemplates.add(template);
+        }
+        this.maxLagMillis = maxLag.toMillis();
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.check-interval:PT1S}")
+    public void check() {
+        beat();
+        for (int i = 0; i < replicas.size(); i++) {
+            measure(replicas.get(i), replicaTemplates.get(i));
+        }
+    }
+
+    private void beat() {
+        long now = System.currentTimeMillis();
+        try {
+            if (primary.update(UPDATE_HEARTBEAT_SQL, now) == 0) {
+                primary.update(INSERT_HEARTBEAT_SQL, now);
+            }
+        } catch (DuplicateKeyException e) {
+            // 다른 인스턴스가 먼저 만듦 -> 다음 주기에 update
+        } catch (DataAccessException e) {
+            log.warn("Could not write replica heartbeat to primary", e);
+        }
+    }
+
+    private void measure(ReplicaRoutingDataSource.Replica replica, JdbcTemplate template) {
+        long lag;
+        try {
+            List<Long> beats = template.queryForList(SELECT_HEARTBEAT_SQL, Long.class);
+            lag = beats.isEmpty() ? -1 : Math.max(0, System.currentTimeMillis() - beats.get(0));
+        } catch (DataAccessException e) {
+            lag = -1;
+            if (replica.isHealthy()) {
+                log.warn("Replica {} is unreachable, reads fall back to primary", replica.getName(), e);
+            }
+        }
+
+        boolean healthy = lag >= 0 && lag <= maxLagMillis;
+        if (replica.isHealthy() && !healthy && lag >= 0) {
+            log.warn("Replica {} is {} ms behind, reads fall back to primary", replica.getName(), lag);
+        } else if (!replica.isHealthy() && healthy) {
+            log.info("Replica {} is back in rotation ({} ms behind)", replica.getName(), lag);
+        }
+        replica.update(lag, healthy);
+    }
+}
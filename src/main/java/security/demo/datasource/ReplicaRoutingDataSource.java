@@ -0,0 +1,147 @@
+package security.demo.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/*
+ * 읽기 커넥션 라우팅
+ * - 기본은 항상 primary
+ * - readFromReplica() 안에서 새로 가져오는 커넥션만 복제본으로 보낸다(명시적으로 선택한 조회만).
+ *   -> 커넥션의 read-only 여부로 고르지 않는다: SimpleJpaRepository 가 클래스 전체에 @Transactional(readOnly = true) 라서
+ *      트랜잭션 밖의 findById 등도 모두 복제본으로 가게 되고, 방금 쓴 행을 못 찾는 문제가 생긴다.
+ *   -> 이미 트랜잭션이 커넥션을 잡고 있으면 그 커넥션을 그대로 사용(라우팅하지 않음)
+ * - 정상(복제 지연이 max-lag 이하)인 복제본을 돌아가며 선택, 모두 지연/장애면 primary
+ * - 복제본 상태는 ReplicaLagMonitor 가 주기적으로 갱신
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    public static final String PRIMARY = "primary";
+
+    // readFromReplica() 실행 중인 스레드 표시
+    private static final ThreadLocal<Boolean> REPLICA_READ = new ThreadLocal<>();
+
+    private final List<Replica> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder fallbacks = new LongAdder();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas) {
+        this.replicas = List.copyOf(replicas);
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (Replica replica : this.replicas) {
+            targets.put(replica.getName(), replica.getDataSource());
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    /*
+     * action 안에서 가져오는 커넥션은 복제본에서(정상인 복제본이 없거나 라우팅을 설정하지 않았으면 primary)
+     * - 복제 지연만큼 오래된 값을 읽을 수 있으므로, 방금 쓴 값을 읽어야 하는 호출자는 version 등으로 확인하고 primary 에서 다시 읽는다.
+     */
+    public static <T> T readFromReplica(Supplier<T> action) {
+        Boolean previous = REPLICA_READ.get();
+        REPLICA_READ.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                REPLICA_READ.remove();
+            } else {
+                REPLICA_READ.set(previous);
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (REPLICA_READ.get() == null) {
+            return PRIMARY;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.isHealthy()) {
+                replica.routed.increment();
+                return replica.getName();
+            }
+        }
+        fallbacks.increment();
+        return PRIMARY;
+    }
+
+    // 종료 시 복제본 풀 닫기(@Bean 의 close 메서드로 호출됨, primary 풀은 따로 빈으로 닫힌다)
+    public void close() {
+        for (Replica replica : replicas) {
+            if (replica.getDataSource() instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    // 종료 중이므로 무시
+                }
+            }
+        }
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    // 정상인 복제본이 없어서 primary 로 보낸 읽기 전용 커넥션 수
+    public long getFallbackCount() {
+        return fallbacks.sum();
+    }
+
+    /*
+     * 복제본 하나(풀 이름 = 라우팅 키)
+     * - lagMillis: 마지막으로 측정한 복제 지연, 측정 실패(장애, heartbeat 없음)면 -1
+     * - 첫 측정 전에는 정상이 아닌 것으로 본다.
+     */
+    public static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private final LongAdder routed = new LongAdder();
+        private volatile long lagMillis = -1;
+        private volatile boolean healthy;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public DataSource getDataSource() {
+            return dataSource;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        public long getLagMillis() {
+            return lagMillis;
+        }
+
+        // 이 복제본으로 보낸 읽기 전용 커넥션 수
+        public long getRoutedCount() {
+            return routed.sum();
+        }
+
+        void update(long lagMillis, boolean healthy) {
+            this.lagMillis = lagMillis;
+            this.healthy = healthy;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package security.demo.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -17,6 +18,22 @@ public class ResponseDTO<T> {
 
     // Generic을 이용해서 2xx 대 응답 시 해당 Type의 리스트를 반환
     private List<T> data;
+
+    // 페이지 조회 시 다음 페이지 요청에 사용할 커서(마지막 페이지면 응답에 포함하지 않음)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long nextCursor;
+
+    // 투두 목록 version(ETag 와 같은 값) -> 다음 변경분 조회(?since=)에 사용
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long version;
+
+    // 변경분 조회(?since=) 시 그 이후 삭제된 투두 id
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<Long> deleted;
+
+    // 변경분 조회인데 since 가 너무 오래되어 data 에 전체 목록을 담은 경우 true(클라이언트는 목록 전체 교체)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean reset;
 }
 
 /*
@@ -0,0 +1,50 @@
+package security.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import security.demo.entity.TodoEntity;
+
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class TodoBatchResultDTO {
+    private int index; // 요청 목록에서의 순서(0부터)
+    private Long id; // 처리된 투두 id(생성 시에는 새로 발급된 id)
+    private Status status;
+    private TodoDTO data; // 성공 시 처리된 투두
+    private String error; // 실패 시 사유
+
+    public static TodoBatchResultDTO success(int index, TodoEntity entity) {
+        return TodoBatchResultDTO.builder()
+                .index(index)
+                .id(entity.getId())
+                .status(Status.OK)
+                .data(new TodoDTO(entity))
+                .build();
+    }
+
+    // error 가 없으면 상태 이름을 사유로 사용
+    public static TodoBatchResultDTO failure(int index, Long id, Status status, String error) {
+        return TodoBatchResultDTO.builder()
+                .index(index)
+                .id(id)
+                .status(status)
+                .error(error != null ? error : status.name())
+                .build();
+    }
+
+    public enum Status {
+        OK, // 성공
+        INVALID, // 요청 값이 잘못됨(id 누락, title 누락 등)
+        NOT_FOUND, // 해당 id의 투두가 없음
+        FORBIDDEN // 다른 유저의 투두
+    }
+}
+
+/*
+ * 일괄 처리(/api/todo/batch) 응답에서 항목 하나의 처리 결과
+ * - 일부 항목이 실패해도 나머지는 처리하고, 항목별 결과를 한번에 응답한다.
+ */
@@ -0,0 +1,28 @@
+package security.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TodoEventDTO {
+    private long version; // 유저별 변경 순번(이벤트 id 의 뒷부분)
+    private TodoDTO todo; // created, updated: 변경 후 투두 전체
+    private Long id; // deleted: 삭제된 투두 id
+    private List<TodoDTO> data; // snapshot: 이 순번 시점의 전체 목록
+}
+
+/*
+ * 투두 변경 스트림(/api/todo/stream) SSE 이벤트의 data
+ * - event: created | updated | deleted | snapshot, id: "<스트림>.<version>"
+ * - created/updated 는 투두 전체 값을 담으므로 같은 이벤트를 두 번 적용해도 결과가 같다.
+ * - snapshot 을 받으면 목록 전체를 교체하고, 이후 이벤트를 순서대로 적용한다.
+ */
@@ -11,6 +11,7 @@ import lombok.NoArgsConstructor;
 @Builder
 public class UserDTO {
     private String token; // jwt 저장하는 공간
+    private String refreshToken; // access token(jwt) 재발급용 토큰
     private String email;
     private String username;
     private String password;
@@ -0,0 +1,41 @@
+package security.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Entity
+@Table(name = "JwtSigningKey",
+        indexes = @Index(name = "idx_jwt_signing_key_expires_at", columnList = "expires_at"))
+public class JwtSigningKeyEntity {
+    @Id
+    @Column(name = "kid", length = 32)
+    private String kid; // JWT header 의 kid
+
+    @Column(name = "public_key", nullable = false, length = 1024)
+    private String publicKey; // X.509(SubjectPublicKeyInfo) DER 의 Base64
+
+    @Column(name = "private_key", length = 4096)
+    private String privateKey; // 암호화된 개인키: Base64(iv + AES-GCM(PKCS#8 DER)), jwt.key-encryption-key 로 복호화
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt; // 이 키로 서명된 마지막 토큰까지 만료되는 시각 -> 이후 JWKS 에서 제외
+}
+
+/*
+ * RS256 서명 키 목록
+ * - 모든 인스턴스가 같은 서명 키를 쓰도록 개인키도 암호화해서 저장한다(암호화 키는 설정에만 있음).
+ * - 어느 인스턴스든 JWKS 로 전체 공개키를 내려줄 수 있고, 다른 인스턴스가 서명한 토큰도 검증 가능
+ * - private_key 가 없는 행은 검증(JWKS)에만 사용
+ * */
@@ -0,0 +1,50 @@
+package security.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Entity
+@Table(name = "RefreshToken",
+        uniqueConstraints = @UniqueConstraint(columnNames = "token_hash"),
+        indexes = {
+                @Index(name = "idx_refresh_token_user_id", columnList = "user_id"),
+                @Index(name = "idx_refresh_token_family_id", columnList = "family_id")
+        })
+public class RefreshTokenEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "token_hash", nullable = false, length = 64)
+    private String tokenHash; // 토큰 원문 대신 SHA-256 해시만 저장
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId; // 로그인 한번에서 이어지는 재발급(rotation) 묶음
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "used", nullable = false)
+    private boolean used; // 이미 재발급에 사용됨 -> 다시 쓰이면 탈취로 판단
+
+    @Column(name = "revoked", nullable = false)
+    private boolean revoked;
+}
+
+/*
+ * refresh token 저장 테이블
+ * - 로그인 시 발급, /api/auth/refresh 에서 새 토큰으로 교체(rotation)
+ * - 토큰 원문은 클라이언트만 가지고 있고, 서버는 해시로만 찾는다.
+ * */
@@ -0,0 +1,29 @@
+package security.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Entity
+@Table(name = "ReplicaHeartbeat")
+public class ReplicaHeartbeatEntity {
+    @Id
+    @Column(name = "id")
+    private int id; // 항상 1(행 하나)
+
+    @Column(name = "beat_at", nullable = false)
+    private long beatAt; // primary 에 마지막으로 기록한 시각(epoch 밀리초)
+}
+
+/*
+ * 복제 지연 측정용 heartbeat(ReplicaLagMonitor)
+ * - primary 에 주기적으로 현재 시각을 기록하고, 복제본에서 읽은 값과 현재 시각의 차이를 복제 지연으로 본다.
+ * - 테이블은 ddl-auto 로 primary 에 만들어지고 복제를 통해 복제본에도 생긴다.
+ * - 기록/조회는 풀을 직접 지정해야 해서 JPA 가 아니라 JDBC 로 한다.
+ * */
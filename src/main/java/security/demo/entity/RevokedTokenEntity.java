@@ -0,0 +1,41 @@
+package security.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Entity
+@Table(name = "RevokedToken",
+        indexes = {
+                @Index(name = "idx_revoked_token_expires_at", columnList = "expires_at"),
+                @Index(name = "idx_revoked_token_revoked_at", columnList = "revoked_at")
+        })
+public class RevokedTokenEntity {
+    @Id
+    @Column(name = "jti", length = 36)
+    private String jti; // 폐기된 access token 의 jti
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt; // 토큰의 exp -> 이 시각이 지나면 어차피 거절되므로 삭제
+
+    @Column(name = "revoked_at", nullable = false)
+    private Instant revokedAt; // 다른 서버 인스턴스가 새로 폐기된 토큰만 읽어가기 위해 사용
+}
+
+/*
+ * 폐기된 access token(JWT) 목록
+ * - 로그아웃 등으로 exp 이전에 폐기한 토큰의 jti 저장
+ * - 필터는 이 테이블을 조회하지 않고 TokenRevocationList(메모리)만 확인한다.
+ * - 테이블은 서버 재시작/다른 인스턴스에서 메모리 목록을 다시 채우는 용도
+ * */
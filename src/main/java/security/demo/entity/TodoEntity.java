@@ -5,13 +5,25 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
 @Entity
-@Table(name = "Todo") // 테이블 연결
+@Table(name = "Todo", // 테이블 연결
+        // 유저별 목록 조회(user_id = ?)와 키셋 페이지네이션(id > ? order by id)을 인덱스 하나로 처리
+        // 변경분 조회(GET /api/todo?since=): user_id = ? and version > ?
+        indexes = {
+                @Index(name = "idx_todo_user_id_id", columnList = "user_id, id"),
+                @Index(name = "idx_todo_user_id_version", columnList = "user_id, version")
+        })
+// 2차 캐시(todo 영역): id 조회(일괄 수정/삭제의 다건 조회 포함)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "todo")
 public class TodoEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -25,6 +37,12 @@ public class TodoEntity {
 
     @Column(name = "done", nullable = false)
     private boolean done;
+
+    // 마지막으로 생성/수정된 시점의 유저 목록 version(TodoSyncEntity) -> ?since= 변경분 조회 기준
+    // 낙관적 잠금(@Version)이 아님
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private long version;
 }
 
 /*
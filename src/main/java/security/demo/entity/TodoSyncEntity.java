@@ -0,0 +1,32 @@
+package security.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Entity
+@Table(name = "TodoSync")
+public class TodoSyncEntity {
+    @Id
+    @Column(name = "user_id")
+    private String userId;
+
+    @Column(name = "version", nullable = false)
+    private long version; // 유저 투두 목록의 현재 version(생성/수정/삭제 트랜잭션마다 1 증가)
+
+    @Column(name = "purged_version", nullable = false)
+    private long purgedVersion; // 정리된 삭제 기록(TodoTombstone) 중 가장 큰 version -> 이보다 오래된 since 는 전체 목록으로
+}
+
+/*
+ * 유저별 투두 목록 version
+ * - 변경 트랜잭션이 이 행을 update 하므로(행 잠금) 같은 유저의 version 은 커밋 순서대로 증가한다.
+ *   -> ?since=<version> 으로 "그 이후 커밋된 변경"을 빠짐없이 조회할 수 있다.
+ * - 조회(GET /api/todo)에서는 TodoVersionCache 에 있으면 이 테이블을 읽지 않는다(todo.cache.type=none 이면 매번 읽음).
+ * */
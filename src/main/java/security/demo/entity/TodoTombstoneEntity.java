@@ -0,0 +1,39 @@
+package security.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Entity
+@Table(name = "TodoTombstone",
+        indexes = {
+                @Index(name = "idx_todo_tombstone_user_id_version", columnList = "user_id, version"),
+                @Index(name = "idx_todo_tombstone_deleted_at", columnList = "deleted_at")
+        })
+public class TodoTombstoneEntity {
+    @Id
+    @Column(name = "todo_id")
+    private Long todoId; // 삭제된 투두 id
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Column(name = "version", nullable = false)
+    private long version; // 삭제된 시점의 유저 목록 version
+
+    @Column(name = "deleted_at", nullable = false)
+    private Instant deletedAt; // todo.sync.tombstone-ttl 이 지나면 정리
+}
+
+/*
+ * 삭제된 투두 기록
+ * - 행이 지워지면 ?since= 조회로는 삭제를 알 수 없으므로 삭제된 id 와 version 을 남긴다.
+ * */
@@ -5,6 +5,10 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 @Data
 @Entity
@@ -12,6 +16,10 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "User", uniqueConstraints = {@UniqueConstraint(columnNames = "email")})
+// 2차 캐시: id 조회(user 영역), email 조회(user-email 영역) -> 크기 제한은 ehcache.xml
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
+@NaturalIdCache(region = "user-email")
 public class UserEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -20,6 +28,7 @@ public class UserEntity {
     @Column(name="username", nullable = false)
     private String username; // 사용자 이름
 
+    @NaturalId // 로그인 시 email 로 조회 -> natural id 캐시 사용(가입 후 변경하지 않음)
     @Column(name="email", nullable = false)
     private String email; // 사용자 email
 
@@ -0,0 +1,57 @@
+package security.demo.entity.reactive;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+import security.demo.entity.TodoEntity;
+
+/*
+ * R2DBC(reactive 프로필)용 todo 테이블 매핑
+ * - 테이블은 JPA 의 TodoEntity 와 같다(스키마는 JPA ddl-auto 가 관리).
+ * - 서비스/캐시(TodoListCache)/DTO 는 기존처럼 TodoEntity 를 쓰고, 저장소 경계에서만 변환한다.
+ */
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Table("todo")
+public class TodoRow {
+    @Id
+    private Long id;
+
+    @Column("user_id")
+    private String userId;
+
+    @Column("title")
+    private String title;
+
+    @Column("done")
+    private boolean done;
+
+    @Column("version")
+    private long version;
+
+    public static TodoRow from(TodoEntity entity) {
+        return TodoRow.builder()
+                .id(entity.getId())
+                .userId(entity.getUserId())
+                .title(entity.getTitle())
+                .done(entity.isDone())
+                .version(entity.getVersion())
+                .build();
+    }
+
+    public TodoEntity toEntity() {
+        return TodoEntity.builder()
+                .id(id)
+                .userId(userId)
+                .title(title)
+                .done(done)
+                .version(version)
+                .build();
+    }
+}
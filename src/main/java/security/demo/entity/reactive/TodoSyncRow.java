@@ -0,0 +1,30 @@
+package security.demo.entity.reactive;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+/*
+ * R2DBC(reactive 프로필)용 todo_sync 테이블 매핑 -> JPA 의 TodoSyncEntity 와 같은 테이블
+ * - id(user_id)를 직접 지정하므로 저장은 R2dbcEntityTemplate.insert 로 한다(save 는 update 로 처리됨).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("todo_sync")
+public class TodoSyncRow {
+    @Id
+    @Column("user_id")
+    private String userId;
+
+    @Column("version")
+    private long version;
+
+    @Column("purged_version")
+    private long purgedVersion;
+}
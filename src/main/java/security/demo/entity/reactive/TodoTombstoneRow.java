@@ -0,0 +1,34 @@
+package security.demo.entity.reactive;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+
+/*
+ * R2DBC(reactive 프로필)용 todo_tombstone 테이블 매핑 -> JPA 의 TodoTombstoneEntity 와 같은 테이블
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("todo_tombstone")
+public class TodoTombstoneRow {
+    @Id
+    @Column("todo_id")
+    private Long todoId;
+
+    @Column("user_id")
+    private String userId;
+
+    @Column("version")
+    private long version;
+
+    @Column("deleted_at")
+    private Instant deletedAt;
+}
@@ -0,0 +1,31 @@
+package security.demo.entity.reactive;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+/*
+ * R2DBC(reactive 프로필)용 user 테이블 매핑 -> JPA 의 UserEntity 와 같은 테이블
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("user")
+public class UserRow {
+    @Id
+    private Long id;
+
+    @Column("username")
+    private String username;
+
+    @Column("email")
+    private String email;
+
+    @Column("password")
+    private String password;
+}
@@ -0,0 +1,23 @@
+package security.demo.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import security.demo.entity.JwtSigningKeyEntity;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface JwtSigningKeyRepository extends JpaRepository<JwtSigningKeyEntity, String> {
+    // 아직 검증에 필요한 공개키 전체(JWKS)
+    List<JwtSigningKeyEntity> findByExpiresAtAfter(Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from JwtSigningKeyEntity k where k.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,40 @@
+package security.demo.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import security.demo.entity.RefreshTokenEntity;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshTokenEntity, Long> {
+    Optional<RefreshTokenEntity> findByTokenHash(String tokenHash);
+
+    // 아직 사용되지 않은 토큰만 사용 처리 -> 1이면 이번 요청이 처음 사용, 0이면 이미 사용/폐기된 토큰
+    @Transactional
+    @Modifying
+    @Query("update RefreshTokenEntity t set t.used = true where t.id = :id and t.used = false and t.revoked = false")
+    int markUsed(@Param("id") Long id);
+
+    // 같은 묶음(family)의 토큰 전체 폐기
+    @Transactional
+    @Modifying
+    @Query("update RefreshTokenEntity t set t.revoked = true where t.familyId = :familyId and t.revoked = false")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    // 유저의 토큰 전체 폐기
+    @Transactional
+    @Modifying
+    @Query("update RefreshTokenEntity t set t.revoked = true where t.userId = :userId and t.revoked = false")
+    int revokeAllByUserId(@Param("userId") String userId);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RefreshTokenEntity t where t.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,26 @@
+package security.demo.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import security.demo.entity.RevokedTokenEntity;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedTokenEntity, String> {
+    // 아직 만료되지 않은 폐기 토큰 전체(기동 시 메모리 목록 채우기)
+    List<RevokedTokenEntity> findByExpiresAtAfter(Instant now);
+
+    // 마지막 동기화 이후 폐기된 토큰(다른 인스턴스에서 폐기한 토큰 반영)
+    List<RevokedTokenEntity> findByRevokedAtAfterAndExpiresAtAfter(Instant revokedAfter, Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RevokedTokenEntity t where t.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
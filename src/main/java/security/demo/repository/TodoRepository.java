@@ -1,13 +1,69 @@
 package security.demo.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import security.demo.entity.TodoEntity;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TodoRepository extends JpaRepository<TodoEntity, Long> {
+    String BY_USER_CACHE_REGION = "todo-by-user";
+
+    // 쿼리 캐시(todo-by-user 영역): todo 테이블이 Hibernate 로 변경되면 자동 무효화,
+    // JDBC 로 직접 변경한 경우(TodoService.createAll)는 영역을 직접 비운다.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = BY_USER_CACHE_REGION)
+    })
     List<TodoEntity> findByUserId(String userId);
+
+    // 키셋(seek) 페이지네이션: where user_id = ? and id > ? order by id limit ?
+    // offset 을 쓰지 않으므로 목록이 아무리 커도 (user_id, id) 인덱스에서 바로 시작 위치를 찾는다.
+    List<TodoEntity> findByUserIdAndIdGreaterThanOrderByIdAsc(String userId, Long cursor, Limit limit);
+
+    // 변경분 조회(?since=): where user_id = ? and version > ? -> (user_id, version) 인덱스
+    List<TodoEntity> findByUserIdAndVersionGreaterThan(String userId, long since);
+
+    // 대량 내보내기용 스트리밍 조회 -> 반드시 트랜잭션 안에서 사용하고 다 쓰면 close
+    // fetchSize = Integer.MIN_VALUE: MySQL 드라이버가 결과를 한번에 메모리에 올리지 않고 한 행씩 읽어온다.
+    // readOnly: 변경 감지용 스냅샷을 만들지 않는다.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<TodoEntity> streamByUserIdOrderByIdAsc(String userId);
+
+    // 소유자 확인과 수정을 한 문장으로: update todo set title=?, done=?, version=? where id=? and user_id=?
+    // 리턴값은 수정된 행 수(0이면 없는 투두이거나 다른 유저의 투두)
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update TodoEntity t set t.title = :title, t.done = :done, t.version = :version " +
+            "where t.id = :id and t.userId = :userId")
+    int updateByIdAndUserId(@Param("id") Long id, @Param("userId") String userId,
+                            @Param("title") String title, @Param("done") boolean done,
+                            @Param("version") long version);
+
+    // done 만 변경(PATCH, write-behind 를 끈 경우): update todo set done=?, version=? where id=? and user_id=?
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update TodoEntity t set t.done = :done, t.version = :version where t.id = :id and t.userId = :userId")
+    int updateDoneByIdAndUserId(@Param("id") Long id, @Param("userId") String userId,
+                                @Param("done") boolean done, @Param("version") long version);
+
+    // 소유자 확인과 삭제를 한 문장으로: delete from todo where id=? and user_id=?
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("delete from TodoEntity t where t.id = :id and t.userId = :userId")
+    int deleteByIdAndUserId(@Param("id") Long id, @Param("userId") String userId);
 }
 // Entity 유저 아이디를 조회하기 위해서 사용 쿼리롤 select * from todo where userId = ?
@@ -0,0 +1,32 @@
+package security.demo.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import security.demo.entity.TodoSyncEntity;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface TodoSyncRepository extends JpaRepository<TodoSyncEntity, String> {
+    // 변경 트랜잭션 안에서 호출 -> 행 잠금은 커밋까지 유지(같은 유저의 변경은 커밋 순서대로 version 부여)
+    // 리턴값은 수정된 행 수(0이면 아직 행이 없는 유저)
+    @Modifying
+    @Query("update TodoSyncEntity s set s.version = s.version + 1 where s.userId = :userId")
+    int increment(@Param("userId") String userId);
+
+    @Query("select s.version from TodoSyncEntity s where s.userId = :userId")
+    Optional<Long> findVersion(@Param("userId") String userId);
+
+    // 정리할 삭제 기록이 있는 유저의 purgedVersion 갱신 -> 그 뒤 TodoTombstoneRepository.deleteDeletedBefore
+    @Transactional
+    @Modifying
+    @Query("update TodoSyncEntity s set s.purgedVersion = " +
+            "(select max(t.version) from TodoTombstoneEntity t where t.userId = s.userId and t.deletedAt < :before) " +
+            "where exists (select 1 from TodoTombstoneEntity t where t.userId = s.userId and t.deletedAt < :before)")
+    int markPurged(@Param("before") Instant before);
+}
@@ -0,0 +1,24 @@
+package security.demo.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import security.demo.entity.TodoTombstoneEntity;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface TodoTombstoneRepository extends JpaRepository<TodoTombstoneEntity, Long> {
+    // since 이후 삭제된 투두 id: where user_id = ? and version > ?
+    @Query("select t.todoId from TodoTombstoneEntity t where t.userId = :userId and t.version > :since")
+    List<Long> findTodoIdsDeletedAfter(@Param("userId") String userId, @Param("since") long since);
+
+    @Transactional
+    @Modifying
+    @Query("delete from TodoTombstoneEntity t where t.deletedAt < :before")
+    int deleteDeletedBefore(@Param("before") Instant before);
+}
@@ -1,12 +1,23 @@
 package security.demo.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import security.demo.entity.UserEntity;
 
+import java.util.stream.Stream;
+
 @Repository
-public interface UserRepository extends JpaRepository<UserEntity, Long> {
-    UserEntity findByEmail(String email);
+public interface UserRepository extends JpaRepository<UserEntity, Long>, UserRepositoryCustom {
+    // findByEmail 은 UserRepositoryCustom(natural id 캐시 조회)
     Boolean existsByEmail(String email); // 이메일 존재 여부 있음(참), 없음(거짓) -> 기본형으로 처리 안되어서 참조형타입 처러
     UserEntity findByEmailAndPassword(String email, String password);
+
+    // 가입 이메일 Bloom filter 채우기용 -> 이메일 컬럼만 한 행씩 스트리밍(트랜잭션 안에서 사용 후 close)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"))
+    @Query("select u.email from UserEntity u")
+    Stream<String> streamAllEmails();
 }
@@ -0,0 +1,8 @@
+package security.demo.repository;
+
+import security.demo.entity.UserEntity;
+
+public interface UserRepositoryCustom {
+    // 이메일로 유저 조회(없으면 null) -> 로그인할 때마다 호출
+    UserEntity findByEmail(String email);
+}
@@ -0,0 +1,25 @@
+package security.demo.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+import security.demo.entity.UserEntity;
+
+/*
+ * UserRepositoryCustom 구현(스프링 데이터가 이름 규칙 <리포지토리>Impl 로 찾아서 붙인다)
+ * - 쿼리 메서드(select ... where email = ?)는 2차 캐시를 거치지 않으므로 natural id 로 조회한다.
+ *   -> email -> id(user-email 영역) -> 엔티티(user 영역) 순으로 캐시를 보고, 없을 때만 DB 조회
+ */
+class UserRepositoryImpl implements UserRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserEntity findByEmail(String email) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(UserEntity.class)
+                .load(email);
+    }
+}
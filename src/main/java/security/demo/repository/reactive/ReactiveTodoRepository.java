@@ -0,0 +1,38 @@
+package security.demo.repository.reactive;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import security.demo.entity.reactive.TodoRow;
+
+// reactive 프로필용 -> 쿼리는 TodoRepository(JPA)와 같다.
+@Repository
+public interface ReactiveTodoRepository extends R2dbcRepository<TodoRow, Long> {
+    Flux<TodoRow> findByUserId(String userId);
+
+    // 키셋(seek) 페이지네이션: where user_id = ? and id > ? order by id limit ?
+    Flux<TodoRow> findByUserIdAndIdGreaterThanOrderByIdAsc(String userId, Long cursor, Limit limit);
+
+    // 변경분 조회(?since=): where user_id = ? and version > ?
+    Flux<TodoRow> findByUserIdAndVersionGreaterThan(String userId, long since);
+
+    // 내보내기용 -> 구독자가 요청한 만큼씩 행을 읽는다(backpressure).
+    Flux<TodoRow> findByUserIdOrderByIdAsc(String userId);
+
+    // 소유자 확인과 수정을 한 문장으로, 리턴값은 수정된 행 수
+    @Modifying
+    @Query("update todo set title = :title, done = :done, version = :version where id = :id and user_id = :userId")
+    Mono<Integer> updateByIdAndUserId(@Param("id") Long id, @Param("userId") String userId,
+                                      @Param("title") String title, @Param("done") boolean done,
+                                      @Param("version") long version);
+
+    // 소유자 확인과 삭제를 한 문장으로
+    @Modifying
+    @Query("delete from todo where id = :id and user_id = :userId")
+    Mono<Integer> deleteByIdAndUserId(@Param("id") Long id, @Param("userId") String userId);
+}
@@ -0,0 +1,25 @@
+package security.demo.repository.reactive;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import security.demo.entity.reactive.TodoSyncRow;
+
+// reactive 프로필용 -> 쿼리는 TodoSyncRepository/TodoTombstoneRepository(JPA)와 같다.
+@Repository
+public interface ReactiveTodoSyncRepository extends R2dbcRepository<TodoSyncRow, String> {
+    // 변경 트랜잭션 안에서 호출, 리턴값은 수정된 행 수
+    @Modifying
+    @Query("update todo_sync set version = version + 1 where user_id = :userId")
+    Mono<Integer> increment(@Param("userId") String userId);
+
+    @Query("select version from todo_sync where user_id = :userId")
+    Mono<Long> findVersion(@Param("userId") String userId);
+
+    @Query("select todo_id from todo_tombstone where user_id = :userId and version > :since")
+    Flux<Long> findTodoIdsDeletedAfter(@Param("userId") String userId, @Param("since") long since);
+}
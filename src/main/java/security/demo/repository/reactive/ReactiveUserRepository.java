@@ -0,0 +1,14 @@
+package security.demo.repository.reactive;
+
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+import security.demo.entity.reactive.UserRow;
+
+// reactive 프로필용 유저 조회/저장
+@Repository
+public interface ReactiveUserRepository extends R2dbcRepository<UserRow, Long> {
+    Mono<UserRow> findByEmail(String email);
+
+    Mono<Boolean> existsByEmail(String email);
+}
@@ -0,0 +1,49 @@
+package security.demo.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/*
+ * JWT 인증 결과(지표 태그)
+ * - JwtAuthenticationFilter(서블릿), ReactiveJwtAuthenticationFilter(리액티브)가 같은 지표를 남긴다.
+ */
+enum AuthenticationOutcome {
+    ANONYMOUS("anonymous"),         // 토큰 없음
+    CACHED("cached"),               // 검증 캐시 적중
+    VERIFIED("verified"),           // 서명 검증
+    REVOKED("revoked"),
+    UNKNOWN_USER("unknown_user"),
+    EXPIRED("expired"),
+    INVALID_SIGNATURE("invalid_signature"),
+    MALFORMED("malformed"),
+    ERROR("error");
+
+    final String tag;
+
+    AuthenticationOutcome(String tag) {
+        this.tag = tag;
+    }
+
+    // 인증 결과별 Timer -> 요청마다 레지스트리에서 찾지 않도록 미리 만들어둔다.
+    static Map<AuthenticationOutcome, Timer> timers(MeterRegistry registry) {
+        Map<AuthenticationOutcome, Timer> timers = new EnumMap<>(AuthenticationOutcome.class);
+        for (AuthenticationOutcome outcome : values()) {
+            timers.put(outcome, Timer.builder("jwt.authentication")
+                    .description("JWT authentication filter time by outcome")
+                    .tag("outcome", outcome.tag)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        return timers;
+    }
+
+    static Timer verifyTimer(MeterRegistry registry) {
+        return Timer.builder("jwt.verify")
+                .description("JWT signature verification and claims parsing time")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -0,0 +1,141 @@
+package security.demo.security;
+
+import io.jsonwebtoken.SignatureException;
+import io.jsonwebtoken.impl.TextCodec;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+
+/*
+ * HS512 JWT 서명/검증 엔진
+ * - 비밀키(SecretKey)는 생성 시 한번만 만든다.
+ * - Mac 인스턴스와 디코딩 버퍼는 ScratchPool 로 재사용한다(Mac은 thread-safe 하지 않음).
+ * - jjwt 0.9.1 과 같은 형식의 토큰을 만들고 검증하므로 기존에 발급된 토큰도 그대로 사용 가능
+ *
+ * 비밀키 해석 방식도 jjwt 0.9.1 setSigningKey(String)과 동일하게 Base64 디코딩한 바이트를 사용한다.
+ */
+public class HmacJwtCodec implements JwtCodec {
+    private static final String ALGORITHM = "HmacSHA512";
+
+    // {"alg":"HS512"} -> 모든 토큰에서 같으므로 미리 인코딩해둔다.
+    private static final String HEADER_SEGMENT = JwtSupport.encodeSegment("{\"alg\":\"HS512\"}");
+
+    private final String secret;
+    private final ScratchPool<Scratch> scratches;
+
+    public HmacJwtCodec(String secret) {
+        if (secret == null || secret.isEmpty()) {
+            throw new IllegalArgumentException("jwt.secret_key must not be empty");
+        }
+        this.secret = secret;
+
+        SecretKeySpec key = new SecretKeySpec(TextCodec.BASE64.decode(secret), ALGORITHM);
+        this.scratches = new ScratchPool<>(() -> new Scratch(newMac(key)), 256);
+        newMac(key); // 잘못된 키라면 기동 시점에 바로 실패하도록 한번 초기화해본다.
+    }
+
+    // 현재 설정값(jwt.secret_key)으로 만들어진 엔진인지 확인 -> 설정이 바뀌면 새로 만든다.
+    public boolean isFor(String secret) {
+        return this.secret.equals(secret);
+    }
+
+    // 이 엔진이 만든 토큰인지(header 가 {"alg":"HS512"} 인지) 확인 -> RS256 토큰과 구분
+    public boolean matchesHeader(CharSequence token, int start, int end) {
+        int firstDot = JwtSupport.indexOf(token, '.', start, end);
+        return firstDot > start && JwtSupport.regionEquals(token, start, firstDot, HEADER_SEGMENT);
+    }
+
+    @Override
+    public String sign(JwtClaims claims) {
+        String payload = JwtSupport.BASE64_URL_ENCODER.encodeToString(JwtSupport.writePayload(claims));
+        String signingInput = HEADER_SEGMENT + '.' + payload;
+
+        byte[] signature;
+        Scratch scratch = scratches.acquire();
+        try {
+            signature = scratch.mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+        } finally {
+            scratches.release(scratch);
+        }
+
+        return signingInput + '.' + JwtSupport.BASE64_URL_ENCODER.encodeToString(signature);
+    }
+
+    /*
+     * 토큰 검증
+     * - Authorization 헤더 문자열의 [start, end) 구간을 그대로 사용(substring 으로 토큰 문자열을 따로 만들지 않음)
+     * - 재사용 버퍼에 바이트로 옮겨 서명을 계산하고, payload는 스트리밍 JSON 파서로 jti/sub/iss/iat/exp만 읽는다.
+     *
+     * 1. header.payload.signature 로 분리
+     * 2. header의 alg가 HS512인지 확인(alg=none 등 다른 알고리즘 거부)
+     * 3. header.payload 부분을 다시 서명해서 토큰의 서명과 비교(상수 시간 비교)
+     * 4. payload에서 claims를 꺼내고 exp 확인
+     */
+    @Override
+    public JwtClaims verify(CharSequence token, int start, int end, long nowSeconds) {
+        int[] dots = JwtSupport.split(token, start, end);
+        int firstDot = dots[0];
+        int secondDot = dots[1];
+
+        JwtClaims claims;
+        Scratch scratch = scratches.acquire();
+        try {
+            if (!JwtSupport.regionEquals(token, start, firstDot, HEADER_SEGMENT)) {
+                int length = JwtSupport.decode(token, start, firstDot, scratch);
+                if (!"HS512".equals(JwtSupport.readHeader(scratch.bytes, length).algorithm())) {
+                    throw new SignatureException("Unsupported JWT algorithm");
+                }
+            }
+
+            byte[] expected = scratch.sign(token, start, secondDot);
+            int length = JwtSupport.decode(token, secondDot + 1, end, scratch);
+            if (!JwtSupport.constantTimeEquals(expected, scratch.bytes, length)) {
+                throw new SignatureException("JWT signature does not match locally computed signature");
+            }
+
+            length = JwtSupport.decode(token, firstDot + 1, secondDot, scratch);
+            claims = JwtSupport.readClaims(scratch.bytes, length);
+        } finally {
+            scratches.release(scratch);
+        }
+
+        JwtSupport.checkExpiration(claims, nowSeconds);
+        return claims;
+    }
+
+    private static Mac newMac(SecretKeySpec key) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not initialize " + ALGORITHM, e);
+        }
+    }
+
+    // 재사용하는 Mac과 바이트 버퍼(한번에 한 스레드만 사용)
+    private static final class Scratch extends JwtSupport.Buffer {
+        private final Mac mac;
+        private final byte[] signature;
+
+        private Scratch(Mac mac) {
+            this.mac = mac;
+            this.signature = new byte[mac.getMacLength()];
+        }
+
+        // 토큰 문자(ASCII)를 버퍼로 옮겨 서명 계산
+        private byte[] sign(CharSequence s, int from, int to) {
+            int length = copy(s, from, to);
+            try {
+                mac.update(bytes, 0, length);
+                mac.doFinal(signature, 0);
+            } catch (ShortBufferException e) {
+                throw new IllegalStateException(e);
+            }
+            return signature;
+        }
+    }
+}
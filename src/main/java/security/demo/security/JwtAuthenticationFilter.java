@@ -1,25 +1,34 @@
 package security.demo.security;
 
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.security.authentication.AbstractAuthenticationToken;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Component // 스프링 컨테이너한테 Bean으로 등록해서 의존성 주입
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET) // reactive 프로필은 ReactiveJwtAuthenticationFilter
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     /*
      * OncePerRequestFilter 클래스를 상속받는 JwtAuthenticationFilter 구현
@@ -32,45 +41,133 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      *
      */
 
+    private static final String AUTHORIZATION_HEADER = "Authorization";
+    static final String BEARER_PREFIX = "Bearer "; // "Bearer " 문자열의 길이가 7
+    private static final int LOG_SAMPLE_RATE = 100;
+
     @Autowired
     private TokenProvider tokenProvider;
 
+    // 이미 검증된 토큰 캐시 -> 같은 토큰 재요청 시 서명 검증 생략
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    // 로그아웃 등으로 폐기된 토큰(jti) 목록 -> 메모리 조회만 함(DB 조회 없음)
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    // 유저 아이디 -> 인증된 유저 정보(UserPrincipal) 캐시
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // 요청마다 새로 만들지 않고 재사용
+    private final WebAuthenticationDetailsSource authenticationDetailsSource = new WebAuthenticationDetailsSource();
+
+    // 인증 결과별 Timer -> 요청마다 레지스트리에서 찾지 않도록 미리 만들어둔다.
+    private Map<AuthenticationOutcome, Timer> timers;
+    private Timer verifyTimer;
+
+    @PostConstruct
+    public void initMetrics() {
+        timers = AuthenticationOutcome.timers(meterRegistry);
+        verifyTimer = AuthenticationOutcome.verifyTimer(meterRegistry);
+    }
+
     @Override
     protected void doFilterInternal(
             HttpServletRequest req, HttpServletResponse res,
             FilterChain filterChain
     ) throws ServletException, IOException {
+        long startedAt = System.nanoTime();
+        AuthenticationOutcome outcome;
         try {
-            // req에서 token 꺼내오기
-            String token = parseBearerToken(req); // 토큰 파싱
-            log.info("JwtAuthenticationFilter is running...");
-
-            // 토큰 검사
-            if (token != null && !token.equalsIgnoreCase("null")) {
-                // 사용자 아이디 추출
-                String userId = tokenProvider.validateAndGetUserId(token);
-                log.info("Authenticated user id: " + userId);
-
-                // 직전에 추출한 userI로 인증한 객체 생성
-                AbstractAuthenticationToken authenticationToken
-                        = new UsernamePasswordAuthenticationToken(
-                        userId, null, AuthorityUtils.NO_AUTHORITIES);
-                authenticationToken.setDetails((new WebAuthenticationDetailsSource().buildDetails(req)));
-
-                // SecurityContextHolder: Spring security에서 인증된 사용자 정보를 저장하는 곳
-                SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
-                // 컨텍스트에 authenticationToken로 심으면 이후부터는 인증된 사용자로 인식됨
-                securityContext.setAuthentication(authenticationToken);
-                SecurityContextHolder.setContext(securityContext);
-            }
+            outcome = authenticate(req);
+        } catch (ExpiredJwtException e) {
+            outcome = AuthenticationOutcome.EXPIRED;
+        } catch (SignatureException e) {
+            outcome = AuthenticationOutcome.INVALID_SIGNATURE;
+        } catch (MalformedJwtException e) {
+            outcome = AuthenticationOutcome.MALFORMED;
         } catch (Exception e) {
-            // logger? spring security 필터 클래스에 기본 내장된 록
+            // 토큰 문제가 아닌 예외(캐시, DB 등)만 에러 로그
+            outcome = AuthenticationOutcome.ERROR;
             logger.error("Could not set user authentication is security context", e);
         }
+        record(outcome, startedAt);
 
         // 다음 필터/컨트롤러로 넘김
         filterChain.doFilter(req, res);
     }
+
+    private AuthenticationOutcome authenticate(HttpServletRequest req) {
+        // req에서 Authorization 헤더 꺼내오기
+        String authorization = req.getHeader(AUTHORIZATION_HEADER);
+
+        // 토큰 검사 -> 헤더 문자열에서 "Bearer " 이후 구간을 그대로 사용(substring 하지 않음)
+        if (!hasBearerToken(authorization)) {
+            return AuthenticationOutcome.ANONYMOUS;
+        }
+        int start = BEARER_PREFIX.length();
+        int end = authorization.length();
+
+        // claims 추출 -> 캐시에 있으면 조회 한번으로 끝, 없으면 서명 검증 후 캐시에 저장
+        AuthenticationOutcome outcome = AuthenticationOutcome.CACHED;
+        JwtClaims claims = verifiedTokenCache.get(authorization, start, end);
+        if (claims == null) {
+            long verifyStartedAt = System.nanoTime();
+            try {
+                claims = tokenProvider.validateAndGetClaims(authorization, start, end);
+            } finally {
+                verifyTimer.record(System.nanoTime() - verifyStartedAt, TimeUnit.NANOSECONDS);
+            }
+            verifiedTokenCache.put(authorization, start, end, claims);
+            outcome = AuthenticationOutcome.VERIFIED;
+        }
+
+        // 폐기된 토큰(로그아웃 등) -> 인증하지 않음
+        if (tokenRevocationList.isRevoked(claims)) {
+            return AuthenticationOutcome.REVOKED;
+        }
+
+        // 유저 정보(principal)는 캐시에서 가져옴 -> 요청마다 DB 조회하지 않음
+        UserPrincipal principal = userPrincipalCache.get(claims.subject());
+        if (principal == null) {
+            // 토큰은 유효하지만 유저가 없음(탈퇴 등) -> 인증하지 않음
+            return AuthenticationOutcome.UNKNOWN_USER;
+        }
+
+        // 직전에 추출한 userI로 인증한 객체 생성
+        AbstractAuthenticationToken authenticationToken
+                = new UsernamePasswordAuthenticationToken(
+                principal, null, principal.getAuthorities());
+        authenticationToken.setDetails(authenticationDetailsSource.buildDetails(req));
+
+        // SecurityContextHolder: Spring security에서 인증된 사용자 정보를 저장하는 곳
+        SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        // 컨텍스트에 authenticationToken로 심으면 이후부터는 인증된 사용자로 인식됨
+        securityContext.setAuthentication(authenticationToken);
+        SecurityContextHolder.setContext(securityContext);
+        return outcome;
+    }
+
+    /*
+     * [after] 계측
+     * - 인증 결과(outcome)별 처리 시간 -> jwt.authentication(Timer)
+     * - 캐시에 없는 토큰의 서명 검증/파싱 시간 -> jwt.verify(Timer)
+     * - 요청마다 INFO 로그(문자열 연결) 대신 DEBUG 레벨에서 LOG_SAMPLE_RATE 건 중 한 건만 구조화 로그
+     */
+    private void record(AuthenticationOutcome outcome, long startedAt) {
+        long elapsed = System.nanoTime() - startedAt;
+        timers.get(outcome).record(elapsed, TimeUnit.NANOSECONDS);
+
+        if (log.isDebugEnabled() && ThreadLocalRandom.current().nextInt(LOG_SAMPLE_RATE) == 0) {
+            log.debug("jwt auth outcome={} elapsedMicros={}", outcome.tag, elapsed / 1_000);
+        }
+    }
+
     /*
     * 1. 토큰을 가져온다.
     * 2. 토큰 유효한지 검사 토큰이 null 아니면서 토큰의 문자를 비교했을떄 null이 아닐떄
@@ -79,20 +176,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     * 5. 필터 체인 진행
     * */
 
-    // 요청의 헤더에서 Bearer 토큰을 가져옴
-    // http 요청의 헤더를 파싱해서 Bearer 토큰을 리턴
-    private String parseBearerToken(HttpServletRequest req) {
-        // Authorization: Bearer <token>
-        // HTTP 요청의 'Authorization' 헤더 값을 가져옴
-        String bearerToken = req.getHeader("Authorization");
-
-        // 헤더 값이 'Bearer '로 시작하는지 검사
-        // "Bearer" 문자열(7자리)을 제외한 실제 토큰 부분을 추출하여 반환
-        // 7자리를 제외하는 이유는 JWT(JSON Web Token) 앞에 붙는 Bearer 접두사 떄문이다.
-        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
-            return bearerToken.substring(7); // "Bearer " 문자열의 길이가 7
+    // 요청의 헤더에 Bearer 토큰이 있는지 검사
+    // Authorization: Bearer <token>
+    // "Bearer " 접두사(7자리)로 시작하고, 토큰 부분이 비어있거나 "null" 문자열이면 토큰이 없는 것으로 본다.
+    // 토큰 문자열을 따로 만들지 않고 헤더 문자열 안에서 바로 비교한다.
+    static boolean hasBearerToken(String authorization) {
+        if (authorization == null || authorization.length() <= BEARER_PREFIX.length()
+                || !authorization.startsWith(BEARER_PREFIX)) {
+            return false;
         }
-        return null; // 유효한 토큰이 없으면 null반환
+        int tokenLength = authorization.length() - BEARER_PREFIX.length();
+        return !(tokenLength == 4 && authorization.regionMatches(true, BEARER_PREFIX.length(), "null", 0, 4));
     }
-
 }
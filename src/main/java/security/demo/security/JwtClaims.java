@@ -0,0 +1,15 @@
+package security.demo.security;
+
+/*
+ * 검증이 끝난 토큰에서 꺼낸 claims
+ * - 필터와 서비스에서 실제로 쓰는 값(jti, sub, iss, iat, exp)만 담는다.
+ * - jti: 토큰 고유 id(폐기 목록에서 사용), 이전에 발급된 토큰은 null
+ * - iat, exp는 epoch 초 단위(JWT 표준)
+ */
+public record JwtClaims(String id, String subject, String issuer, long issuedAt, long expiration) {
+
+    // 캐시 등에서 사용하는 만료 시각(epoch 밀리초)
+    public long expiresAtMillis() {
+        return expiration * 1000L;
+    }
+}
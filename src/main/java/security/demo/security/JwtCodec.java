@@ -0,0 +1,18 @@
+package security.demo.security;
+
+/*
+ * JWT 서명/검증 엔진
+ * - HmacJwtCodec: HS512, 공유 비밀키(jwt.secret_key)
+ * - RsaJwtCodec: RS256, kid 별 RSA 키(JwtKeyRing), 공개키는 JWKS 로 공개
+ */
+public interface JwtCodec {
+    // header.payload.signature 형식의 토큰 생성
+    String sign(JwtClaims claims);
+
+    // token의 [start, end) 구간 검증 -> 위조/만료된 토큰이면 예외
+    JwtClaims verify(CharSequence token, int start, int end, long nowSeconds);
+
+    default JwtClaims verify(String token, long nowSeconds) {
+        return verify(token, 0, token.length(), nowSeconds);
+    }
+}
@@ -0,0 +1,413 @@
+package security.demo.security;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import security.demo.config.jwt.JwtProperties;
+import security.demo.entity.JwtSigningKeyEntity;
+import security.demo.repository.JwtSigningKeyRepository;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.SecureRandom;
+import java.security.Signature;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * RS256 서명 키 관리(jwt.algorithm=RS256 일 때만 키를 만든다)
+ * - 서명 키는 모든 인스턴스가 같이 쓴다: 공개키와 암호화된 개인키(AES-GCM, jwt.key-encryption-key)를 DB(JwtSigningKey)에 저장
+ *   -> 기동한 인스턴스는 DB 의 현재 키로 서명(기동할 때마다 새 kid 가 생기지 않음)
+ *   -> DB 에 쓸 수 있는 키가 없을 때(처음 기동, 오래 멈췄다가 기동)만 새 키를 만들어 바로 사용
+ * - jwt.key-rotation-interval 마다 새 키로 교체
+ *   -> 새 키는 JWKS 에 먼저 공개하고 JWKS_MAX_AGE 가 지난 뒤부터 서명에 사용(다른 서비스의 JWKS 캐시가 새 키를 알도록)
+ *   -> 서명 키 = 공개된 지 JWKS_MAX_AGE 가 지난 키 중 가장 최근 키(모든 인스턴스가 같은 규칙 -> 같은 키)
+ *      여러 인스턴스가 동시에 다음 키를 만들어도 같은 키로 모이고, 나머지는 서명에 쓰이지 않고 만료된다.
+ *   -> 이전 키의 공개키는 그 키로 서명된 토큰이 모두 만료될 때까지 JWKS 에 남긴다.
+ * - 검증용 공개키는 kid 별로 파싱해서 캐시(요청마다 키를 파싱하거나 DB를 조회하지 않음)
+ *   -> 검증은 메모리의 키만 사용. 모르는 kid 는 바로 거절하고, DB 다시 읽기(reload)를 백그라운드에 한번 요청
+ *      (UNKNOWN_KEY_RELOAD_INTERVAL 에 최대 한번 -> 임의의 kid 를 보내도 인증 경로에서 DB 를 조회하지 않음)
+ *   -> 다음 키는 서명에 쓰이기 JWKS_MAX_AGE 전에 공개되므로 1분 주기 reload 로 충분하다.
+ */
+@Slf4j
+@Component
+public class JwtKeyRing {
+    public static final String ALGORITHM = "RS256";
+    static final Duration JWKS_MAX_AGE = Duration.ofMinutes(5);
+
+    private static final String SIGNATURE_ALGORITHM = "SHA256withRSA";
+    private static final Duration EXPIRY_MARGIN = Duration.ofMinutes(5);
+    private static final long UNKNOWN_KEY_RELOAD_INTERVAL_MILLIS = Duration.ofSeconds(5).toMillis();
+    private static final String KEY_CIPHER = "AES/GCM/NoPadding";
+    private static final int GCM_IV_BYTES = 12;
+    private static final int GCM_TAG_BITS = 128;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder BASE64_URL_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    @Autowired
+    private JwtProperties jwtProperties;
+
+    @Autowired
+    private JwtSigningKeyRepository repository;
+
+    // 모르는 kid 를 받았을 때 DB 다시 읽기를 실행할 스레드(요청 스레드, Netty 이벤트 루프에서 DB 조회하지 않도록)
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor reloadExecutor;
+
+    private volatile SigningKey current;
+    private volatile SharedKey next; // JWKS 에 먼저 공개된 다음 키(아직 서명에 쓰지 않음)
+
+    // 개인키 암호화 키(jwt.key-encryption-key)
+    private SecretKey keyEncryptionKey;
+
+    // kid -> 파싱된 공개키
+    private final Map<String, VerificationKey> verificationKeys = new ConcurrentHashMap<>();
+    // kid -> DB 에 저장된 서명 키(암호화된 개인키), 서명 키로 고를 때만 복호화
+    private final Map<String, SharedKey> sharedKeys = new ConcurrentHashMap<>();
+    // 모르는 kid 로 요청할 수 있는 다음 reload 시각(epoch 밀리초)
+    private final AtomicLong nextUnknownKeyReload = new AtomicLong();
+
+    private volatile Map<String, Object> jwks = Map.of("keys", List.of());
+
+    @PostConstruct
+    public void init() {
+        if (!isEnabled()) {
+            return;
+        }
+        keyEncryptionKey = parseKeyEncryptionKey(jwtProperties.getKeyEncryptionKey());
+        reload();
+        if (current == null) {
+            Instant now = Instant.now();
+            publish(now);
+            selectSigningKey(now);
+            log.info("RS256 signing key created, kid: {}", current.kid());
+        } else {
+            log.info("RS256 shared signing key loaded, kid: {}", current.kid());
+        }
+    }
+
+    public boolean isEnabled() {
+        return ALGORITHM.equalsIgnoreCase(jwtProperties.getAlgorithm());
+    }
+
+    SigningKey signingKey() {
+        SigningKey key = current;
+        if (key == null) {
+            throw new IllegalStateException("RS256 signing key is not initialized (jwt.algorithm=" + jwtProperties.getAlgorithm() + ")");
+        }
+        return key;
+    }
+
+    // kid 로 검증용 공개키 조회(메모리만), 모르는 kid 면 null
+    VerificationKey verificationKey(String kid) {
+        VerificationKey key = verificationKeys.get(kid);
+        if (key != null && key.expiresAt() > System.currentTimeMillis()) {
+            return key;
+        }
+        requestReload();
+        return null;
+    }
+
+    // 방금 기동한 다른 인스턴스의 키일 수 있으므로 백그라운드에서 DB 다시 읽기(전체에서 주기당 최대 한번)
+    private void requestReload() {
+        long now = System.currentTimeMillis();
+        long next = nextUnknownKeyReload.get();
+        if (now < next || !nextUnknownKeyReload.compareAndSet(next, now + UNKNOWN_KEY_RELOAD_INTERVAL_MILLIS)) {
+            return;
+        }
+        try {
+            reloadExecutor.execute(() -> {
+                try {
+                    reload();
+                } catch (RuntimeException e) {
+                    log.warn("Could not reload RS256 public keys", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 다음 주기 reload 에서 반영
+        }
+    }
+
+    // JWKS(RFC 7517) -> {"keys":[{"kty":"RSA","kid":...,"n":...,"e":...}]}
+    public Map<String, Object> getJwks() {
+        return jwks;
+    }
+
+    /*
+     * 1분마다 확인
+     * 1. DB 다시 읽기(다른 인스턴스가 공개한 다음 키), 만료된 키 정리, 서명 키 다시 고르기
+     *    -> 다음 키가 공개된 지 JWKS_MAX_AGE 가 지났으면 여기서 서명 키가 바뀐다.
+     * 2. 다음 키가 없고 현재 키 교체 시각이 JWKS_MAX_AGE 안으로 다가오면 다음 키를 만들어 먼저 공개
+     *    (새 kid 는 이 경로로만 생긴다)
+     */
+    @Scheduled(fixedDelayString = "PT1M", initialDelayString = "PT1M")
+    public void rotate() {
+        if (!isEnabled()) {
+            return;
+        }
+        Instant now = Instant.now();
+
+        repository.deleteExpired(now);
+        reload();
+
+        SigningKey key = current;
+        if (next == null && (key == null || !key.createdAt()
+                .plus(jwtProperties.getKeyRotationInterval()).minus(JWKS_MAX_AGE).isAfter(now))) {
+            SharedKey published = publish(now);
+            log.info("RS256 next signing key published, kid: {}", published.kid());
+            selectSigningKey(now);
+        }
+    }
+
+    private SharedKey publish(Instant now) {
+        KeyPair keyPair = generateKeyPair();
+        String kid = newKeyId();
+
+        Instant expiresAt = now.plus(JWKS_MAX_AGE)
+                .plus(jwtProperties.getKeyRotationInterval())
+                .plus(jwtProperties.getAccessTokenValidity())
+                .plus(EXPIRY_MARGIN);
+        String privateKey = encryptPrivateKey(kid, keyPair.getPrivate());
+        repository.save(JwtSigningKeyEntity.builder()
+                .kid(kid)
+                .publicKey(Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()))
+                .privateKey(privateKey)
+                .createdAt(now)
+                .expiresAt(expiresAt)
+                .build());
+
+        verificationKeys.put(kid, new VerificationKey(kid, (RSAPublicKey) keyPair.getPublic(), expiresAt.toEpochMilli()));
+        rebuildJwks();
+
+        SharedKey shared = new SharedKey(kid, now, expiresAt.toEpochMilli(), privateKey);
+        sharedKeys.put(kid, shared);
+        return shared;
+    }
+
+    // DB 의 키 목록으로 캐시 갱신(만료된 키는 제거), 서명 키 다시 고르기
+    private void reload() {
+        long now = System.currentTimeMillis();
+        for (JwtSigningKeyEntity entity : repository.findByExpiresAtAfter(Instant.ofEpochMilli(now))) {
+            verificationKeys.computeIfAbsent(entity.getKid(), kid -> toVerificationKey(entity));
+            if (entity.getPrivateKey() != null) {
+                sharedKeys.computeIfAbsent(entity.getKid(), kid -> new SharedKey(kid, entity.getCreatedAt(),
+                        entity.getExpiresAt().toEpochMilli(), entity.getPrivateKey()));
+            }
+        }
+        verificationKeys.values().removeIf(key -> key.expiresAt() <= now);
+        sharedKeys.values().removeIf(key -> key.expiresAt() <= now);
+        rebuildJwks();
+        selectSigningKey(Instant.ofEpochMilli(now));
+    }
+
+    /*
+     * 서명 키 고르기(모든 인스턴스가 같은 결과)
+     * - 서명에 쓸 수 있는 키: 지금 서명한 토큰이 만료될 때까지 JWKS 에 남아있는 키
+     * - 그 중 공개된 지 JWKS_MAX_AGE 가 지난 가장 최근 키, 없으면(모두 방금 만든 키) 가장 먼저 만든 키
+     * - 서명 키보다 나중에 공개된 키는 next(다음 키)
+     */
+    private void selectSigningKey(Instant now) {
+        long signableUntil = now.plus(jwtProperties.getAccessTokenValidity()).toEpochMilli();
+        Instant activatedBefore = now.minus(JWKS_MAX_AGE);
+
+        SharedKey active = null;
+        SharedKey oldest = null;
+        SharedKey newest = null;
+        for (SharedKey key : sharedKeys.values()) {
+            if (key.expiresAt() <= signableUntil) {
+                continue;
+            }
+            if (!key.createdAt().isAfter(activatedBefore) && (active == null || key.isNewerThan(active))) {
+                active = key;
+            }
+            if (oldest == null || oldest.isNewerThan(key)) {
+                oldest = key;
+            }
+            if (newest == null || key.isNewerThan(newest)) {
+                newest = key;
+            }
+        }
+        if (active == null) {
+            active = oldest;
+        }
+        if (active == null) {
+            return;
+        }
+
+        SigningKey key = current;
+        if (key == null || !key.kid().equals(active.kid())) {
+            current = toSigningKey(active);
+            if (key != null) {
+                log.info("RS256 signing key rotated, kid: {}", active.kid());
+            }
+        }
+        next = newest.isNewerThan(active) ? newest : null;
+    }
+
+    private SigningKey toSigningKey(SharedKey shared) {
+        PrivateKey privateKey = decryptPrivateKey(shared.kid(), shared.privateKey());
+        String header = JwtSupport.encodeSegment("{\"alg\":\"" + ALGORITHM + "\",\"kid\":\"" + shared.kid() + "\"}");
+        return new SigningKey(shared.kid(), header, shared.createdAt(), new ScratchPool<>(() -> newSigner(privateKey), 256));
+    }
+
+    // 개인키(PKCS#8 DER) -> Base64(iv + AES-GCM 암호문), kid 를 AAD 로 묶어서 다른 키 행으로 옮겨도 복호화되지 않게
+    private String encryptPrivateKey(String kid, PrivateKey privateKey) {
+        try {
+            byte[] iv = new byte[GCM_IV_BYTES];
+            RANDOM.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance(KEY_CIPHER);
+            cipher.init(Cipher.ENCRYPT_MODE, keyEncryptionKey, new GCMParameterSpec(GCM_TAG_BITS, iv));
+            cipher.updateAAD(kid.getBytes(StandardCharsets.US_ASCII));
+            byte[] encrypted = cipher.doFinal(privateKey.getEncoded());
+
+            byte[] stored = Arrays.copyOf(iv, iv.length + encrypted.length);
+            System.arraycopy(encrypted, 0, stored, iv.length, encrypted.length);
+            return Base64.getEncoder().encodeToString(stored);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not encrypt RS256 private key, kid: " + kid, e);
+        }
+    }
+
+    private PrivateKey decryptPrivateKey(String kid, String privateKey) {
+        try {
+            byte[] stored = Base64.getDecoder().decode(privateKey);
+            Cipher cipher = Cipher.getInstance(KEY_CIPHER);
+            cipher.init(Cipher.DECRYPT_MODE, keyEncryptionKey, new GCMParameterSpec(GCM_TAG_BITS, stored, 0, GCM_IV_BYTES));
+            cipher.updateAAD(kid.getBytes(StandardCharsets.US_ASCII));
+            byte[] encoded = cipher.doFinal(stored, GCM_IV_BYTES, stored.length - GCM_IV_BYTES);
+            return KeyFactory.getInstance("RSA").generatePrivate(new PKCS8EncodedKeySpec(encoded));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            // jwt.key-encryption-key 가 다른 인스턴스와 다름
+            throw new IllegalStateException("Could not decrypt RS256 private key, kid: " + kid
+                    + " (check jwt.key-encryption-key)", e);
+        }
+    }
+
+    private static SecretKey parseKeyEncryptionKey(String value) {
+        byte[] key;
+        try {
+            key = value == null ? new byte[0] : Base64.getDecoder().decode(value);
+        } catch (IllegalArgumentException e) {
+            key = new byte[0];
+        }
+        if (key.length != 16 && key.length != 24 && key.length != 32) {
+            throw new IllegalStateException("jwt.key-encryption-key must be a Base64 AES key (16, 24 or 32 bytes) when jwt.algorithm=" + ALGORITHM);
+        }
+        return new SecretKeySpec(key, "AES");
+    }
+
+    private void rebuildJwks() {
+        List<Map<String, Object>> keys = new ArrayList<>(verificationKeys.size());
+        for (VerificationKey key : verificationKeys.values()) {
+            Map<String, Object> jwk = new LinkedHashMap<>();
+            jwk.put("kty", "RSA");
+            jwk.put("use", "sig");
+            jwk.put("alg", ALGORITHM);
+            jwk.put("kid", key.kid());
+            jwk.put("n", encodeUnsigned(key.publicKey().getModulus()));
+            jwk.put("e", encodeUnsigned(key.publicKey().getPublicExponent()));
+            keys.add(jwk);
+        }
+        jwks = Map.of("keys", List.copyOf(keys));
+    }
+
+    private KeyPair generateKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(jwtProperties.getRsaKeySize(), RANDOM);
+            return generator.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not generate RSA key pair", e);
+        }
+    }
+
+    private static VerificationKey toVerificationKey(JwtSigningKeyEntity entity) {
+        try {
+            RSAPublicKey publicKey = (RSAPublicKey) KeyFactory.getInstance("RSA")
+                    .generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(entity.getPublicKey())));
+            return new VerificationKey(entity.getKid(), publicKey, entity.getExpiresAt().toEpochMilli());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not parse public key, kid: " + entity.getKid(), e);
+        }
+    }
+
+    private static Signature newSigner(PrivateKey privateKey) {
+        try {
+            Signature signature = Signature.getInstance(SIGNATURE_ALGORITHM);
+            signature.initSign(privateKey);
+            return signature;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not initialize " + SIGNATURE_ALGORITHM, e);
+        }
+    }
+
+    private static Signature newVerifier(RSAPublicKey publicKey) {
+        try {
+            Signature signature = Signature.getInstance(SIGNATURE_ALGORITHM);
+            signature.initVerify(publicKey);
+            return signature;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not initialize " + SIGNATURE_ALGORITHM, e);
+        }
+    }
+
+    private static String newKeyId() {
+        byte[] bytes = new byte[16];
+        RANDOM.nextBytes(bytes);
+        return BASE64_URL_ENCODER.encodeToString(bytes);
+    }
+
+    // JWK 의 n, e: 부호 없는 big-endian 바이트의 base64url
+    private static String encodeUnsigned(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return BASE64_URL_ENCODER.encodeToString(bytes);
+    }
+
+    // DB 에 저장된 서명 키(개인키는 암호화된 채로), 같은 시각이면 kid 로 순서를 정한다.
+    record SharedKey(String kid, Instant createdAt, long expiresAt, String privateKey) {
+        boolean isNewerThan(SharedKey other) {
+            int compared = createdAt.compareTo(other.createdAt);
+            return compared > 0 || (compared == 0 && kid.compareTo(other.kid) > 0);
+        }
+    }
+
+    // 서명 키: header 는 키마다 고정이라 미리 인코딩, Signature 는 thread-safe 하지 않아서 풀로 재사용
+    record SigningKey(String kid, String headerSegment, Instant createdAt, ScratchPool<Signature> signers) {
+    }
+
+    // 검증 키: 파싱된 공개키 + 재사용하는 Signature
+    record VerificationKey(String kid, RSAPublicKey publicKey, long expiresAt, ScratchPool<Signature> verifiers) {
+        VerificationKey(String kid, RSAPublicKey publicKey, long expiresAt) {
+            this(kid, publicKey, expiresAt, new ScratchPool<>(() -> newVerifier(publicKey), 256));
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package security.demo.security;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.MalformedJwtException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+/*
+ * HS512 / RS256 엔진이 같이 쓰는 JWT 문자열 처리
+ * - base64url 디코딩(재사용 버퍼), header/payload 스트리밍 JSON 읽기/쓰기
+ * - 토큰 문자열의 [start, end) 구간을 그대로 사용(substring 하지 않음)
+ */
+final class JwtSupport {
+    static final JsonFactory JSON_FACTORY = new JsonFactory();
+    static final Base64.Encoder BASE64_URL_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    // base64url 문자 -> 6bit 값(해당 없으면 -1)
+    private static final int[] BASE64_URL_VALUES = new int[128];
+
+    static {
+        Arrays.fill(BASE64_URL_VALUES, -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64_URL_VALUES[alphabet.charAt(i)] = i;
+        }
+    }
+
+    private JwtSupport() {
+    }
+
+    // header 에서 읽는 값(alg, kid)
+    record Header(String algorithm, String keyId) {
+    }
+
+    // 재사용하는 바이트 버퍼(한번에 한 스레드만 사용)
+    static class Buffer {
+        byte[] bytes = new byte[512];
+
+        byte[] ensureCapacity(int capacity) {
+            if (bytes.length < capacity) {
+                bytes = new byte[Math.max(capacity, bytes.length * 2)];
+            }
+            return bytes;
+        }
+
+        // 토큰 문자(ASCII)를 버퍼로 옮기고 바이트 수 리턴
+        int copy(CharSequence s, int from, int to) {
+            byte[] out = ensureCapacity(to - from);
+            for (int i = from; i < to; i++) {
+                out[i - from] = (byte) s.charAt(i);
+            }
+            return to - from;
+        }
+    }
+
+    static String encodeSegment(String json) {
+        return BASE64_URL_ENCODER.encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // header.payload.signature 에서 두 '.' 의 위치 리턴 -> [firstDot, secondDot]
+    static int[] split(CharSequence token, int start, int end) {
+        int firstDot = indexOf(token, '.', start, end);
+        int secondDot = firstDot < 0 ? -1 : indexOf(token, '.', firstDot + 1, end);
+        if (firstDot <= start || secondDot < 0 || indexOf(token, '.', secondDot + 1, end) >= 0) {
+            throw new MalformedJwtException("JWT strings must contain exactly 2 period characters");
+        }
+        return new int[]{firstDot, secondDot};
+    }
+
+    static void checkExpiration(JwtClaims claims, long nowSeconds) {
+        if (claims.expiration() > 0 && claims.expiration() <= nowSeconds) {
+            throw new ExpiredJwtException(null, null, "JWT expired at " + claims.expiration());
+        }
+    }
+
+    static byte[] writePayload(JwtClaims claims) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            generator.writeStartObject();
+            if (claims.id() != null) {
+                generator.writeStringField("jti", claims.id());
+            }
+            generator.writeStringField("sub", claims.subject());
+            generator.writeStringField("iss", claims.issuer());
+            generator.writeNumberField("iat", claims.issuedAt());
+            generator.writeNumberField("exp", claims.expiration());
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write JWT payload", e);
+        }
+        return out.toByteArray();
+    }
+
+    // payload에서 필요한 claims만 읽는다(Map/JsonNode를 만들지 않음)
+    static JwtClaims readClaims(byte[] bytes, int length) {
+        String id = null;
+        String subject = null;
+        String issuer = null;
+        long issuedAt = 0;
+        long expiration = 0;
+
+        try (JsonParser parser = JSON_FACTORY.createParser(bytes, 0, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new MalformedJwtException("JWT payload must be a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                parser.nextToken();
+                switch (name) {
+                    case "jti" -> id = parser.getValueAsString();
+                    case "sub" -> subject = parser.getValueAsString();
+                    case "iss" -> issuer = parser.getValueAsString();
+                    case "iat" -> issuedAt = parser.getValueAsLong();
+                    case "exp" -> expiration = parser.getValueAsLong();
+                    default -> parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            throw new MalformedJwtException("Unable to read JWT JSON value", e);
+        }
+        return new JwtClaims(id, subject, issuer, issuedAt, expiration);
+    }
+
+    static Header readHeader(byte[] bytes, int length) {
+        String algorithm = null;
+        String keyId = null;
+
+        try (JsonParser parser = JSON_FACTORY.createParser(bytes, 0, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new MalformedJwtException("JWT header must be a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                parser.nextToken();
+                switch (name) {
+                    case "alg" -> algorithm = parser.getValueAsString();
+                    case "kid" -> keyId = parser.getValueAsString();
+                    default -> parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            throw new MalformedJwtException("Unable to read JWT JSON value", e);
+        }
+        return new Header(algorithm, keyId);
+    }
+
+    // base64url 문자 구간을 재사용 버퍼에 디코딩하고 디코딩된 바이트 수 리턴
+    static int decode(CharSequence s, int from, int to, Buffer buffer) {
+        while (to > from && s.charAt(to - 1) == '=') {
+            to--; // 패딩 무시
+        }
+        byte[] out = buffer.ensureCapacity((to - from) * 3 / 4 + 3);
+
+        int length = 0;
+        int bits = 0;
+        int bitCount = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            int value = c < 128 ? BASE64_URL_VALUES[c] : -1;
+            if (value < 0) {
+                throw new MalformedJwtException("Unable to decode JWT segment");
+            }
+            bits = (bits << 6) | value;
+            bitCount += 6;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                out[length++] = (byte) (bits >> bitCount);
+            }
+        }
+        return length;
+    }
+
+    // 서명 비교(상수 시간): 길이가 정확히 같아야 하고, 다른 바이트가 있어도 끝까지 비교해서 시간 차이로 서명을 추측하지 못하게
+    static boolean constantTimeEquals(byte[] expected, byte[] actual, int length) {
+        if (expected.length != length || actual.length < length) {
+            return false;
+        }
+        int result = 0;
+        for (int i = 0; i < length; i++) {
+            result |= expected[i] ^ actual[i];
+        }
+        return result == 0;
+    }
+
+    static boolean regionEquals(CharSequence s, int from, int to, String expected) {
+        if (to - from != expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < expected.length(); i++) {
+            if (s.charAt(from + i) != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static int indexOf(CharSequence s, char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (s.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
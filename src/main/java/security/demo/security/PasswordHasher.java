@@ -0,0 +1,125 @@
+package security.demo.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import security.demo.config.password.PasswordHashProperties;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/*
+ * BCrypt 해시 계산 전용 실행기
+ * - BCrypt(strength 10)는 한번에 80~100ms 정도 CPU를 사용한다.
+ * - 톰캣 요청 스레드에서 바로 계산하면 로그인 요청이 몰릴 때 /api/todo 요청까지 스레드를 못 받는다.
+ * - 그래서 고정 크기 스레드 풀 + 길이 제한이 있는 대기열에서 계산하고,
+ *   대기열이 가득 차면 기다리지 않고 바로 RejectedExecutionException(-> 503)으로 실패시킨다.
+ *
+ * 대기 시간(queue time)과 해시 계산 시간(hash time)을 따로 집계한다.
+ */
+@Slf4j
+@Component
+public class PasswordHasher {
+    @Autowired
+    private PasswordHashProperties properties;
+
+    private PasswordEncoder passwordEncoder;
+    private ThreadPoolExecutor executor;
+
+    private final LongAdder queueTimeNanos = new LongAdder();
+    private final LongAdder hashTimeNanos = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        passwordEncoder = new BCryptPasswordEncoder(properties.getStrength());
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                properties.getThreads(), properties.getThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // 비밀번호 암호화(회원가입)
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    // 비밀번호 비교(로그인)
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        return submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    public PasswordEncoder getPasswordEncoder() {
+        return passwordEncoder;
+    }
+
+    public long getQueueTimeNanos() {
+        return queueTimeNanos.sum();
+    }
+
+    public long getHashTimeNanos() {
+        return hashTimeNanos.sum();
+    }
+
+    public long getCompletedCount() {
+        return completed.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long submittedAt = System.nanoTime();
+
+        try {
+            executor.execute(() -> {
+                long startedAt = System.nanoTime();
+                queueTimeNanos.add(startedAt - submittedAt);
+                try {
+                    future.complete(task.get());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    hashTimeNanos.add(System.nanoTime() - startedAt);
+                    completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 대기열이 가득 찬 경우 -> 기다리지 않고 바로 실패
+            rejected.increment();
+            log.warn("Password hash queue is full, rejected (queue size: {})", executor.getQueue().size());
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+}
@@ -0,0 +1,140 @@
+package security.demo.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import security.demo.repository.reactive.ReactiveUserRepository;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * JwtAuthenticationFilter 의 리액티브(WebFlux) 버전
+ * - 토큰 검증 순서, 캐시(VerifiedTokenCache, UserPrincipalCache), 폐기 목록, 지표는 서블릿 필터와 같다.
+ * - 인증 정보는 SecurityContextHolder(스레드 로컬) 대신 Reactor Context 에 넣는다.
+ * - principal 캐시에 없는 유저만 R2DBC 로 확인 -> 이벤트 루프 스레드에서 블로킹 조회를 하지 않는다.
+ * - 토큰이 없거나 잘못되어도 요청은 그대로 넘기고(인증 없이), 접근 허용 여부는 보안 설정이 판단한다.
+ *
+ * WebFilter 빈으로 등록하면 보안 필터 체인 밖에서 한번 더 실행되므로 ReactiveWebSecurityConfig 에서 직접 생성한다.
+ */
+@Slf4j
+public class ReactiveJwtAuthenticationFilter implements WebFilter {
+    private static final int LOG_SAMPLE_RATE = 100;
+
+    private final TokenProvider tokenProvider;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationList tokenRevocationList;
+    private final UserPrincipalCache userPrincipalCache;
+    private final ReactiveUserRepository userRepository;
+
+    private final Map<AuthenticationOutcome, Timer> timers;
+    private final Timer verifyTimer;
+
+    public ReactiveJwtAuthenticationFilter(TokenProvider tokenProvider,
+                                           VerifiedTokenCache verifiedTokenCache,
+                                           TokenRevocationList tokenRevocationList,
+                                           UserPrincipalCache userPrincipalCache,
+                                           ReactiveUserRepository userRepository,
+                                           MeterRegistry meterRegistry) {
+        this.tokenProvider = tokenProvider;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenRevocationList = tokenRevocationList;
+        this.userPrincipalCache = userPrincipalCache;
+        this.userRepository = userRepository;
+        this.timers = AuthenticationOutcome.timers(meterRegistry);
+        this.verifyTimer = AuthenticationOutcome.verifyTimer(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        long startedAt = System.nanoTime();
+        Mono<Authentication> authentication;
+        try {
+            authentication = authenticate(exchange, startedAt);
+        } catch (ExpiredJwtException e) {
+            authentication = fail(AuthenticationOutcome.EXPIRED, startedAt);
+        } catch (SignatureException e) {
+            authentication = fail(AuthenticationOutcome.INVALID_SIGNATURE, startedAt);
+        } catch (MalformedJwtException e) {
+            authentication = fail(AuthenticationOutcome.MALFORMED, startedAt);
+        } catch (Exception e) {
+            log.error("Could not set user authentication is security context", e);
+            authentication = fail(AuthenticationOutcome.ERROR, startedAt);
+        }
+
+        // 인증 여부와 관계없이 다음 필터/컨트롤러로 한번만 넘김
+        return authentication
+                .onErrorResume(e -> {
+                    log.error("Could not set user authentication is security context", e);
+                    return fail(AuthenticationOutcome.ERROR, startedAt);
+                })
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(result -> result
+                        .map(auth -> chain.filter(exchange)
+                                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(auth)))
+                        .orElseGet(() -> chain.filter(exchange)));
+    }
+
+    // 토큰 검증까지는 메모리/CPU 작업이라 바로 처리, principal 만 비동기
+    private Mono<Authentication> authenticate(ServerWebExchange exchange, long startedAt) {
+        String authorization = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (!JwtAuthenticationFilter.hasBearerToken(authorization)) {
+            return fail(AuthenticationOutcome.ANONYMOUS, startedAt);
+        }
+        int start = JwtAuthenticationFilter.BEARER_PREFIX.length();
+        int end = authorization.length();
+
+        AuthenticationOutcome outcome = AuthenticationOutcome.CACHED;
+        JwtClaims claims = verifiedTokenCache.get(authorization, start, end);
+        if (claims == null) {
+            long verifyStartedAt = System.nanoTime();
+            try {
+                claims = tokenProvider.validateAndGetClaims(authorization, start, end);
+            } finally {
+                verifyTimer.record(System.nanoTime() - verifyStartedAt, TimeUnit.NANOSECONDS);
+            }
+            verifiedTokenCache.put(authorization, start, end, claims);
+            outcome = AuthenticationOutcome.VERIFIED;
+        }
+
+        if (tokenRevocationList.isRevoked(claims)) {
+            return fail(AuthenticationOutcome.REVOKED, startedAt);
+        }
+
+        AuthenticationOutcome verified = outcome;
+        return userPrincipalCache.get(claims.subject(), userRepository::existsById)
+                .<Authentication>map(principal -> {
+                    record(verified, startedAt);
+                    return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+                })
+                .switchIfEmpty(fail(AuthenticationOutcome.UNKNOWN_USER, startedAt));
+    }
+
+    // 인증하지 않는 결과 -> 지표만 남기고 빈 Mono
+    private Mono<Authentication> fail(AuthenticationOutcome outcome, long startedAt) {
+        return Mono.fromRunnable(() -> record(outcome, startedAt));
+    }
+
+    private void record(AuthenticationOutcome outcome, long startedAt) {
+        long elapsed = System.nanoTime() - startedAt;
+        timers.get(outcome).record(elapsed, TimeUnit.NANOSECONDS);
+
+        if (log.isDebugEnabled() && ThreadLocalRandom.current().nextInt(LOG_SAMPLE_RATE) == 0) {
+            log.debug("jwt auth outcome={} elapsedMicros={}", outcome.tag, elapsed / 1_000);
+        }
+    }
+}
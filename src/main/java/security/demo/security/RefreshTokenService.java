@@ -0,0 +1,145 @@
+package security.demo.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import security.demo.config.jwt.JwtProperties;
+import security.demo.entity.RefreshTokenEntity;
+import security.demo.repository.RefreshTokenRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/*
+ * refresh token 발급/재발급(rotation)/폐기
+ * - 토큰은 의미 없는 랜덤 문자열(opaque), 서버는 SHA-256 해시만 저장한다.
+ * - 재발급하면 기존 토큰은 사용 처리되고 같은 묶음(family)으로 새 토큰을 발급한다.
+ * - 이미 사용된 토큰이 다시 들어오면 탈취(재사용)로 보고 그 묶음 전체를 폐기한다.
+ * - 비밀번호 비교(BCrypt) 없이 access token 을 다시 받을 수 있어서 로그인 요청을 줄인다.
+ *
+ * 저장소: DB 테이블(RefreshToken)
+ * - 토큰 해시(unique 인덱스)로 조회 -> 메모리 인덱스를 두지 않는다(인스턴스마다 따로 늘어나고 서로 맞지 않음).
+ * - 사용/폐기 여부는 항상 DB 조건부 update 로 확인(동시에 같은 토큰이 들어와도 한 요청만 성공)
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder BASE64_URL_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    @Autowired
+    private RefreshTokenRepository repository;
+
+    @Autowired
+    private JwtProperties jwtProperties;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // 로그인 시 새 묶음으로 발급
+    public String issue(String userId) {
+        return issue(userId, UUID.randomUUID().toString());
+    }
+
+    /*
+     * 재발급
+     * 1. 토큰 해시로 DB 조회
+     * 2. 만료 확인
+     * 3. 사용 처리(update ... where used = false) -> 성공하면 같은 묶음으로 새 토큰 발급
+     * 4. 사용 처리 실패 = 이미 사용됐거나 폐기된 토큰 -> 재사용으로 보고 묶음 전체 폐기
+     * 1~4는 한 트랜잭션 -> 새 토큰 저장이 실패하면 사용 처리도 롤백(클라이언트는 기존 토큰으로 다시 시도 가능)
+     */
+    public Rotation rotate(String refreshToken) {
+        if (refreshToken == null || refreshToken.isEmpty()) {
+            throw new RuntimeException("Invalid refresh token");
+        }
+
+        String tokenHash = hash(refreshToken);
+        Rotation rotation = transactionTemplate.execute(status -> {
+            RefreshTokenEntity entity = repository.findByTokenHash(tokenHash)
+                    .orElseThrow(() -> new RuntimeException("Invalid refresh token"));
+
+            if (!entity.getExpiresAt().isAfter(Instant.now())) {
+                throw new RuntimeException("Refresh token expired");
+            }
+
+            if (repository.markUsed(entity.getId()) == 0) {
+                int revoked = repository.revokeFamily(entity.getFamilyId());
+                log.warn("Refresh token reuse detected, user: {}, family: {}, revoked: {}",
+                        entity.getUserId(), entity.getFamilyId(), revoked);
+                // 폐기는 커밋해야 하므로 예외 대신 null -> 트랜잭션 밖에서 실패 처리
+                return null;
+            }
+
+            return new Rotation(entity.getUserId(), issue(entity.getUserId(), entity.getFamilyId()));
+        });
+
+        if (rotation == null) {
+            throw new RuntimeException("Invalid refresh token");
+        }
+        return rotation;
+    }
+
+    // 로그아웃 -> 해당 refresh token 이 속한 묶음(family) 폐기
+    public int revoke(String refreshToken) {
+        if (refreshToken == null || refreshToken.isEmpty()) {
+            return 0;
+        }
+
+        String familyId = repository.findByTokenHash(hash(refreshToken))
+                .map(RefreshTokenEntity::getFamilyId)
+                .orElse(null);
+        if (familyId == null) {
+            return 0;
+        }
+        return repository.revokeFamily(familyId);
+    }
+
+    // 유저의 refresh token 전체 폐기(로그아웃, 비밀번호 변경 등)
+    public int revokeAll(String userId) {
+        return repository.revokeAllByUserId(userId);
+    }
+
+    // 만료된 토큰 정리
+    @Scheduled(fixedDelayString = "PT10M")
+    public void purgeExpired() {
+        int deleted = repository.deleteExpired(Instant.now());
+        log.debug("Expired refresh tokens purged: {}", deleted);
+    }
+
+    private String issue(String userId, String familyId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String refreshToken = BASE64_URL_ENCODER.encodeToString(bytes);
+
+        repository.save(RefreshTokenEntity.builder()
+                .tokenHash(hash(refreshToken))
+                .userId(userId)
+                .familyId(familyId)
+                .expiresAt(Instant.now().plus(jwtProperties.getRefreshTokenValidity()))
+                .build());
+
+        return refreshToken;
+    }
+
+    private static String hash(String refreshToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(refreshToken.getBytes(StandardCharsets.US_ASCII));
+            return BASE64_URL_ENCODER.encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // 재발급 결과: 유저 아이디 + 새 refresh token
+    public record Rotation(String userId, String refreshToken) {
+    }
+}
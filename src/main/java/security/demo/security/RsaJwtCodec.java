@@ -0,0 +1,95 @@
+package security.demo.security;
+
+import io.jsonwebtoken.SignatureException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Signature;
+
+/*
+ * RS256 JWT 서명/검증 엔진
+ * - header: {"alg":"RS256","kid":"<키 id>"} -> 다른 서비스는 JWKS 에서 kid 로 공개키를 찾아 직접 검증
+ * - 서명 키와 kid 별 공개키는 JwtKeyRing 이 관리(공개키는 파싱된 상태로 캐시)
+ * - 디코딩 버퍼와 Signature 인스턴스는 ScratchPool 로 재사용
+ */
+public class RsaJwtCodec implements JwtCodec {
+    private final JwtKeyRing keyRing;
+    private final ScratchPool<JwtSupport.Buffer> buffers = new ScratchPool<>(JwtSupport.Buffer::new, 256);
+
+    public RsaJwtCodec(JwtKeyRing keyRing) {
+        this.keyRing = keyRing;
+    }
+
+    @Override
+    public String sign(JwtClaims claims) {
+        JwtKeyRing.SigningKey key = keyRing.signingKey();
+        String payload = JwtSupport.BASE64_URL_ENCODER.encodeToString(JwtSupport.writePayload(claims));
+        String signingInput = key.headerSegment() + '.' + payload;
+
+        byte[] signature;
+        Signature signer = key.signers().acquire();
+        try {
+            signer.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+            signature = signer.sign();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not sign JWT", e);
+        } finally {
+            key.signers().release(signer);
+        }
+
+        return signingInput + '.' + JwtSupport.BASE64_URL_ENCODER.encodeToString(signature);
+    }
+
+    /*
+     * 토큰 검증
+     * 1. header 에서 alg(RS256만 허용), kid 읽기
+     * 2. kid 로 캐시된 공개키 조회(모르는 kid 면 거절)
+     * 3. header.payload 서명 검증
+     * 4. payload에서 claims를 꺼내고 exp 확인
+     */
+    @Override
+    public JwtClaims verify(CharSequence token, int start, int end, long nowSeconds) {
+        int[] dots = JwtSupport.split(token, start, end);
+        int firstDot = dots[0];
+        int secondDot = dots[1];
+
+        JwtClaims claims;
+        JwtSupport.Buffer buffer = buffers.acquire();
+        try {
+            int length = JwtSupport.decode(token, start, firstDot, buffer);
+            JwtSupport.Header header = JwtSupport.readHeader(buffer.bytes, length);
+            if (!JwtKeyRing.ALGORITHM.equals(header.algorithm()) || header.keyId() == null) {
+                throw new SignatureException("Unsupported JWT algorithm");
+            }
+
+            JwtKeyRing.VerificationKey key = keyRing.verificationKey(header.keyId());
+            if (key == null) {
+                throw new SignatureException("Unknown JWT key id");
+            }
+
+            boolean valid;
+            Signature verifier = key.verifiers().acquire();
+            try {
+                length = buffer.copy(token, start, secondDot);
+                verifier.update(buffer.bytes, 0, length);
+                length = JwtSupport.decode(token, secondDot + 1, end, buffer);
+                valid = verifier.verify(buffer.bytes, 0, length);
+            } catch (GeneralSecurityException e) {
+                valid = false;
+            } finally {
+                key.verifiers().release(verifier);
+            }
+            if (!valid) {
+                throw new SignatureException("JWT signature does not match locally computed signature");
+            }
+
+            length = JwtSupport.decode(token, firstDot + 1, secondDot, buffer);
+            claims = JwtSupport.readClaims(buffer.bytes, length);
+        } finally {
+            buffers.release(buffer);
+        }
+
+        JwtSupport.checkExpiration(claims, nowSeconds);
+        return claims;
+    }
+}
@@ -0,0 +1,50 @@
+package security.demo.security;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/*
+ * Mac, MessageDigest, 버퍼처럼 thread-safe 하지 않은 객체를 재사용하기 위한 풀
+ * - 플랫폼 스레드: ThreadLocal 에 하나씩 보관(스레드 수가 고정이라 재사용률이 높음)
+ * - 가상 스레드: 요청마다 새 스레드라 ThreadLocal 은 매번 새로 만드는 것과 같다.
+ *   그래서 공유 큐에서 빌려 쓰고 반납한다(최대 maxIdle 개만 보관).
+ *
+ * 사용법: acquire() 후 반드시 finally 에서 release()
+ */
+final class ScratchPool<T> {
+    private final Supplier<T> factory;
+    private final ThreadLocal<T> platformLocal;
+    private final ConcurrentLinkedQueue<T> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final int maxIdle;
+
+    ScratchPool(Supplier<T> factory, int maxIdle) {
+        this.factory = factory;
+        this.platformLocal = ThreadLocal.withInitial(factory);
+        this.maxIdle = maxIdle;
+    }
+
+    T acquire() {
+        if (!Thread.currentThread().isVirtual()) {
+            return platformLocal.get();
+        }
+        T value = idle.poll();
+        if (value == null) {
+            return factory.get();
+        }
+        idleCount.decrementAndGet();
+        return value;
+    }
+
+    void release(T value) {
+        if (!Thread.currentThread().isVirtual()) {
+            return; // ThreadLocal 에 그대로 남아있음
+        }
+        if (idleCount.incrementAndGet() <= maxIdle) {
+            idle.offer(value);
+        } else {
+            idleCount.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package security.demo.security;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import security.demo.cache.SegmentedCache;
+import security.demo.config.signin.SigninLimitProperties;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * 로그인 실패 제한(크리덴셜 스터핑, 무차별 대입 방어)
+ * - 이메일별, IP별 실패 횟수를 세고 기준을 넘으면 DB 조회와 BCrypt 비교 전에 바로 거절한다.
+ * - 카운터는 고정 크기 배열(stripe)에 해시로 나눠 담는다. -> 키가 아무리 많아도 메모리 일정, 락 없음(CAS)
+ * - 해시 충돌로 다른 키와 카운터를 같이 쓰는 경우를 줄이려고 서로 다른 해시로 두 줄(row)에 세고
+ *   작은 값을 사용한다(count-min sketch).
+ *
+ * 시간 감쇠(time decay)
+ * - 슬롯 하나(long)에 [window 번호 32bit | 이전 window 실패 수 16bit | 현재 window 실패 수 16bit] 를 담는다.
+ * - 추정 실패 수 = 현재 window 실패 수 + 이전 window 실패 수 * (현재 window 에서 남은 시간 비율)
+ *   -> 고정 window 경계에서 카운터가 한번에 0이 되지 않고 서서히 줄어든다.
+ *
+ * 로그인 성공
+ * - 슬롯은 다른 이메일과 같이 쓰므로 0으로 만들지 않는다(다른 계정의 실패 횟수까지 지워짐).
+ * - 대신 성공 시점의 두 슬롯 값을 이메일별로 기억(정확한 키, 크기 제한)하고, 그 이메일을 추정할 때만 빼준다.
+ *   -> 성공 이후의 실패만 센다. 기억한 값도 슬롯과 같은 방식으로 window 가 지나면 줄어들어서 2 window 뒤에는 의미 없음
+ *   -> 그래서 2 window 뒤에 만료, 개수 제한은 SegmentedCache 로 지킨다(넘으면 한동안 조회되지 않은 이메일 값만 버림).
+ */
+@Slf4j
+@Component
+public class SigninAttemptLimiter {
+    private static final long COUNT_MASK = 0xFFFFL;
+    private static final int MAX_SUCCESS_SNAPSHOTS = 100_000;
+
+    @Autowired
+    private SigninLimitProperties properties;
+
+    private Counter emailCounter;
+    private Counter ipCounter;
+
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder blockedByEmail = new LongAdder();
+    private final LongAdder blockedByIp = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        int size = Integer.highestOneBit(Math.max(2, properties.getStripes() - 1)) << 1;
+        emailCounter = new Counter(size);
+        ipCounter = new Counter(size);
+    }
+
+    // 이메일이나 IP의 실패 횟수가 기준 이상이면 true -> 로그인 시도 자체를 거절
+    public boolean isBlocked(String email, String ip) {
+        long now = System.currentTimeMillis();
+
+        if (emailCounter.estimate(emailKey(email), now, true) >= properties.getMaxFailuresPerEmail()) {
+            blockedByEmail.increment();
+            return true;
+        }
+        if (ipCounter.estimate(ip, now, false) >= properties.getMaxFailuresPerIp()) {
+            blockedByIp.increment();
+            return true;
+        }
+        return false;
+    }
+
+    public void recordFailure(String email, String ip) {
+        long now = System.currentTimeMillis();
+        failures.increment();
+        emailCounter.increment(emailKey(email), now);
+        ipCounter.increment(ip, now);
+    }
+
+    // 로그인 성공 시 해당 이메일의 실패 횟수 초기화(IP는 유지), 같은 슬롯을 쓰는 다른 이메일에는 영향 없음
+    public void recordSuccess(String email) {
+        emailCounter.markSuccess(emailKey(email), System.currentTimeMillis());
+    }
+
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    public long getBlockedByEmailCount() {
+        return blockedByEmail.sum();
+    }
+
+    public long getBlockedByIpCount() {
+        return blockedByIp.sum();
+    }
+
+    private static String emailKey(String email) {
+        return email == null ? "" : email.toLowerCase(Locale.ROOT);
+    }
+
+    private final class Counter {
+        private final AtomicLongArray row1;
+        private final AtomicLongArray row2;
+        private final int mask;
+        // 키 -> 마지막 로그인 성공 시점의 row1, row2 슬롯
+        private final SegmentedCache<String, SuccessSnapshot> successSnapshots =
+                new SegmentedCache<>("Signin success", () -> MAX_SUCCESS_SNAPSHOTS, SuccessSnapshot::expiresAt);
+
+        private Counter(int size) {
+            this.row1 = new AtomicLongArray(size);
+            this.row2 = new AtomicLongArray(size);
+            this.mask = size - 1;
+        }
+
+        private double estimate(String key, long now, boolean sinceSuccess) {
+            long hash = hash(key);
+            // 기억한 값이 모두 지난 window 로 밀려났으면(만료) 더 이상 뺄 것이 없음
+            SuccessSnapshot snapshot = sinceSuccess ? successSnapshots.get(key, now) : null;
+            return Math.min(
+                    estimate(row1, (int) hash & mask, snapshot == null ? 0 : snapshot.slot1(), now),
+                    estimate(row2, (int) (hash >>> 32) & mask, snapshot == null ? 0 : snapshot.slot2(), now));
+        }
+
+        private void increment(String key, long now) {
+            long hash = hash(key);
+            increment(row1, (int) hash & mask, now);
+            increment(row2, (int) (hash >>> 32) & mask, now);
+        }
+
+        private void markSuccess(String key, long now) {
+            long hash = hash(key);
+            long windowMillis = properties.getWindow().toMillis();
+            long window = now / windowMillis;
+            successSnapshots.put(key, new SuccessSnapshot(
+                    rotate(row1.get((int) hash & mask), window),
+                    rotate(row2.get((int) (hash >>> 32) & mask), window),
+                    (window + 2) * windowMillis));
+        }
+
+        // snapshot: 로그인 성공 시점의 슬롯 값(없으면 0) -> 그 이후 늘어난 실패 수만 추정
+        private double estimate(AtomicLongArray row, int index, long snapshot, long now) {
+            long windowMillis = properties.getWindow().toMillis();
+            long window = now / windowMillis;
+            long slot = rotate(row.get(index), window);
+            long base = rotate(snapshot, window);
+
+            double remaining = 1.0 - (double) (now % windowMillis) / windowMillis;
+            return Math.max(0, current(slot) - current(base)) + Math.max(0, previous(slot) - previous(base)) * remaining;
+        }
+
+        private void increment(AtomicLongArray row, int index, long now) {
+            long window = now / properties.getWindow().toMillis();
+            long prev;
+            long next;
+            do {
+                prev = row.get(index);
+                long slot = rotate(prev, window);
+                long count = Math.min(COUNT_MASK, current(slot) + 1);
+                next = (slot & ~COUNT_MASK) | count;
+            } while (!row.compareAndSet(index, prev, next));
+        }
+
+        // 저장된 window 가 지났으면 현재 window 기준으로 이동(이전 window 실패 수로 옮기거나 버림)
+        private long rotate(long slot, long window) {
+            long stored = slot >>> 32;
+            long current = window & 0xFFFFFFFFL;
+            if (stored == current) {
+                return slot;
+            }
+            long previous = stored == ((current - 1) & 0xFFFFFFFFL) ? current(slot) : 0;
+            return (current << 32) | (previous << 16);
+        }
+
+        private long current(long slot) {
+            return slot & COUNT_MASK;
+        }
+
+        private long previous(long slot) {
+            return (slot >>> 16) & COUNT_MASK;
+        }
+
+        // FNV-1a 64bit + murmur3 finalizer
+        private long hash(String key) {
+            String value = key == null ? "" : key;
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                h ^= value.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+
+    // expiresAt: 2 window 뒤(슬롯 값이 모두 밀려나는 시각)
+    private record SuccessSnapshot(long slot1, long slot2, long expiresAt) {
+    }
+}
@@ -1,8 +1,7 @@
 package security.demo.security;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SignatureException;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.catalina.User;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,8 +10,8 @@ import security.demo.config.jwt.JwtProperties;
 import security.demo.entity.UserEntity;
 
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
-import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
 
 /*
  * 사용자 정보를 받아 JWT 생성
@@ -29,26 +28,62 @@ public class TokenProvider {
     @Autowired
     private JwtProperties jwtProperties;
 
+    // 키가 바뀌면 이전 키로 검증된 토큰 캐시를 비워야 한다.
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    /*
+     * [after] RS256(jwt.algorithm=RS256)
+     * - kid 별 RSA 키로 서명, 공개키는 /.well-known/jwks.json 으로 공개
+     * - 다른 서비스는 비밀키 없이 JWKS 공개키로 직접 검증(이 서버에 검증 요청을 보낼 필요 없음)
+     * - HS512 로 발급된 토큰은 jwt.legacy-hs512-until 까지만 검증(설정하지 않으면 거절)
+     *   -> 비밀키(jwt.secret_key)를 아는 누구나 토큰을 만들 수 있으므로 RS256 전환 후에는 받지 않는다.
+     */
+    @Autowired
+    private JwtKeyRing jwtKeyRing;
+
+    private RsaJwtCodec rsaCodec;
+
+    /*
+     * [after] 서명/검증 엔진 재사용
+     * - 기존에는 호출마다 Jwts.builder()/Jwts.parser()를 새로 만들고 비밀키도 매번 다시 만들었다.
+     * - 이제 기동 시 한번 만들어둔 HmacJwtCodec을 모든 스레드가 같이 사용한다.
+     * - jwt.secret_key 값이 바뀌면 다음 호출에서 새 키로 다시 만든다(hot reload).
+     */
+    private volatile HmacJwtCodec codec;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    @PostConstruct
+    public void init() {
+        rsaCodec = new RsaJwtCodec(jwtKeyRing);
+        signingCodec();
+    }
+
     // create(): JWT 생성
     // 로그인 성공 시에 이 메서드가 호출되어 JWT 토큰을 발급한다.
     public String create(UserEntity entity) {
+        return create(String.valueOf(entity.getId()));
+    }
+
+    // refresh token 으로 재발급할 때는 유저 아이디만 있으면 된다.
+    public String create(String userId) {
         // JWT 토큰 만료일 설정: 생성된 시간으로부터 24시간동안 유지
-        Date expiryDate = Date.from(Instant.now().plus(1, ChronoUnit.DAYS));
-
-        // JWT 빌더를 사용해 토큰 생성
-        return Jwts.builder()
-                /*
-                 * JWT 구조인(Header, Payload, Signature)
-                 * header에 들어갈 내용 및 서명하기 위한 SECRET_KEY
-                 * .signWith(SignatureAlgorithm.HS512, jSECRET_KEY)
-                 */
-                .signWith(SignatureAlgorithm.HS512, jwtProperties.getSecretKey())
-                // payload 구역
-                .setSubject(String.valueOf(entity.getId())) // sub: 토큰 제목(여기서는 userId)
-                .setIssuer("demo app") // iss: 토큰 발급자(임의 이름 demo app 지정)
-                .setIssuedAt(new Date()) //ist: 토큰이 발급된 시간
-                .setExpiration(expiryDate) // exp: 토큰 만료시간
-                .compact(); // 토큰생성 -> "header.payload.signature" 토큰 문자열 최종 생성
+        // [after] 짧은 access token + refresh token 재발급 -> jwt.access-token-validity(기본 15분)
+        Instant now = Instant.now();
+        Instant expiryDate = now.plus(jwtProperties.getAccessTokenValidity());
+
+        /*
+         * JWT 구조인(Header, Payload, Signature)
+         * header: {"alg":"HS512"} 또는 {"alg":"RS256","kid":"<키 id>"}
+         * payload
+         *  - jti: 토큰 고유 id(로그아웃 등으로 폐기할 때 사용)
+         *  - sub: 토큰 제목(여기서는 userId)
+         *  - iss: 토큰 발급자(임의 이름 demo app 지정)
+         *  - iat: 토큰이 발급된 시간
+         *  - exp: 토큰 만료시간
+         */
+        return signingCodec().sign(new JwtClaims(UUID.randomUUID().toString(), userId, "demo app",
+                now.getEpochSecond(), expiryDate.getEpochSecond()));
     }
 
     /*
@@ -56,20 +91,80 @@ public class TokenProvider {
      * -> 사용자 아이디 리턴
      *   아래 메서드는 클라이언트가 보낸 토큰이 유효한지 검증하고, userId를 변환
      *
-     *  parseClaimsJws 메서드가 Base64로 디코딩 및 파싱
-     * - header, payload를 setSignKey로 넘어온 시크릿을 이용해 서명한 후 token의 서명이랑 비교
+     * - header, payload를 비밀키로 다시 서명한 후 token의 서명이랑 비교
      * - 서명이 위조되거나 만료된 토큰이라면 예외 발생
      * - 위조되지 않았다면 payload(claims) 리턴
      */
     public String validateAndGetUserId(String token) {
-        Claims claims = Jwts.parser()
-                // .setSigningKey(SECRET_KEY) 서명검증에 사용할 비밀키 지정
-                .setSigningKey(jwtProperties.getSecretKey()) // jwt 파일 적용
-                .parseClaimsJws(token) // jwt 파싱 ->  header, payload, sihnature 검증
-                .getBody();
+        JwtClaims claims = validateAndGetClaims(token);
 
-        return claims.getSubject(); // jwt 생성시 넣었던 sub(userId) 값을 꺼냄
+        return claims.subject(); // jwt 생성시 넣었던 sub(userId) 값을 꺼냄
     }
-}
 
+    // 검증된 claims 전체 리턴 -> 필터에서 sub와 exp를 함께 캐시하기 위해 사용
+    public JwtClaims validateAndGetClaims(String token) {
+        return validateAndGetClaims(token, 0, token.length());
+    }
 
+    // token의 [start, end) 구간을 검증 -> 필터에서 Authorization 헤더를 잘라내지 않고 바로 넘김
+    // header 로 HS512 / RS256 토큰을 구분해서 검증
+    // - RS256 을 끄면(jwt.algorithm=HS512) 모든 토큰을 HS512 엔진으로 검증 -> alg 가 HS512 가 아니면 거절
+    // - RS256 이면 HS512 토큰은 jwt.legacy-hs512-until 전까지만 HS512 엔진으로, 이후에는 RS256 엔진이 거절
+    public JwtClaims validateAndGetClaims(CharSequence token, int start, int end) {
+        long now = Instant.now().getEpochSecond();
+        HmacJwtCodec hmacCodec = codec();
+        if (hmacCodec != null && (!jwtKeyRing.isEnabled()
+                || (acceptsLegacyHs512(now) && hmacCodec.matchesHeader(token, start, end)))) {
+            return hmacCodec.verify(token, start, end, now);
+        }
+        if (!jwtKeyRing.isEnabled()) {
+            throw new SignatureException("Unsupported JWT algorithm");
+        }
+        return rsaCodec.verify(token, start, end, now);
+    }
+
+    // RS256 전환 전에 발급된 HS512 토큰을 받는 기간인지
+    private boolean acceptsLegacyHs512(long now) {
+        Instant until = jwtProperties.getLegacyHs512Until();
+        return until != null && now < until.getEpochSecond();
+    }
+
+    private JwtCodec signingCodec() {
+        if (jwtKeyRing != null && jwtKeyRing.isEnabled()) {
+            return rsaCodec;
+        }
+        HmacJwtCodec hmacCodec = codec();
+        if (hmacCodec == null) {
+            throw new IllegalStateException("jwt.secret_key must not be empty for " + jwtProperties.getAlgorithm());
+        }
+        return hmacCodec;
+    }
+
+    // jwt.secret_key 가 없으면 null(RS256 만 사용)
+    private HmacJwtCodec codec() {
+        String secretKey = jwtProperties.getSecretKey();
+        if (secretKey == null || secretKey.isEmpty()) {
+            return null;
+        }
+        HmacJwtCodec current = codec;
+
+        if (current == null || !current.isFor(secretKey)) {
+            // synchronized 대신 ReentrantLock -> 가상 스레드가 carrier 스레드를 고정(pinning)하지 않도록
+            reloadLock.lock();
+            try {
+                current = codec;
+                if (current == null || !current.isFor(secretKey)) {
+                    if (current != null) {
+                        verifiedTokenCache.clear();
+                        log.info("JWT secret key changed, signing key reloaded");
+                    }
+                    current = new HmacJwtCodec(secretKey);
+                    codec = current;
+                }
+            } finally {
+                reloadLock.unlock();
+            }
+        }
+        return current;
+    }
+}
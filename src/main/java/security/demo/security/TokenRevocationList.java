@@ -0,0 +1,118 @@
+package security.demo.security;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import security.demo.entity.RevokedTokenEntity;
+import security.demo.repository.RevokedTokenRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * 폐기된 access token(JWT) 목록
+ * - exp 이전에 로그아웃 등으로 폐기한 토큰의 jti -> exp(epoch 밀리초)를 메모리에 보관
+ * - 필터는 요청마다 isRevoked() 로 해시 조회 한번만 한다(DB 조회 없음).
+ * - exp 가 지난 토큰은 어차피 서명 검증 단계에서 거절되므로 목록에서 제거한다.
+ *   -> 목록 크기는 "유효 시간(jwt.access-token-validity) 동안 폐기된 토큰 수" 이상으로 커지지 않는다.
+ *
+ * 저장소: DB 테이블(RevokedToken)
+ * - 기동 시 아직 만료되지 않은 폐기 토큰을 다시 읽어온다.
+ * - 다른 서버 인스턴스에서 폐기한 토큰은 주기적으로(30초) 새로 폐기된 것만 읽어서 반영한다.
+ */
+@Slf4j
+@Component
+public class TokenRevocationList {
+    // 인스턴스 간 시계 차이, 커밋 지연을 고려해서 조금 앞 시각부터 다시 읽는다.
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(5);
+
+    @Autowired
+    private RevokedTokenRepository repository;
+
+    // jti -> 토큰 만료 시각(epoch 밀리초)
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    private volatile Instant lastSync = Instant.EPOCH;
+
+    private final LongAdder rejected = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        Instant now = Instant.now();
+        List<RevokedTokenEntity> entities = repository.findByExpiresAtAfter(now);
+        entities.forEach(this::add);
+        lastSync = now;
+        log.info("Token revocation list loaded, size: {}", revoked.size());
+    }
+
+    // 필터에서 호출 -> jti 가 없는 토큰(jti 도입 전에 발급된 토큰)은 개별 폐기 대상이 아님
+    public boolean isRevoked(JwtClaims claims) {
+        String jti = claims.id();
+        if (jti == null || revoked.isEmpty()) {
+            return false;
+        }
+        Long expiresAt = revoked.get(jti);
+        if (expiresAt == null) {
+            return false;
+        }
+        rejected.increment();
+        return true;
+    }
+
+    // 토큰 폐기(로그아웃) -> 메모리에 먼저 반영하고 DB에 저장
+    public void revoke(JwtClaims claims) {
+        if (claims.id() == null) {
+            throw new RuntimeException("Token can not be revoked");
+        }
+        long expiresAt = claims.expiresAtMillis();
+        if (expiresAt <= System.currentTimeMillis()) {
+            return; // 이미 만료된 토큰
+        }
+
+        if (revoked.putIfAbsent(claims.id(), expiresAt) == null) {
+            repository.save(RevokedTokenEntity.builder()
+                    .jti(claims.id())
+                    .userId(claims.subject())
+                    .expiresAt(Instant.ofEpochMilli(expiresAt))
+                    .revokedAt(Instant.now())
+                    .build());
+        }
+    }
+
+    // 다른 인스턴스에서 새로 폐기된 토큰 반영
+    @Scheduled(fixedDelayString = "PT30S", initialDelayString = "PT30S")
+    public void sync() {
+        Instant now = Instant.now();
+        List<RevokedTokenEntity> entities =
+                repository.findByRevokedAtAfterAndExpiresAtAfter(lastSync.minus(SYNC_OVERLAP), now);
+        entities.forEach(this::add);
+        lastSync = now;
+    }
+
+    // 만료된 토큰 정리(메모리, 테이블)
+    @Scheduled(fixedDelayString = "PT10M")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        int deleted = repository.deleteExpired(Instant.ofEpochMilli(now));
+        log.debug("Expired revoked tokens purged: {}, size: {}", deleted, revoked.size());
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    private void add(RevokedTokenEntity entity) {
+        revoked.put(entity.getJti(), entity.getExpiresAt().toEpochMilli());
+    }
+}
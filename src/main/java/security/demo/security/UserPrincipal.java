@@ -0,0 +1,50 @@
+package security.demo.security;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.security.Principal;
+import java.util.Collection;
+import java.util.List;
+
+/*
+ * 인증된 유저 정보(SecurityContext 의 principal)
+ * - 요청마다 DB를 조회하지 않도록 UserPrincipalCache 에 보관되는 불변 객체
+ * - id: 유저 아이디(JWT 의 sub), authorities: 권한, version: 캐시에 올라간 시점의 버전
+ *   -> 유저 정보가 바뀌면 캐시에서 제거되고 다음 요청에서 새 버전으로 다시 만들어진다.
+ *
+ * 컨트롤러에서는 @AuthenticationPrincipal UserPrincipal principal 로 받아서 principal.getId() 사용
+ */
+public final class UserPrincipal implements Principal {
+    private final String id;
+    private final List<GrantedAuthority> authorities;
+    private final long version;
+
+    public UserPrincipal(String id, Collection<? extends GrantedAuthority> authorities, long version) {
+        this.id = id;
+        this.authorities = List.copyOf(authorities);
+        this.version = version;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    // Authentication.getName() 에서 사용
+    @Override
+    public String getName() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return id;
+    }
+}
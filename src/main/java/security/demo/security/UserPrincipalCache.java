@@ -0,0 +1,144 @@
+package security.demo.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import security.demo.cache.SegmentedCache;
+import security.demo.config.cache.PrincipalCacheProperties;
+import security.demo.entity.UserEntity;
+import security.demo.repository.UserRepository;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/*
+ * 유저 아이디 -> UserPrincipal 캐시
+ * - JwtAuthenticationFilter 가 요청마다 유저를 조회하지 않도록 user.principal-cache.ttl 동안 보관
+ * - 최대 user.principal-cache.max-size 명까지 보관(SegmentedCache), 넘으면 한동안 조회되지 않은 유저부터 정리
+ * - 없는 유저(탈퇴 등)도 user.principal-cache.negative-ttl 동안 "없음"으로 보관해서 DB를 반복 조회하지 않는다.
+ *   (ttl 보다 훨씬 짧게 -> 가입 직후나 복제 지연으로 잘못 "없음"이 된 경우에도 금방 다시 읽음)
+ * - 유저 정보(권한, 계정 상태 등)가 바뀌면 invalidate() 로 제거 -> 다음 요청에서 다시 읽음
+ */
+@Component
+public class UserPrincipalCache {
+    private static final int STAMP_STRIPES = 1024;
+
+    @Autowired
+    private PrincipalCacheProperties properties;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final SegmentedCache<String, Entry> entries =
+            new SegmentedCache<>("User principal", () -> properties.getMaxSize(), Entry::expiresAt);
+
+    // 유저 아이디 해시별 invalidate 횟수 -> 조회하는 사이에 그 유저가 invalidate 되었으면 캐시에 넣지 않는다.
+    // (전체 하나의 값이면 다른 유저의 invalidate 에도 저장을 건너뛰어 미스가 이어진다.)
+    private final AtomicLongArray stamps = new AtomicLongArray(STAMP_STRIPES);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    // 유저가 없으면 null
+    public UserPrincipal get(String userId) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(userId, now);
+
+        if (entry != null) {
+            hits.increment();
+            return entry.principal();
+        }
+
+        misses.increment();
+        long loadVersion = stamps.get(stripe(userId));
+        return store(userId, load(userId, loadVersion), now, loadVersion);
+    }
+
+    /*
+     * 리액티브 모드(ReactiveJwtAuthenticationFilter)용 조회
+     * - 캐시에 없을 때만 existsById(R2DBC)로 유저를 확인 -> 이벤트 루프 스레드를 막지 않는다.
+     * - 유저가 없으면 빈 Mono
+     */
+    public Mono<UserPrincipal> get(String userId, Function<Long, Mono<Boolean>> existsById) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(userId, now);
+
+        if (entry != null) {
+            hits.increment();
+            return Mono.justOrEmpty(entry.principal());
+        }
+
+        misses.increment();
+        long loadVersion = stamps.get(stripe(userId));
+        Long id = parseId(userId);
+        Mono<Boolean> exists = id == null ? Mono.just(false) : existsById.apply(id);
+        return exists.flatMap(found -> Mono.justOrEmpty(
+                store(userId, found ? newPrincipal(id, loadVersion) : null, now, loadVersion)));
+    }
+
+    // 유저 정보가 바뀌었을 때 호출
+    public void invalidate(String userId) {
+        stamps.incrementAndGet(stripe(userId));
+        entries.remove(userId);
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /*
+     * DB에서 유저를 읽어 principal 생성
+     * - 지금은 UserEntity 에 권한/계정 상태 컬럼이 없어서 권한은 비어있다.
+     *   -> 권한이 추가되면 여기서 엔티티 값으로 authorities 를 만든다.
+     */
+    private UserPrincipal load(String userId, long loadVersion) {
+        Long id = parseId(userId);
+        if (id == null) {
+            return null;
+        }
+        Optional<UserEntity> user = userRepository.findById(id);
+        return user.map(entity -> newPrincipal(entity.getId(), loadVersion)).orElse(null);
+    }
+
+    private static UserPrincipal newPrincipal(long id, long loadVersion) {
+        return new UserPrincipal(String.valueOf(id), AuthorityUtils.NO_AUTHORITIES, loadVersion);
+    }
+
+    private static Long parseId(String userId) {
+        try {
+            return Long.valueOf(userId);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // principal 이 null 이면 "없는 유저"로 저장, 조회하는 사이에 invalidate 되었으면 저장하지 않음
+    private UserPrincipal store(String userId, UserPrincipal principal, long now, long loadVersion) {
+        long ttl = (principal == null ? properties.getNegativeTtl() : properties.getTtl()).toMillis();
+        Entry loaded = new Entry(principal, now + ttl);
+        entries.put(userId, loaded);
+        if (stamps.get(stripe(userId)) != loadVersion) {
+            entries.remove(userId, loaded);
+        }
+        return principal;
+    }
+
+    private static int stripe(String userId) {
+        return (userId.hashCode() & 0x7fffffff) % STAMP_STRIPES;
+    }
+
+    // principal 이 null 이면 없는 유저
+    private record Entry(UserPrincipal principal, long expiresAt) {
+    }
+}
@@ -0,0 +1,144 @@
+package security.demo.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import security.demo.cache.SegmentedCache;
+import security.demo.config.jwt.JwtProperties;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * 이미 서명 검증이 끝난 토큰을 보관하는 캐시
+ * - 같은 토큰으로 반복 요청이 오면 HS512 서명 재계산, Base64 디코딩, claims 파싱을 건너뛴다.
+ * - 원본 토큰 문자열 대신 SHA-256 다이제스트를 키로 사용(메모리에 토큰 원문을 남기지 않기 위해)
+ * - 검증된 claims(jti, sub, exp 등)를 그대로 보관 -> 필터에서 폐기 여부(jti)도 바로 확인
+ * - 토큰의 exp 시각이 지나면 엔트리를 제거한다.
+ * - 최대 크기(jwt.verified-token-cache-size)는 SegmentedCache 로 지킨다(한동안 안 쓴 토큰만 버려짐).
+ */
+@Component
+public class VerifiedTokenCache {
+
+    @Autowired
+    private JwtProperties jwtProperties;
+
+    private final SegmentedCache<TokenDigest, Entry> entries = new SegmentedCache<>(
+            "Verified token", () -> jwtProperties.getVerifiedTokenCacheSize(), Entry::expiresAt);
+
+    // 조회 결과 카운터(hit / miss)
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public JwtClaims get(String token) {
+        return get(token, 0, token.length());
+    }
+
+    // 캐시에 검증된 토큰이 있으면 claims 리턴, 없거나 만료되었으면 null 리턴
+    // token의 [start, end) 구간만 사용(Authorization 헤더에서 토큰 문자열을 잘라내지 않음)
+    public JwtClaims get(CharSequence token, int start, int end) {
+        // exp가 지난 토큰은 캐시에서 제거되고 원래 검증 경로로 보냄
+        Entry entry = entries.get(TokenDigest.of(token, start, end), System.currentTimeMillis());
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.claims();
+    }
+
+    public void put(String token, JwtClaims claims) {
+        put(token, 0, token.length(), claims);
+    }
+
+    // 서명 검증이 끝난 토큰을 캐시에 저장
+    public void put(CharSequence token, int start, int end, JwtClaims claims) {
+        long now = System.currentTimeMillis();
+        if (claims.subject() == null || claims.expiresAtMillis() <= now) {
+            // 만료 시간이 없거나 이미 지난 토큰은 캐시하지 않는다.
+            return;
+        }
+
+        entries.put(TokenDigest.of(token, start, end), new Entry(claims, claims.expiresAtMillis()));
+    }
+
+    // 서명 키가 바뀌면 이전 키로 검증된 엔트리는 모두 무효
+    public void clear() {
+        entries.clear();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return entries.getEvictionCount();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private record Entry(JwtClaims claims, long expiresAt) {
+    }
+
+    // 토큰의 SHA-256 다이제스트(256bit)를 long 4개로 보관하는 키
+    private record TokenDigest(long a, long b, long c, long d) {
+        private static final ScratchPool<Hasher> HASHERS = new ScratchPool<>(Hasher::new, 256);
+
+        static TokenDigest of(CharSequence token, int start, int end) {
+            Hasher hasher = HASHERS.acquire();
+            try {
+                byte[] hash = hasher.digest(token, start, end);
+                return new TokenDigest(toLong(hash, 0), toLong(hash, 8), toLong(hash, 16), toLong(hash, 24));
+            } finally {
+                HASHERS.release(hasher);
+            }
+        }
+
+        private static long toLong(byte[] bytes, int offset) {
+            long value = 0;
+            for (int i = offset; i < offset + 8; i++) {
+                value = (value << 8) | (bytes[i] & 0xFF);
+            }
+            return value;
+        }
+    }
+
+    // 재사용하는 SHA-256 인스턴스와 버퍼 -> 토큰 문자(ASCII)를 버퍼로 옮겨 다이제스트 계산
+    private static final class Hasher {
+        private final MessageDigest sha256;
+        private final byte[] hash = new byte[32];
+        private byte[] buffer = new byte[512];
+
+        private Hasher() {
+            try {
+                sha256 = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private byte[] digest(CharSequence token, int start, int end) {
+            int length = end - start;
+            if (buffer.length < length) {
+                buffer = new byte[Math.max(length, buffer.length * 2)];
+            }
+            for (int i = 0; i < length; i++) {
+                buffer[i] = (byte) token.charAt(start + i);
+            }
+            sha256.update(buffer, 0, length);
+            try {
+                sha256.digest(hash, 0, hash.length);
+            } catch (DigestException e) {
+                throw new IllegalStateException(e);
+            }
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package security.demo.service;
+
+import security.demo.entity.TodoEntity;
+
+import java.util.List;
+
+/*
+ * 변경분 조회(GET /api/todo?since=) 결과
+ * - version: 조회 시점의 유저 목록 version(다음 since 로 사용)
+ * - todos: since 이후 생성/수정된 투두, reset 이면 전체 목록
+ * - deleted: since 이후 삭제된 투두 id(reset 이면 빈 목록)
+ */
+public record TodoDelta(long version, boolean reset, List<TodoEntity> todos, List<Long> deleted) {
+
+    public static TodoDelta changes(long version, List<TodoEntity> todos, List<Long> deleted) {
+        return new TodoDelta(version, false, todos, deleted);
+    }
+
+    public static TodoDelta reset(long version, List<TodoEntity> todos) {
+        return new TodoDelta(version, true, todos, List.of());
+    }
+}
@@ -1,14 +1,61 @@
 package security.demo.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import security.demo.cache.TodoListCache;
+import security.demo.cache.TodoVersionCache;
+import security.demo.config.sync.TodoSyncProperties;
+import security.demo.datasource.ReplicaRoutingDataSource;
+import security.demo.dto.TodoBatchResultDTO;
 import security.demo.dto.TodoDTO;
 import security.demo.entity.TodoEntity;
+import security.demo.entity.TodoSyncEntity;
+import security.demo.entity.TodoTombstoneEntity;
 import security.demo.repository.TodoRepository;
+import security.demo.repository.TodoSyncRepository;
+import security.demo.repository.TodoTombstoneRepository;
+import security.demo.stream.TodoChangeFeed;
+import security.demo.writebehind.TodoDoneChange;
+import security.demo.writebehind.TodoWriteBehind;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -16,15 +63,79 @@ public class TodoService {
     @Autowired
     private TodoRepository repository;
 
+    // 유저별 투두 목록 캐시 -> 조회는 캐시 먼저, 생성/수정/삭제는 캐시된 목록을 그 자리에서 수정
+    @Autowired
+    private TodoListCache todoListCache;
+
+    // 유저별 목록 version(ETag, ?since= 변경분 조회) -> 변경 트랜잭션마다 TodoSync 행의 version 을 1 올린다.
+    @Autowired
+    private TodoSyncRepository syncRepository;
+
+    @Autowired
+    private TodoTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private TodoVersionCache versionCache;
+
+    @Autowired
+    private TodoSyncProperties syncProperties;
+
+    // 변경 이벤트 발행(/api/todo/stream) -> 커밋과 캐시 수정이 끝난 뒤에 발행
+    @Autowired
+    private TodoChangeFeed todoChangeFeed;
+
+    // done 변경 write-behind(todo.write-behind.enabled=true 일 때만 빈이 있음, TodoWriteBehind 도 이 서비스를 쓰므로 지연 조회)
+    @Autowired
+    private ObjectProvider<TodoWriteBehind> writeBehind;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // 일괄 처리용(JDBC 배치 insert, 트랜잭션 범위 지정)
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // 목록 조회(캐시에 없을 때만)용 읽기 전용 트랜잭션 -> app.datasource.replica.urls 를 설정하면 복제본에서 읽는다.
+    private TransactionTemplate readOnlyTransactionTemplate;
+
+    // 복제본 라우팅(app.datasource.replica.urls 를 설정했을 때만 빈이 있음)
+    @Autowired
+    private ObjectProvider<ReplicaRoutingDataSource> replicaRouting;
+
+    private static final String INSERT_TODO_SQL = "insert into todo (user_id, title, done, version) values (?, ?, ?, ?)";
+    private static final String UPDATE_DONE_SQL = "update todo set done = ?, version = ? where id = ? and user_id = ?";
+
+    @PostConstruct
+    public void init() {
+        readOnlyTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
     // create
+    // [after] 저장과 목록 version 증가를 한 트랜잭션으로
     public List<TodoEntity> create(TodoEntity entity) {
         validate(entity);
 
-        repository.save(entity);
+        ensureSyncRow(entity.getUserId());
+        transactionTemplate.executeWithoutResult(status -> {
+            entity.setVersion(nextVersion(entity.getUserId()));
+            repository.save(entity);
+        });
 
         log.info("Entity Id: {} is saved", entity.getId()); // 로그 찍기
 
-        return repository.findByUserId(entity.getUserId());
+        // 저장 후 목록 전체를 다시 조회하지 않고 캐시된 목록에 추가
+        todoListCache.add(entity.getUserId(), entity);
+        versionCache.advance(entity.getUserId(), entity.getVersion());
+        todoChangeFeed.created(entity.getUserId(), entity);
+
+        return retrieve(entity.getUserId());
     }
 
 
@@ -32,9 +143,143 @@ public class TodoService {
     * read
     * 데이터베이스(엔티티)를 해당 유저 아이디로
     * 유저가 작성한 투두 전체를 조회
+    * [after] 캐시에 목록이 있으면 DB 조회 없이 리턴
+    * - write-behind 로 아직 DB 에 반영되지 않은 done 값은 덮어서 리턴
+    * [after] 캐시에 없으면 읽기 전용 트랜잭션으로 조회(복제본이 있으면 ReplicaRoutingDataSource.readFromReplica 로 복제본에서)
+    *  - 트랜잭션은 캐시에 없을 때만 시작 -> 캐시 적중 시 커넥션을 잡지 않는다.
+    *  - 이 유저의 마지막 변경이 아직 복제되지 않았으면 primary 에서 다시 조회
+    *    (방금 수정한 유저에게 이전 목록을 보여주고 그대로 캐시하지 않도록)
     */
     public List<TodoEntity> retrieve(String userId) {
-        return repository.findByUserId(userId);
+        List<TodoEntity> cached = todoListCache.get(userId);
+        if (cached != null) {
+            return overlayPending(userId, cached);
+        }
+
+        long loadStamp = todoListCache.loadStamp(userId);
+        Long known = replicaRouting.getIfAvailable() == null ? null : versionCache.get(userId);
+        List<TodoEntity> entities = ReplicaRoutingDataSource.readFromReplica(() -> readOnlyTransactionTemplate.execute(status -> {
+            if (known != null && syncRepository.findVersion(userId).orElse(0L) < known) {
+                return null;
+            }
+            return repository.findByUserId(userId);
+        }));
+        if (entities == null) {
+            entities = transactionTemplate.execute(status -> repository.findByUserId(userId));
+        }
+        todoListCache.put(userId, entities, loadStamp);
+
+        return overlayPending(userId, entities);
+    }
+
+    /*
+    * 유저 목록의 현재 version(ETag)
+    * - 캐시(TodoVersionCache)에 있으면 DB 조회 없음 -> 변경이 없으면 목록도 읽지 않고 304 응답
+    * - 아직 한번도 변경하지 않은 유저(TodoSync 행 없음)는 0
+    */
+    public long currentVersion(String userId) {
+        Long cached = versionCache.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long version = syncRepository.findVersion(userId).orElse(0L);
+        versionCache.advance(userId, version);
+        return version;
+    }
+
+    /*
+    * 아직 DB 에 반영되지 않은 done 변경의 순번(write-behind 를 끄면 항상 0)
+    * - ETag 에 붙여서 반영 전 변경도 조건부 조회(304)에 반영
+    */
+    public long pendingStamp(String userId) {
+        TodoWriteBehind wb = writeBehind.getIfAvailable();
+        return wb == null ? 0 : wb.stamp(userId);
+    }
+
+    /*
+    * 변경분 조회(?since=)
+    * - 읽기 전용 트랜잭션 하나에서 version, 변경된 투두, 삭제 기록을 읽는다(같은 시점의 값).
+    * - since 가 현재 version 보다 크거나(DB 초기화 등), 삭제 기록이 정리된 version 보다 오래되었으면 전체 목록
+    * [after] 복제본이 있으면 복제본에서 읽고, retrieve() 와 같이 복제가 늦은 경우 primary 에서 다시 읽는다.
+    *  - 이 인스턴스가 마지막으로 커밋한 version 보다 작거나, 클라이언트의 since 보다 작으면 복제 지연
+    *    (그대로 두면 방금 쓴 변경이 빠진 전체 목록(reset)을 받게 된다)
+    */
+    public TodoDelta retrieveSince(String userId, long since) {
+        boolean replicated = replicaRouting.getIfAvailable() != null;
+        Long known = replicated ? versionCache.get(userId) : null;
+        TodoDelta delta = ReplicaRoutingDataSource.readFromReplica(() -> readOnlyTransactionTemplate.execute(status ->
+                loadSince(userId, since, replicated, known)));
+        if (delta == null) {
+            delta = transactionTemplate.execute(status -> loadSince(userId, since, false, null));
+        }
+        return delta;
+    }
+
+    // checkLag: 복제본에서 읽은 경우 -> 복제가 늦었으면 null(primary 에서 다시 읽기)
+    private TodoDelta loadSince(String userId, long since, boolean checkLag, Long known) {
+        TodoSyncEntity sync = syncRepository.findById(userId).orElse(null);
+        long version = sync == null ? 0 : sync.getVersion();
+        if (checkLag && (since > version || (known != null && version < known))) {
+            return null;
+        }
+        versionCache.advance(userId, version);
+
+        // 반영 전 done 변경(write-behind)은 version 이 아직 그대로라 변경분에 나오지 않음 -> 전체 목록(대기 값 덮어서)
+        if (since > version || (sync != null && since < sync.getPurgedVersion()) || pendingStamp(userId) > 0) {
+            return TodoDelta.reset(version, overlayPending(userId, repository.findByUserId(userId)));
+        }
+        if (since == version) {
+            return TodoDelta.changes(version, List.of(), List.of());
+        }
+        return TodoDelta.changes(version,
+                overlayPending(userId, repository.findByUserIdAndVersionGreaterThan(userId, since)),
+                tombstoneRepository.findTodoIdsDeletedAfter(userId, since));
+    }
+
+    /*
+    * 페이지 조회(키셋 페이지네이션)
+    * - cursor: 이전 페이지의 마지막 투두 id(첫 페이지는 null)
+    * - 다음 페이지가 있는지 알기 위해 limit + 1 개까지 조회해서 리턴한다.
+    */
+    public List<TodoEntity> retrievePage(String userId, Long cursor, int limit) {
+        return overlayPending(userId, repository.findByUserIdAndIdGreaterThanOrderByIdAsc(
+                userId, cursor == null ? 0L : cursor, Limit.of(limit + 1)));
+    }
+
+    /*
+    * 내보내기(스트리밍)
+    * - 엔티티 리스트 -> DTO 리스트 -> ResponseDTO 로 목록 전체를 메모리에 여러 번 올리지 않고
+    *   DB에서 한 행씩 읽어서 바로 응답 스트림에 JSON 으로 쓴다.
+    * - 응답 형식은 ResponseDTO 와 같다: {"data":[{"id":1,"title":"...","done":false}, ...]}
+    * - 쓴 엔티티는 영속성 컨텍스트에서 분리(detach)해서 메모리에 쌓이지 않게 한다.
+    */
+    @Transactional(readOnly = true)
+    public void export(String userId, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(TodoDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        TodoWriteBehind wb = writeBehind.getIfAvailable();
+
+        try (Stream<TodoEntity> todos = repository.streamByUserIdOrderByIdAsc(userId);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("data");
+
+            Iterator<TodoEntity> iterator = todos.iterator();
+            while (iterator.hasNext()) {
+                TodoEntity todo = iterator.next();
+                TodoDTO dto = new TodoDTO(todo);
+                Boolean pendingDone = wb == null ? null : wb.pendingDone(userId, todo.getId());
+                if (pendingDone != null) {
+                    dto.setDone(pendingDone);
+                }
+                writer.writeValue(generator, dto);
+                entityManager.detach(todo);
+            }
+
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
     }
 
     /*
@@ -46,23 +291,112 @@ public class TodoService {
     *  5. 업데이트된 엔티티 하나를 DTO를 변환하여 반환
     *
     *  조회 -> 검증 -> 수정 -> 저장 -> 반환
+    *
+    * [after] 조회 + 검증 + 저장(select 1번, update 2번)을 update 문 하나로 처리
+    *  - update todo set title=?, done=?, version=? where id=? and user_id=?
+    *  - 수정된 행이 0개면 투두가 없거나 다른 유저의 투두(목록 version 증가도 롤백)
     * */
     public TodoDTO update(long id, String userId, TodoDTO dto) {
-        TodoEntity update = repository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Todo Not Found"));
+        discardPending(userId, List.of(id));
+        ensureSyncRow(userId);
+        long version = transactionTemplate.execute(status -> {
+            long next = nextVersion(userId);
+            int updated = repository.updateByIdAndUserId(id, userId, dto.getTitle(), dto.isDone(), next);
+
+            if (updated == 0) {
+                throw new RuntimeException("Todo Not Found or unauthorized access");
+            }
+            return next;
+        });
 
-        if (!update.getUserId().equals(userId)) {
-            throw new RuntimeException("Unauthorized access");
+       TodoEntity updateEntity = TodoEntity.builder()
+               .id(id)
+               .userId(userId)
+               .title(dto.getTitle())
+               .done(dto.isDone())
+               .version(version)
+               .build();
+       todoListCache.replace(userId, updateEntity);
+       versionCache.advance(userId, version);
+       todoChangeFeed.updated(userId, updateEntity);
+
+       return new TodoDTO(updateEntity);
+    }
+
+    /*
+    * done 만 변경(PATCH /api/todo/{id})
+    * - 소유자 확인은 2차 캐시(todo 영역)에서 -> 대부분 DB 조회 없음
+    * - write-behind 를 켜면 로그에 기록하고 바로 리턴, DB 반영은 TodoWriteBehind 가 모아서 flushDone 으로
+    * - 끄거나(기본) 대기 중인 변경이 가득 차면 update todo set done=?, version=? 바로 실행
+    */
+    public TodoDTO updateDone(long id, String userId, boolean done) {
+        TodoEntity found = repository.findById(id).orElse(null);
+        if (checkOwner(found, userId) != null) {
+            throw new RuntimeException("Todo Not Found or unauthorized access");
         }
+        TodoEntity updateEntity = TodoEntity.builder()
+                .id(id)
+                .userId(userId)
+                .title(found.getTitle())
+                .done(done)
+                .version(found.getVersion())
+                .build();
 
-        update.setTitle(dto.getTitle());
-        update.setDone(dto.isDone());
+        TodoWriteBehind wb = writeBehind.getIfAvailable();
+        if (wb != null && wb.submit(new TodoDoneChange(id, userId, done))) {
+            todoListCache.replace(userId, updateEntity);
+            todoChangeFeed.updated(userId, updateEntity);
+            return new TodoDTO(updateEntity);
+        }
 
-        repository.save(update);
+        discardPending(userId, List.of(id));
+        ensureSyncRow(userId);
+        long version = transactionTemplate.execute(status -> {
+            long next = nextVersion(userId);
+            if (repository.updateDoneByIdAndUserId(id, userId, done, next) == 0) {
+                throw new RuntimeException("Todo Not Found or unauthorized access");
+            }
+            return next;
+        });
 
-       TodoEntity updateEntity = repository.save(update);
+        updateEntity.setVersion(version);
+        todoListCache.replace(userId, updateEntity);
+        versionCache.advance(userId, version);
+        todoChangeFeed.updated(userId, updateEntity);
 
-       return new TodoDTO(updateEntity);
+        return new TodoDTO(updateEntity);
+    }
+
+    /*
+    * write-behind 로 모인 done 변경 반영(TodoWriteBehind.flush 에서 호출)
+    * - 유저별로 목록 version 을 한번씩 올리고, update 는 JDBC 배치 한번
+    * - 그 사이 삭제된 투두는 0행 update 로 끝난다.
+    * - JDBC 로 직접 바꿨으므로 2차 캐시의 해당 투두와 findByUserId 쿼리 캐시를 비운다.
+    */
+    public void flushDone(List<TodoDoneChange> changes) {
+        // 유저 순서를 고정 -> 동시에 다른 트랜잭션이 TodoSync 행을 잠가도 순서가 엇갈리지 않음
+        Map<String, Long> versions = new TreeMap<>();
+        for (TodoDoneChange change : changes) {
+            versions.put(change.userId(), 0L);
+        }
+        versions.keySet().forEach(this::ensureSyncRow);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            versions.replaceAll((userId, ignored) -> nextVersion(userId));
+            jdbcTemplate.batchUpdate(UPDATE_DONE_SQL, changes, changes.size(), (ps, change) -> {
+                ps.setBoolean(1, change.done());
+                ps.setLong(2, versions.get(change.userId()));
+                ps.setLong(3, change.todoId());
+                ps.setString(4, change.userId());
+            });
+        });
+
+        org.hibernate.Cache cache = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+        for (TodoDoneChange change : changes) {
+            cache.evictEntityData(TodoEntity.class, change.todoId());
+        }
+        cache.evictQueryRegion(TodoRepository.BY_USER_CACHE_REGION);
+        versions.forEach(versionCache::advance);
     }
 
     /*
@@ -71,21 +405,309 @@ public class TodoService {
     * 3. 검증이 성공하면  repository.delete()를 호출하여 해당 엔티티 삭제
     *
     * 조회 -> 검증 -> 삭제
+    *
+    * [after] delete from todo where id=? and user_id=? 한 문장으로 처리
+    *  - 삭제된 행이 0개면 투두가 없거나 다른 유저의 투두
+    *  - ?since= 조회에서 삭제를 알 수 있도록 삭제 기록(TodoTombstone)을 남긴다.
     * */
     public void delete(long id, String userId) {
-        TodoEntity delete = repository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Todo Not Found"));
+        discardPending(userId, List.of(id));
+        ensureSyncRow(userId);
+        long version = transactionTemplate.execute(status -> {
+            long next = nextVersion(userId);
+            int deleted = repository.deleteByIdAndUserId(id, userId);
+
+            if (deleted == 0) {
+                throw new RuntimeException("Todo Not Found or unauthorized access");
+            }
+            addTombstone(id, userId, next);
+            return next;
+        });
+
+        todoListCache.remove(userId, id);
+        versionCache.advance(userId, version);
+        todoChangeFeed.deleted(userId, id);
+    }
+
+
+    /*
+    * 일괄 생성
+    * - title 이 없는 항목은 INVALID 처리하고 나머지만 저장
+    * - TodoEntity 의 id 는 IDENTITY(auto_increment) 전략이라 Hibernate 가 insert 를 배치로 묶지 못한다.
+    *   그래서 JDBC 배치 insert 로 한번에 보내고, 생성된 id 는 generated keys 로 받는다.
+    *   (MySQL 에서는 DB_URL 에 rewriteBatchedStatements=true 를 주면 multi-row insert 한 문장으로 전송)
+    */
+    public List<TodoBatchResultDTO> createAll(String userId, List<TodoDTO> dtos) {
+        TodoBatchResultDTO[] results = new TodoBatchResultDTO[dtos.size()];
+        List<Integer> indexes = new ArrayList<>();
+        List<TodoEntity> entities = new ArrayList<>();
+
+        for (int i = 0; i < dtos.size(); i++) {
+            TodoDTO dto = dtos.get(i);
+            if (dto == null || dto.getTitle() == null) {
+                results[i] = TodoBatchResultDTO.failure(i, null, TodoBatchResultDTO.Status.INVALID, "title is required");
+                continue;
+            }
+            TodoEntity entity = TodoDTO.toEntity(dto);
+            entity.setId(null);
+            entity.setUserId(userId);
+            validate(entity);
+
+            indexes.add(i);
+            entities.add(entity);
+        }
+
+        if (!entities.isEmpty()) {
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            ensureSyncRow(userId);
+            long version = transactionTemplate.execute(status -> {
+                long next = nextVersion(userId);
+                jdbcTemplate.batchUpdate(
+                        con -> con.prepareStatement(INSERT_TODO_SQL, Statement.RETURN_GENERATED_KEYS),
+                        new BatchPreparedStatementSetter() {
+                            @Override
+                            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                                TodoEntity entity = entities.get(i);
+                                ps.setString(1, entity.getUserId());
+                                ps.setString(2, entity.getTitle());
+                                ps.setBoolean(3, entity.isDone());
+                                ps.setLong(4, next);
+                            }
+
+                            @Override
+                            public int getBatchSize() {
+                                return entities.size();
+                            }
+                        },
+                        keyHolder);
+                return next;
+            });
+
+            List<Map<String, Object>> keys = keyHolder.getKeyList();
+            for (int i = 0; i < entities.size(); i++) {
+                TodoEntity entity = entities.get(i);
+                entity.setId(((Number) keys.get(i).values().iterator().next()).longValue());
+                entity.setVersion(version);
+                todoListCache.add(userId, entity);
+                todoChangeFeed.created(userId, entity);
+                results[indexes.get(i)] = TodoBatchResultDTO.success(indexes.get(i), entity);
+            }
+            // JDBC 로 직접 넣었으므로 Hibernate 가 todo 테이블 변경을 모름 -> findByUserId 쿼리 캐시를 직접 비운다.
+            entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache()
+                    .evictQueryRegion(TodoRepository.BY_USER_CACHE_REGION);
+            versionCache.advance(userId, version);
+            log.info("{} entities are saved in batch", entities.size());
+        }
+
+        return Arrays.asList(results);
+    }
+
+    /*
+    * 일괄 수정
+    * 1. 요청된 id 전체를 IN 쿼리 한번으로 조회
+    * 2. 항목별로 존재 여부, 소유자 확인
+    * 3. 통과한 엔티티만 수정 -> 트랜잭션 커밋 시 update 문이 JDBC 배치로 묶여서 전송
+    *    (수정된 투두는 모두 같은 목록 version)
+    */
+    public List<TodoBatchResultDTO> updateAll(String userId, List<TodoDTO> dtos) {
+        TodoBatchResultDTO[] results = new TodoBatchResultDTO[dtos.size()];
+        List<TodoEntity> updated = new ArrayList<>();
+
+        discardPending(userId, dtos.stream()
+                .filter(dto -> dto != null && dto.getId() != null)
+                .map(TodoDTO::getId)
+                .toList());
+        ensureSyncRow(userId);
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, TodoEntity> found = findAllById(dtos.stream()
+                    .filter(dto -> dto != null && dto.getId() != null)
+                    .map(TodoDTO::getId)
+                    .toList());
+
+            for (int i = 0; i < dtos.size(); i++) {
+                TodoDTO dto = dtos.get(i);
+                if (dto == null || dto.getId() == null || dto.getTitle() == null) {
+                    results[i] = TodoBatchResultDTO.failure(i, dto == null ? null : dto.getId(),
+                            TodoBatchResultDTO.Status.INVALID, "id and title are required");
+                    continue;
+                }
+                TodoEntity entity = found.get(dto.getId());
+                TodoBatchResultDTO.Status check = checkOwner(entity, userId);
+                if (check != null) {
+                    results[i] = TodoBatchResultDTO.failure(i, dto.getId(), check, null);
+                    continue;
+                }
+
+                entity.setTitle(dto.getTitle());
+                entity.setDone(dto.isDone());
+                updated.add(entity);
+                results[i] = TodoBatchResultDTO.success(i, entity);
+            }
+
+            if (!updated.isEmpty()) {
+                long version = nextVersion(userId);
+                for (TodoEntity entity : updated) {
+                    entity.setVersion(version);
+                }
+            }
+        });
+
+        // 커밋이 끝난 뒤 캐시된 목록 수정
+        for (TodoEntity entity : updated) {
+            todoListCache.replace(userId, entity);
+            versionCache.advance(userId, entity.getVersion());
+            todoChangeFeed.updated(userId, entity);
+        }
+        return Arrays.asList(results);
+    }
+
+    /*
+    * 일괄 삭제
+    * 1. 요청된 id 전체를 IN 쿼리 한번으로 조회해서 항목별로 존재 여부, 소유자 확인
+    * 2. 통과한 id 만 delete ... where id in (...) 한 문장으로 삭제
+    */
+    public List<TodoBatchResultDTO> deleteAll(String userId, List<Long> ids) {
+        TodoBatchResultDTO[] results = new TodoBatchResultDTO[ids.size()];
+        Set<Long> deleted = new LinkedHashSet<>();
+        long[] version = new long[1];
+
+        discardPending(userId, ids.stream().filter(Objects::nonNull).toList());
+        ensureSyncRow(userId);
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, TodoEntity> found = findAllById(ids.stream().filter(Objects::nonNull).toList());
+
+            for (int i = 0; i < ids.size(); i++) {
+                Long id = ids.get(i);
+                if (id == null) {
+                    results[i] = TodoBatchResultDTO.failure(i, null, TodoBatchResultDTO.Status.INVALID, "id is required");
+                    continue;
+                }
+                TodoEntity entity = found.get(id);
+                TodoBatchResultDTO.Status check = checkOwner(entity, userId);
+                if (check != null) {
+                    results[i] = TodoBatchResultDTO.failure(i, id, check, null);
+                    continue;
+                }
+
+                deleted.add(id);
+                results[i] = TodoBatchResultDTO.success(i, entity);
+            }
+
+            if (!deleted.isEmpty()) {
+                version[0] = nextVersion(userId);
+                repository.deleteAllByIdInBatch(deleted);
+                for (Long id : deleted) {
+                    addTombstone(id, userId, version[0]);
+                }
+            }
+        });
+
+        if (!deleted.isEmpty()) {
+            versionCache.advance(userId, version[0]);
+        }
+        for (Long id : deleted) {
+            todoListCache.remove(userId, id);
+            todoChangeFeed.deleted(userId, id);
+        }
+        return Arrays.asList(results);
+    }
+
+    /*
+    * 보관 기간(todo.sync.tombstone-ttl)이 지난 삭제 기록 정리
+    * - 유저별로 정리된 가장 큰 version 을 purgedVersion 에 남긴다 -> 그보다 오래된 since 는 전체 목록으로 응답
+    */
+    @Scheduled(fixedDelayString = "PT1H", initialDelayString = "PT5M")
+    public void purgeTombstones() {
+        Instant before = Instant.now().minus(syncProperties.getTombstoneTtl());
+        int purged = transactionTemplate.execute(status -> {
+            syncRepository.markPurged(before);
+            return tombstoneRepository.deleteDeletedBefore(before);
+        });
+        if (purged > 0) {
+            log.info("{} todo tombstones are purged", purged);
+        }
+    }
+
+    /*
+    * 목록 version 1 증가 후 리턴(변경 트랜잭션 안에서 호출)
+    * - TodoSync 행을 update 하므로 같은 유저의 다른 변경 트랜잭션은 커밋까지 기다린다.
+    */
+    private long nextVersion(String userId) {
+        if (syncRepository.increment(userId) == 0) {
+            throw new RuntimeException("Todo sync state not found");
+        }
+        return syncRepository.findVersion(userId).orElseThrow();
+    }
+
+    /*
+    * TodoSync 행이 없으면 만든다(변경 트랜잭션 시작 전에 호출)
+    * - 트랜잭션 안에서 없는 행을 update 한 뒤 insert 하면 MySQL 의 gap lock 때문에 다른 요청과 교착될 수 있다.
+    * - version 이 1 이상으로 캐시되어 있으면 이미 행이 있는 유저
+    */
+    private void ensureSyncRow(String userId) {
+        Long cached = versionCache.get(userId);
+        if ((cached != null && cached > 0) || syncRepository.existsById(userId)) {
+            return;
+        }
+        try {
+            // save(merge)는 그 사이 만들어진 행을 version 0 으로 덮어쓸 수 있으므로 persist(insert)
+            transactionTemplate.executeWithoutResult(status ->
+                    entityManager.persist(TodoSyncEntity.builder().userId(userId).build()));
+        } catch (DataIntegrityViolationException e) {
+            // 같은 유저의 다른 요청이 먼저 만듦
+        }
+    }
 
-        validate(delete);
+    // 대기 중인 done 값 덮기(write-behind 를 끄면 그대로)
+    private List<TodoEntity> overlayPending(String userId, List<TodoEntity> todos) {
+        TodoWriteBehind wb = writeBehind.getIfAvailable();
+        return wb == null ? todos : wb.overlay(userId, todos);
+    }
 
-        if (!delete.getUserId().equals(userId)) {
-            throw new RuntimeException("Unauthorized access");
+    // 동기 경로(PUT, DELETE, 일괄 처리)로 바꾸기 전에 같은 투두의 대기 중인 done 변경 버리기
+    private void discardPending(String userId, List<Long> ids) {
+        TodoWriteBehind wb = writeBehind.getIfAvailable();
+        if (wb != null && !ids.isEmpty()) {
+            wb.discard(userId, ids);
         }
+    }
 
-        repository.delete(delete);
+    // 삭제 기록(id 를 직접 지정하므로 merge 의 select 없이 persist)
+    private void addTombstone(long todoId, String userId, long version) {
+        entityManager.persist(TodoTombstoneEntity.builder()
+                .todoId(todoId)
+                .userId(userId)
+                .version(version)
+                .deletedAt(Instant.now())
+                .build());
+    }
 
+    // 2차 캐시(todo 영역)에 있는 투두는 캐시에서, 나머지만 IN 쿼리 한번으로 조회(없는 id 는 null)
+    private Map<Long, TodoEntity> findAllById(List<Long> ids) {
+        Map<Long, TodoEntity> found = new HashMap<>();
+        if (!ids.isEmpty()) {
+            List<TodoEntity> entities = entityManager.unwrap(Session.class)
+                    .byMultipleIds(TodoEntity.class)
+                    .multiLoad(ids);
+            for (TodoEntity entity : entities) {
+                if (entity != null) {
+                    found.put(entity.getId(), entity);
+                }
+            }
+        }
+        return found;
     }
 
+    // 존재하지 않으면 NOT_FOUND, 다른 유저의 투두면 FORBIDDEN, 통과하면 null
+    private TodoBatchResultDTO.Status checkOwner(TodoEntity entity, String userId) {
+        if (entity == null) {
+            return TodoBatchResultDTO.Status.NOT_FOUND;
+        }
+        if (!entity.getUserId().equals(userId)) {
+            return TodoBatchResultDTO.Status.FORBIDDEN;
+        }
+        return null;
+    }
 
     private void validate(TodoEntity entity) {
         if (entity == null) {
@@ -2,10 +2,15 @@ package security.demo.service;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import security.demo.cache.EmailBloomFilter;
 import security.demo.entity.UserEntity;
 import security.demo.repository.UserRepository;
+import security.demo.security.PasswordHasher;
+import security.demo.security.UserPrincipalCache;
+
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
@@ -13,6 +18,14 @@ public class UserService {
     @Autowired
     private UserRepository repository;
 
+    // 가입된 이메일 Bloom filter -> 회원가입 시 중복 확인 쿼리 줄이기
+    @Autowired
+    private EmailBloomFilter emailBloomFilter;
+
+    // 유저 정보가 바뀌면 인증 필터의 principal 캐시도 제거
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
     public UserEntity create(UserEntity entity) {
         // 유효성 검사 1) userEntity 혹은 email이 null인 경우 에외 던짐
         if (entity == null || entity.getEmail() == null) {
@@ -20,13 +33,26 @@ public class UserService {
         }
 
         // 유효성 검사 2) 이메일이 이미 존재하는 경우 예외를 던짐(email 필드는 유니크 해야 하므로)
+        // [after] Bloom filter 에 없는 이메일이면 확실히 신규 이메일 -> existsByEmail 조회 생략
         String email = entity.getEmail();
-        if (repository.existsByEmail(email)) {
+        if (emailBloomFilter.mightContain(email) && repository.existsByEmail(email)) {
             log.warn("Email already exist {}", email);
             throw new RuntimeException("Email already exist");
         }
 
-        return repository.save(entity);
+        // 동시에 같은 이메일로 가입하거나 다른 서버에서 가입한 경우 -> email unique 제약조건 위반으로 처리
+        UserEntity saved;
+        try {
+            saved = repository.save(entity);
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Email already exist {}", email);
+            throw new RuntimeException("Email already exist");
+        }
+
+        emailBloomFilter.put(email);
+        // "없는 유저"로 캐시되어 있을 수 있으므로 제거
+        userPrincipalCache.invalidate(String.valueOf(saved.getId()));
+        return saved;
     }
     // 인증: 이메일과 비밀번호로 사용자 조회
 //    public UserEntity getByCredentials(final String email, final String password){
@@ -35,18 +61,24 @@ public class UserService {
 //    }
 
     // 패스워드 암호화 적용 후
-    public UserEntity getByCredentials(final String email, final String password, PasswordEncoder encoder) {
+    // [after] BCrypt 비교는 PasswordHasher 전용 스레드에서 실행 -> 요청 스레드를 막지 않는다.
+    // [after] 이메일 조회는 복제본으로 보내지 않는다(읽기 전용 트랜잭션 X)
+    //  -> 가입 직후 로그인 시 아직 복제되지 않은 유저를 못 찾아서 실패하고, 로그인 실패 횟수까지 늘어나는 문제
+    public CompletableFuture<UserEntity> getByCredentials(final String email, final String password, PasswordHasher hasher) {
         UserEntity originalUser = repository.findByEmail(email);
 
-        if (originalUser != null && encoder.matches(password, originalUser.getPassword())) {
-            /*
-             * password: 클라이언트가 줒아하는 현재 유저에 대한 비밀번호
-             * originalUser.getPassword(): DB에 저장된 정답 비밀번호
-             * 두개를 비교한다?
-             */
-            return originalUser; // 인증 성공 -> DB에 저장된 유저 리턴
+        if (originalUser == null) {
+            return CompletableFuture.completedFuture(null); // 인증 실패 → 해당 이메일 없음
         }
-        return null; // 인증 실패 → 해당 이메일 없거나 비밀번호 틀림
+
+        /*
+         * password: 클라이언트가 줒아하는 현재 유저에 대한 비밀번호
+         * originalUser.getPassword(): DB에 저장된 정답 비밀번호
+         * 두개를 비교한다?
+         */
+        return hasher.matches(password, originalUser.getPassword())
+                // 인증 성공 -> DB에 저장된 유저 리턴, 인증 실패 → 비밀번호 틀림
+                .thenApply(matches -> matches ? originalUser : null);
     }
 }
 /*
@@ -0,0 +1,413 @@
+package security.demo.service.reactive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import security.demo.cache.TodoListCache;
+import security.demo.cache.TodoVersionCache;
+import security.demo.dto.TodoBatchResultDTO;
+import security.demo.dto.TodoDTO;
+import security.demo.entity.TodoEntity;
+import security.demo.entity.reactive.TodoRow;
+import security.demo.entity.reactive.TodoSyncRow;
+import security.demo.entity.reactive.TodoTombstoneRow;
+import security.demo.repository.reactive.ReactiveTodoRepository;
+import security.demo.repository.reactive.ReactiveTodoSyncRepository;
+import security.demo.service.TodoDelta;
+import security.demo.stream.TodoChangeFeed;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/*
+ * TodoService 의 리액티브(R2DBC) 버전 -> reactive 프로필에서만 사용
+ * - 동작(검증, 소유자 확인, 유저별 목록 캐시 수정)은 TodoService 와 같다.
+ * - 저장소만 R2DBC 이고, 밖으로는 TodoEntity(값 객체로만 사용)를 넘겨서 캐시/DTO 변환을 그대로 쓴다.
+ * - 여러 문장을 묶어야 하는 일괄 처리는 TransactionalOperator 로 트랜잭션 지정
+ * - 변경마다 유저 목록 version(todo_sync)을 올리고 삭제 기록(todo_tombstone)을 남기는 것도 TodoService 와 같다.
+ */
+@Slf4j
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTodoService {
+    @Autowired
+    private ReactiveTodoRepository repository;
+
+    @Autowired
+    private TodoListCache todoListCache;
+
+    @Autowired
+    private ReactiveTodoSyncRepository syncRepository;
+
+    // id 를 직접 지정하는 행(todo_sync, todo_tombstone) insert 용
+    @Autowired
+    private R2dbcEntityTemplate entityTemplate;
+
+    @Autowired
+    private TodoVersionCache versionCache;
+
+    @Autowired
+    private TodoChangeFeed todoChangeFeed;
+
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
+    // 저장과 목록 version 증가를 한 트랜잭션으로
+    public Mono<List<TodoEntity>> create(TodoEntity entity) {
+        validate(entity);
+        String userId = entity.getUserId();
+
+        return ensureSyncRow(userId)
+                .then(nextVersion(userId)
+                        .flatMap(version -> {
+                            TodoRow row = TodoRow.from(entity);
+                            row.setVersion(version);
+                            return repository.save(row);
+                        })
+                        .as(transactionalOperator::transactional))
+                .flatMap(saved -> {
+                    log.info("Entity Id: {} is saved", saved.getId());
+                    TodoEntity created = saved.toEntity();
+                    todoListCache.add(userId, created);
+                    versionCache.advance(userId, created.getVersion());
+                    todoChangeFeed.created(userId, created);
+                    return retrieve(userId);
+                });
+    }
+
+    // 유저 목록의 현재 version(ETag), 캐시에 있으면 DB 조회 없음
+    public Mono<Long> currentVersion(String userId) {
+        Long cached = versionCache.get(userId);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return syncRepository.findVersion(userId)
+                .defaultIfEmpty(0L)
+                .doOnNext(version -> versionCache.advance(userId, version));
+    }
+
+    // 변경분 조회(?since=) -> 한 트랜잭션에서 version, 변경된 투두, 삭제 기록을 차례로 읽는다.
+    public Mono<TodoDelta> retrieveSince(String userId, long since) {
+        return syncRepository.findById(userId)
+                .defaultIfEmpty(TodoSyncRow.builder().userId(userId).build())
+                .flatMap(sync -> {
+                    long version = sync.getVersion();
+                    versionCache.advance(userId, version);
+
+                    if (since == version) {
+                        return Mono.just(TodoDelta.changes(version, List.of(), List.of()));
+                    }
+                    if (since > version || since < sync.getPurgedVersion()) {
+                        return repository.findByUserId(userId)
+                                .map(TodoRow::toEntity)
+                                .collectList()
+                                .map(todos -> TodoDelta.reset(version, todos));
+                    }
+                    return repository.findByUserIdAndVersionGreaterThan(userId, since)
+                            .map(TodoRow::toEntity)
+                            .collectList()
+                            .flatMap(todos -> syncRepository.findTodoIdsDeletedAfter(userId, since)
+                                    .collectList()
+                                    .map(deleted -> TodoDelta.changes(version, todos, deleted)));
+                })
+                .as(transactionalOperator::transactional);
+    }
+
+    // 캐시에 목록이 있으면 DB 조회 없이 리턴
+    public Mono<List<TodoEntity>> retrieve(String userId) {
+        List<TodoEntity> cached = todoListCache.get(userId);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+
+        long loadStamp = todoListCache.loadStamp(userId);
+        return repository.findByUserId(userId)
+                .map(TodoRow::toEntity)
+                .collectList()
+                .doOnNext(entities -> todoListCache.put(userId, entities, loadStamp));
+    }
+
+    // 키셋 페이지네이션 -> 다음 페이지 확인용으로 limit + 1 개까지 조회
+    public Mono<List<TodoEntity>> retrievePage(String userId, Long cursor, int limit) {
+        return repository.findByUserIdAndIdGreaterThanOrderByIdAsc(
+                        userId, cursor == null ? 0L : cursor, Limit.of(limit + 1))
+                .map(TodoRow::toEntity)
+                .collectList();
+    }
+
+    // 내보내기 -> 목록을 모으지 않고 한 행씩 흘려보낸다.
+    public Flux<TodoEntity> export(String userId) {
+        return repository.findByUserIdOrderByIdAsc(userId).map(TodoRow::toEntity);
+    }
+
+    // update todo set title=?, done=?, version=? where id=? and user_id=? 한 문장, 수정된 행이 0개면 없거나 다른 유저의 투두
+    public Mono<TodoDTO> update(long id, String userId, TodoDTO dto) {
+        return ensureSyncRow(userId)
+                .then(nextVersion(userId)
+                        .flatMap(version -> repository.updateByIdAndUserId(id, userId, dto.getTitle(), dto.isDone(), version)
+                                .flatMap(updated -> updated == 0
+                                        ? Mono.<Long>error(new RuntimeException("Todo Not Found or unauthorized access"))
+                                        : Mono.just(version)))
+                        .as(transactionalOperator::transactional))
+                .map(version -> {
+                    TodoEntity updateEntity = TodoEntity.builder()
+                            .id(id)
+                            .userId(userId)
+                            .title(dto.getTitle())
+                            .done(dto.isDone())
+                            .version(version)
+                            .build();
+                    todoListCache.replace(userId, updateEntity);
+                    versionCache.advance(userId, version);
+                    todoChangeFeed.updated(userId, updateEntity);
+
+                    return new TodoDTO(updateEntity);
+                });
+    }
+
+    // delete from todo where id=? and user_id=? 한 문장 + 삭제 기록
+    public Mono<Void> delete(long id, String userId) {
+        return ensureSyncRow(userId)
+                .then(nextVersion(userId)
+                        .flatMap(version -> repository.deleteByIdAndUserId(id, userId)
+                                .flatMap(deleted -> deleted == 0
+                                        ? Mono.<Long>error(new RuntimeException("Todo Not Found or unauthorized access"))
+                                        : addTombstone(id, userId, version).thenReturn(version)))
+                        .as(transactionalOperator::transactional))
+                .doOnNext(version -> {
+                    todoListCache.remove(userId, id);
+                    versionCache.advance(userId, version);
+                    todoChangeFeed.deleted(userId, id);
+                })
+                .then();
+    }
+
+    /*
+     * 일괄 생성
+     * - R2DBC 는 JDBC 배치(generated keys) 대신 insert 를 한 트랜잭션 안에서 차례로 보낸다.
+     */
+    public Mono<List<TodoBatchResultDTO>> createAll(String userId, List<TodoDTO> dtos) {
+        TodoBatchResultDTO[] results = new TodoBatchResultDTO[dtos.size()];
+        List<Integer> indexes = new ArrayList<>();
+        List<TodoRow> rows = new ArrayList<>();
+
+        for (int i = 0; i < dtos.size(); i++) {
+            TodoDTO dto = dtos.get(i);
+            if (dto == null || dto.getTitle() == null) {
+                results[i] = TodoBatchResultDTO.failure(i, null, TodoBatchResultDTO.Status.INVALID, "title is required");
+                continue;
+            }
+            TodoEntity entity = TodoDTO.toEntity(dto);
+            entity.setId(null);
+            entity.setUserId(userId);
+            validate(entity);
+
+            indexes.add(i);
+            rows.add(TodoRow.from(entity));
+        }
+
+        if (rows.isEmpty()) {
+            return Mono.just(Arrays.asList(results));
+        }
+
+        return ensureSyncRow(userId)
+                .then(nextVersion(userId)
+                        .flatMap(version -> {
+                            for (TodoRow row : rows) {
+                                row.setVersion(version);
+                            }
+                            return repository.saveAll(rows).collectList();
+                        })
+                        .as(transactionalOperator::transactional))
+                .map(saved -> {
+                    for (int i = 0; i < saved.size(); i++) {
+                        TodoEntity entity = saved.get(i).toEntity();
+                        todoListCache.add(userId, entity);
+                        versionCache.advance(userId, entity.getVersion());
+                        todoChangeFeed.created(userId, entity);
+                        results[indexes.get(i)] = TodoBatchResultDTO.success(indexes.get(i), entity);
+                    }
+                    log.info("{} entities are saved in batch", saved.size());
+                    return Arrays.asList(results);
+                });
+    }
+
+    // 일괄 수정: id 전체를 IN 쿼리 한번으로 조회 -> 항목별 확인 -> 통과한 것만 한 트랜잭션으로 update
+    public Mono<List<TodoBatchResultDTO>> updateAll(String userId, List<TodoDTO> dtos) {
+        TodoBatchResultDTO[] results = new TodoBatchResultDTO[dtos.size()];
+        List<Long> ids = dtos.stream()
+                .filter(dto -> dto != null && dto.getId() != null)
+                .map(TodoDTO::getId)
+                .toList();
+
+        return ensureSyncRow(userId)
+                .then(findAllById(ids))
+                .flatMap(found -> {
+                    List<TodoRow> updated = new ArrayList<>();
+                    for (int i = 0; i < dtos.size(); i++) {
+                        TodoDTO dto = dtos.get(i);
+                        if (dto == null || dto.getId() == null || dto.getTitle() == null) {
+                            results[i] = TodoBatchResultDTO.failure(i, dto == null ? null : dto.getId(),
+                                    TodoBatchResultDTO.Status.INVALID, "id and title are required");
+                            continue;
+                        }
+                        TodoRow row = found.get(dto.getId());
+                        TodoBatchResultDTO.Status check = checkOwner(row, userId);
+                        if (check != null) {
+                            results[i] = TodoBatchResultDTO.failure(i, dto.getId(), check, null);
+                            continue;
+                        }
+
+                        row.setTitle(dto.getTitle());
+                        row.setDone(dto.isDone());
+                        updated.add(row);
+                        results[i] = TodoBatchResultDTO.success(i, row.toEntity());
+                    }
+                    if (updated.isEmpty()) {
+                        return Mono.just(updated);
+                    }
+                    // 수정된 투두는 모두 같은 목록 version
+                    return nextVersion(userId).flatMap(version -> {
+                        for (TodoRow row : updated) {
+                            row.setVersion(version);
+                        }
+                        return repository.saveAll(updated).then(Mono.just(updated));
+                    });
+                })
+                .as(transactionalOperator::transactional)
+                .map(updated -> {
+                    // 커밋이 끝난 뒤 캐시된 목록 수정
+                    for (TodoRow row : updated) {
+                        TodoEntity entity = row.toEntity();
+                        todoListCache.replace(userId, entity);
+                        versionCache.advance(userId, entity.getVersion());
+                        todoChangeFeed.updated(userId, entity);
+                    }
+                    return Arrays.asList(results);
+                });
+    }
+
+    // 일괄 삭제: 항목별 확인 후 통과한 id 만 한 트랜잭션으로 삭제
+    public Mono<List<TodoBatchResultDTO>> deleteAll(String userId, List<Long> ids) {
+        TodoBatchResultDTO[] results = new TodoBatchResultDTO[ids.size()];
+        long[] version = new long[1];
+
+        return ensureSyncRow(userId)
+                .then(findAllById(ids.stream().filter(Objects::nonNull).toList()))
+                .flatMap(found -> {
+                    List<Long> deleted = new ArrayList<>();
+                    for (int i = 0; i < ids.size(); i++) {
+                        Long id = ids.get(i);
+                        if (id == null) {
+                            results[i] = TodoBatchResultDTO.failure(i, null, TodoBatchResultDTO.Status.INVALID, "id is required");
+                            continue;
+                        }
+                        TodoRow row = found.get(id);
+                        TodoBatchResultDTO.Status check = checkOwner(row, userId);
+                        if (check != null) {
+                            results[i] = TodoBatchResultDTO.failure(i, id, check, null);
+                            continue;
+                        }
+
+                        if (!deleted.contains(id)) {
+                            deleted.add(id);
+                        }
+                        results[i] = TodoBatchResultDTO.success(i, row.toEntity());
+                    }
+                    if (deleted.isEmpty()) {
+                        return Mono.just(deleted);
+                    }
+                    return nextVersion(userId).flatMap(next -> {
+                        version[0] = next;
+                        return repository.deleteAllById(deleted)
+                                .thenMany(Flux.fromIterable(deleted).concatMap(id -> addTombstone(id, userId, next)))
+                                .then(Mono.just(deleted));
+                    });
+                })
+                .as(transactionalOperator::transactional)
+                .map(deleted -> {
+                    if (!deleted.isEmpty()) {
+                        versionCache.advance(userId, version[0]);
+                    }
+                    for (Long id : deleted) {
+                        todoListCache.remove(userId, id);
+                        todoChangeFeed.deleted(userId, id);
+                    }
+                    return Arrays.asList(results);
+                });
+    }
+
+    // 목록 version 1 증가 후 리턴(변경 트랜잭션 안에서 호출, todo_sync 행 잠금은 커밋까지 유지)
+    private Mono<Long> nextVersion(String userId) {
+        return syncRepository.increment(userId)
+                .flatMap(updated -> updated == 0
+                        ? Mono.<Long>error(new RuntimeException("Todo sync state not found"))
+                        : syncRepository.findVersion(userId));
+    }
+
+    // todo_sync 행이 없으면 만든다(변경 트랜잭션 시작 전, 이유는 TodoService.ensureSyncRow 참고)
+    private Mono<Void> ensureSyncRow(String userId) {
+        Long cached = versionCache.get(userId);
+        if (cached != null && cached > 0) {
+            return Mono.empty();
+        }
+        return syncRepository.existsById(userId)
+                .flatMap(exists -> exists
+                        ? Mono.<TodoSyncRow>empty()
+                        : entityTemplate.insert(TodoSyncRow.builder().userId(userId).build())
+                                // 같은 유저의 다른 요청이 먼저 만듦
+                                .onErrorResume(DataIntegrityViolationException.class, e -> Mono.empty()))
+                .then();
+    }
+
+    private Mono<TodoTombstoneRow> addTombstone(long todoId, String userId, long version) {
+        return entityTemplate.insert(TodoTombstoneRow.builder()
+                .todoId(todoId)
+                .userId(userId)
+                .version(version)
+                .deletedAt(Instant.now())
+                .build());
+    }
+
+    private Mono<Map<Long, TodoRow>> findAllById(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Mono.just(new HashMap<>());
+        }
+        return repository.findAllById(ids).collectMap(TodoRow::getId);
+    }
+
+    // 존재하지 않으면 NOT_FOUND, 다른 유저의 투두면 FORBIDDEN, 통과하면 null
+    private TodoBatchResultDTO.Status checkOwner(TodoRow row, String userId) {
+        if (row == null) {
+            return TodoBatchResultDTO.Status.NOT_FOUND;
+        }
+        if (!row.getUserId().equals(userId)) {
+            return TodoBatchResultDTO.Status.FORBIDDEN;
+        }
+        return null;
+    }
+
+    private void validate(TodoEntity entity) {
+        if (entity == null) {
+            log.warn("Entity는 null을 사용할 수 없다.");
+            throw new RuntimeException("Entity는 null을 사용할 수 없다.");
+        }
+
+        if (entity.getUserId() == null) {
+            log.warn("Unknown user");
+            throw new RuntimeException("Unknown user");
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package security.demo.service.reactive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import security.demo.cache.EmailBloomFilter;
+import security.demo.entity.reactive.UserRow;
+import security.demo.repository.reactive.ReactiveUserRepository;
+import security.demo.security.PasswordHasher;
+import security.demo.security.UserPrincipalCache;
+
+/*
+ * UserService 의 리액티브(R2DBC) 버전 -> reactive 프로필에서만 사용
+ * - 중복 이메일 확인(Bloom filter -> existsByEmail -> unique 제약조건)은 UserService 와 같다.
+ * - BCrypt 비교는 기존처럼 PasswordHasher 전용 스레드에서 실행하고 결과만 Mono 로 받는다.
+ */
+@Slf4j
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserService {
+    @Autowired
+    private ReactiveUserRepository repository;
+
+    @Autowired
+    private EmailBloomFilter emailBloomFilter;
+
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    public Mono<UserRow> create(UserRow user) {
+        if (user == null || user.getEmail() == null) {
+            return Mono.error(new RuntimeException("Invalid arguments"));
+        }
+
+        String email = user.getEmail();
+        Mono<Boolean> exists = emailBloomFilter.mightContain(email) ? repository.existsByEmail(email) : Mono.just(false);
+        return exists
+                .flatMap(found -> {
+                    if (found) {
+                        log.warn("Email already exist {}", email);
+                        return Mono.error(new RuntimeException("Email already exist"));
+                    }
+                    return repository.save(user);
+                })
+                // 동시에 같은 이메일로 가입한 경우 -> email unique 제약조건 위반
+                .onErrorMap(DataIntegrityViolationException.class, e -> {
+                    log.warn("Email already exist {}", email);
+                    return new RuntimeException("Email already exist");
+                })
+                .doOnNext(saved -> {
+                    emailBloomFilter.put(email);
+                    userPrincipalCache.invalidate(String.valueOf(saved.getId()));
+                });
+    }
+
+    // 이메일, 비밀번호가 맞으면 유저, 아니면 빈 Mono
+    public Mono<UserRow> getByCredentials(String email, String password, PasswordHasher hasher) {
+        return repository.findByEmail(email)
+                .filterWhen(user -> Mono.fromFuture(() -> hasher.matches(password, user.getPassword())));
+    }
+}
@@ -0,0 +1,38 @@
+package security.demo.stream;
+
+import security.demo.dto.TodoDTO;
+import security.demo.dto.TodoEventDTO;
+
+import java.util.List;
+
+/*
+ * 유저 한 명의 투두 변경 이벤트
+ * - stream: 유저별 이벤트 기록(TodoChangeFeed 의 UserFeed)마다 다른 값 -> 서버 재시작/기록 삭제 후의 version 과 섞이지 않도록
+ * - SNAPSHOT: "이 version 시점의 전체 목록을 보내라"는 표시(목록은 보내는 쪽에서 조회)
+ * - HEARTBEAT: 연결 유지용(SSE 주석으로 전송, 이벤트 id 없음)
+ */
+public record TodoChange(String stream, long version, Type type, TodoDTO todo, Long id) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED, SNAPSHOT, HEARTBEAT;
+
+        // SSE event 이름
+        public String eventName() {
+            return name().toLowerCase();
+        }
+    }
+
+    // SSE id -> 클라이언트가 다시 연결할 때 Last-Event-ID 로 보낸다.
+    public String eventId() {
+        return stream + "." + version;
+    }
+
+    public TodoEventDTO payload(List<TodoDTO> snapshot) {
+        return TodoEventDTO.builder()
+                .version(version)
+                .todo(todo)
+                .id(id)
+                .data(snapshot)
+                .build();
+    }
+}
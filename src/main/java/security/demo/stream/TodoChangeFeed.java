@@ -0,0 +1,259 @@
+package security.demo.stream;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import security.demo.config.stream.TodoStreamProperties;
+import security.demo.dto.TodoDTO;
+import security.demo.entity.TodoEntity;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * 유저별 투두 변경 이벤트 발행/구독(/api/todo/stream)
+ * - TodoService 가 생성/수정/삭제를 커밋한 뒤 created/updated/deleted 를 발행한다.
+ * - 유저마다 변경 순번(version)과 최근 이벤트 기록(todo.stream.history-size)을 둔다.
+ *   -> 다시 연결한 클라이언트가 Last-Event-ID 를 보내면 그 다음 이벤트부터 이어서 보낸다.
+ *   -> 기록에 없는 id(너무 오래됨, 서버 재시작 등)거나 처음 연결이면 SNAPSHOT(전체 목록)부터 보낸다.
+ * - 구독자가 없는 유저는 기록을 만들지 않고(발행 비용은 맵 조회 한번), idle-ttl 이 지나면 기록도 지운다.
+ *
+ * 메모리 안에서만 동작 -> 서버 인스턴스가 여러 개면 같은 인스턴스에서 처리된 변경만 전달된다.
+ */
+@Slf4j
+@Component
+public class TodoChangeFeed {
+    // 서버 기동마다 다른 접두사 -> 재시작 전의 이벤트 id 로는 이어받지 않는다.
+    private static final String BOOT_ID = Long.toString(System.currentTimeMillis(), 36);
+
+    @Autowired
+    private TodoStreamProperties properties;
+
+    private final Map<String, UserFeed> feeds = new ConcurrentHashMap<>();
+    private final AtomicLong streamIds = new AtomicLong();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder overflows = new LongAdder();
+
+    /*
+     * 구독
+     * - lastEventId: 클라이언트가 마지막으로 받은 이벤트 id(Last-Event-ID), 처음 연결이면 null
+     * - 다 쓰면 close() -> 유저 구독자 목록에서 제거
+     */
+    public TodoChangeSubscription subscribe(String userId, String lastEventId) {
+        while (true) {
+            UserFeed feed = feeds.computeIfAbsent(userId, key -> new UserFeed(key, BOOT_ID + "-" + streamIds.incrementAndGet()));
+            TodoChangeSubscription subscription = feed.subscribe(lastEventId);
+            if (subscription != null) {
+                return subscription;
+            }
+            // 정리(purgeIdle)와 겹쳐서 지워진 기록 -> 새로 만든다.
+            feeds.remove(userId, feed);
+        }
+    }
+
+    public void created(String userId, TodoEntity todo) {
+        publish(userId, TodoChange.Type.CREATED, new TodoDTO(todo), null);
+    }
+
+    public void updated(String userId, TodoEntity todo) {
+        publish(userId, TodoChange.Type.UPDATED, new TodoDTO(todo), null);
+    }
+
+    public void deleted(String userId, long todoId) {
+        publish(userId, TodoChange.Type.DELETED, null, todoId);
+    }
+
+    // 프록시/로드밸런서가 유휴 연결을 끊지 않도록 보낼 이벤트가 없는 연결에 주석(:heartbeat) 전송
+    @Scheduled(fixedDelayString = "PT15S", initialDelayString = "PT15S")
+    public void heartbeat() {
+        for (UserFeed feed : feeds.values()) {
+            feed.heartbeat();
+        }
+    }
+
+    // 구독자가 없는 채로 idle-ttl 이 지난 유저의 기록 제거
+    @Scheduled(fixedDelayString = "PT1M", initialDelayString = "PT1M")
+    public void purgeIdle() {
+        long expiredBefore = System.currentTimeMillis() - properties.getIdleTtl().toMillis();
+        feeds.values().removeIf(feed -> feed.retireIfIdle(expiredBefore));
+    }
+
+    public long getPublishedCount() {
+        return published.sum();
+    }
+
+    public long getOverflowCount() {
+        return overflows.sum();
+    }
+
+    public int getSubscriberCount() {
+        int count = 0;
+        for (UserFeed feed : feeds.values()) {
+            count += feed.subscriberCount();
+        }
+        return count;
+    }
+
+    private void publish(String userId, TodoChange.Type type, TodoDTO todo, Long id) {
+        UserFeed feed = feeds.get(userId);
+        if (feed != null) {
+            feed.publish(type, todo, id);
+            published.increment();
+        }
+    }
+
+    /*
+     * 유저 한 명의 이벤트 기록과 구독자
+     * - version 부여, 기록 추가, 구독자 대기열에 넣기는 잠금 안에서(순서 보장)
+     * - 전송 신호(signal)는 잠금 밖에서
+     * - 잠금은 ReentrantLock(vt 프로필의 가상 스레드가 잠금 대기 중에 캐리어 스레드를 잡고 있지 않도록)
+     *   잠금 순서: UserFeed.lock -> TodoChangeSubscription.lock
+     */
+    private final class UserFeed {
+        private final String userId;
+        private final String stream;
+        private final ArrayDeque<TodoChange> history = new ArrayDeque<>();
+        private final List<TodoChangeSubscription> subscribers = new ArrayList<>();
+        private final ReentrantLock lock = new ReentrantLock();
+        private long version;
+        private long idleSince = System.currentTimeMillis();
+        private boolean retired;
+
+        UserFeed(String userId, String stream) {
+            this.userId = userId;
+            this.stream = stream;
+        }
+
+        // 이미 정리된 기록이면 null
+        TodoChangeSubscription subscribe(String lastEventId) {
+            TodoChangeSubscription subscription =
+                    new TodoChangeSubscription(userId, properties.getBufferSize(), this::unsubscribe);
+            lock.lock();
+            try {
+                if (retired) {
+                    return null;
+                }
+                long resumeFrom = resumeVersion(lastEventId);
+                if (resumeFrom < 0) {
+                    subscription.offer(new TodoChange(stream, version, TodoChange.Type.SNAPSHOT, null, null));
+                } else {
+                    for (TodoChange change : history) {
+                        if (change.version() > resumeFrom) {
+                            subscription.offer(change);
+                        }
+                    }
+                }
+                subscribers.add(subscription);
+            } finally {
+                lock.unlock();
+            }
+            return subscription;
+        }
+
+        void publish(TodoChange.Type type, TodoDTO todo, Long id) {
+            TodoChangeSubscription[] targets;
+            lock.lock();
+            try {
+                TodoChange change = new TodoChange(stream, ++version, type, todo, id);
+                history.addLast(change);
+                if (history.size() > properties.getHistorySize()) {
+                    history.removeFirst();
+                }
+                targets = subscribers.toArray(TodoChangeSubscription[]::new);
+                for (TodoChangeSubscription subscription : targets) {
+                    if (!subscription.offer(change)) {
+                        overflows.increment();
+                        log.debug("Todo stream buffer overflow, user: {} -> snapshot", userId);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            for (TodoChangeSubscription subscription : targets) {
+                subscription.signal();
+            }
+        }
+
+        void heartbeat() {
+            TodoChangeSubscription[] targets;
+            lock.lock();
+            try {
+                targets = subscribers.toArray(TodoChangeSubscription[]::new);
+            } finally {
+                lock.unlock();
+            }
+            TodoChange heartbeat = new TodoChange(stream, 0, TodoChange.Type.HEARTBEAT, null, null);
+            for (TodoChangeSubscription subscription : targets) {
+                if (subscription.offerHeartbeat(heartbeat)) {
+                    subscription.signal();
+                }
+            }
+        }
+
+        boolean retireIfIdle(long expiredBefore) {
+            lock.lock();
+            try {
+                if (subscribers.isEmpty() && idleSince < expiredBefore) {
+                    retired = true;
+                }
+                return retired;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int subscriberCount() {
+            lock.lock();
+            try {
+                return subscribers.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void unsubscribe(TodoChangeSubscription subscription) {
+            lock.lock();
+            try {
+                subscribers.remove(subscription);
+                if (subscribers.isEmpty()) {
+                    idleSince = System.currentTimeMillis();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /*
+         * Last-Event-ID("<stream>.<version>") -> 이어서 보낼 기준 version, 이어받을 수 없으면 -1
+         * - 다른 stream(재시작/기록 삭제 전)이거나, 기록에서 이미 밀려난 version 이면 snapshot 부터
+         */
+        private long resumeVersion(String lastEventId) {
+            if (lastEventId == null) {
+                return -1;
+            }
+            int dot = lastEventId.lastIndexOf('.');
+            if (dot < 0 || !lastEventId.regionMatches(0, stream, 0, dot) || dot != stream.length()) {
+                return -1;
+            }
+            long resumeFrom;
+            try {
+                resumeFrom = Long.parseLong(lastEventId.substring(dot + 1));
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+            long oldest = history.isEmpty() ? version + 1 : history.peekFirst().version();
+            if (resumeFrom > version || resumeFrom < oldest - 1) {
+                return -1;
+            }
+            return resumeFrom;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package security.demo.stream;
+
+import java.util.ArrayDeque;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * 연결(구독자) 하나의 이벤트 대기열
+ * - 크기 제한(todo.stream.buffer-size)이 있어서 느린 클라이언트 때문에 메모리가 계속 늘지 않는다.
+ *   -> 넘치면 쌓인 이벤트를 버리고 SNAPSHOT 하나로 바꾼다(클라이언트는 전체 목록으로 다시 동기화).
+ * - 발행(publish)하는 스레드는 대기열에 넣기만 하고, 전송은 drain() 을 호출한 쪽(SSE 전송 스레드/리액터)이 한다.
+ *   -> 동시에 여러 번 호출되어도 한 스레드만 전송(순서 유지)
+ */
+public final class TodoChangeSubscription implements AutoCloseable {
+    private final String userId;
+    private final int capacity;
+    private final Consumer<TodoChangeSubscription> onClose;
+
+    private final ArrayDeque<TodoChange> queue = new ArrayDeque<>(); // lock 으로 보호
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicInteger wip = new AtomicInteger();
+    private volatile Runnable listener;
+    private volatile boolean closed;
+
+    TodoChangeSubscription(String userId, int capacity, Consumer<TodoChangeSubscription> onClose) {
+        this.userId = userId;
+        this.capacity = capacity;
+        this.onClose = onClose;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    // 새 이벤트가 들어오면 호출(발행 스레드에서 실행되므로 바로 리턴해야 함)
+    public void onAvailable(Runnable listener) {
+        this.listener = listener;
+    }
+
+    /*
+     * 대기열의 이벤트를 차례로 emitter 에 넘긴다.
+     * - canEmit 이 false 면(리액티브 요청량 소진 등) 멈추고, 다음 drain() 호출에서 이어서 보낸다.
+     */
+    public void drain(BooleanSupplier canEmit, Consumer<TodoChange> emitter) {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            while (!closed && canEmit.getAsBoolean()) {
+                TodoChange change = poll();
+                if (change == null) {
+                    break;
+                }
+                emitter.accept(change);
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            onClose.accept(this);
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    // 대기열이 넘쳤으면 false(SNAPSHOT 으로 교체됨)
+    boolean offer(TodoChange change) {
+        lock.lock();
+        try {
+            if (queue.size() < capacity) {
+                queue.addLast(change);
+                return true;
+            }
+            queue.clear();
+            queue.addLast(new TodoChange(change.stream(), change.version(), TodoChange.Type.SNAPSHOT, null, null));
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 보낼 이벤트가 없을 때만 연결 유지용 이벤트 추가
+    boolean offerHeartbeat(TodoChange heartbeat) {
+        lock.lock();
+        try {
+            if (!queue.isEmpty()) {
+                return false;
+            }
+            queue.addLast(heartbeat);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void signal() {
+        Runnable current = listener;
+        if (current != null && !closed) {
+            current.run();
+        }
+    }
+
+    private TodoChange poll() {
+        lock.lock();
+        try {
+            return queue.pollFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
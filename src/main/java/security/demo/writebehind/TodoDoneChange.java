@@ -0,0 +1,5 @@
+package security.demo.writebehind;
+
+// 반영 대기 중인 done 변경 하나(같은 투두의 변경은 마지막 값만 남는다)
+public record TodoDoneChange(long todoId, String userId, boolean done) {
+}
@@ -0,0 +1,274 @@
+package security.demo.writebehind;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/*
+ * done 변경 append-only 로그(세그먼트 파일: <log-path>.1, <log-path>.2, ...)
+ * - 한 줄에 기록 하나
+ *   -> 변경: "<todoId>\t<userId>\t<0|1>\n"
+ *   -> 정리: "<todoId>\t<userId>\t-\n" (DB 에 반영했거나 버린 변경, 복구 시 그 투두의 대기 값을 지운다)
+ * - append(): 현재 세그먼트 끝에 쓰기만 하고, sync() 에서 fsync
+ *   -> 여러 요청이 동시에 sync() 를 기다리면 fsync 한번으로 같이 처리(group commit)
+ * - roll(): 현재 세그먼트를 닫고 새 세그먼트 시작, deleteBefore(): 더 이상 필요 없는 앞쪽 세그먼트 삭제
+ *   -> 반영이 끝날 때마다 파일 전체를 다시 쓰지 않는다(반영/버린 변경은 정리 기록 한 줄씩만 추가).
+ * - recover(): 기동 시 남은 세그먼트를 순서대로 읽어서 투두별 마지막 대기 값을 구한다.
+ *   -> 끝에 줄바꿈이 없는(쓰다 만) 마지막 줄은 무시
+ *
+ * 파일 쓰기와 fsync 는 ReentrantLock 안에서 -> 가상 스레드(vt 프로필)가 carrier 스레드를 고정(pinning)하지 않도록
+ */
+@Slf4j
+public class TodoDoneLog implements Closeable {
+    // 현재 세그먼트가 이 크기를 넘으면 TodoWriteBehind 가 다음 반영 때 새 세그먼트로 넘긴다.
+    static final long SEGMENT_BYTES = 4L * 1024 * 1024;
+
+    private static final StandardOpenOption[] APPEND_OPTIONS =
+            {StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND};
+
+    private final Path directory;
+    private final String prefix;
+
+    // 순서: syncLock -> lock
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private FileChannel channel; // lock 으로 보호
+    private long segment; // lock 으로 보호, 현재 세그먼트 번호
+    private long segmentBytes; // lock 으로 보호, 현재 세그먼트 크기
+    private final TreeSet<Long> sealed = new TreeSet<>(); // lock 으로 보호, 닫힌 세그먼트 번호
+    private long written; // lock 으로 보호, 지금까지 쓴 기록 수
+    private long synced; // syncLock 으로 보호, fsync 가 끝난 기록 수
+
+    public TodoDoneLog(Path path) throws IOException {
+        Path absolute = path.toAbsolutePath();
+        this.directory = absolute.getParent();
+        this.prefix = absolute.getFileName() + ".";
+        Files.createDirectories(directory);
+    }
+
+    /*
+     * 기동 시 한번 호출
+     * 1. 남은 세그먼트를 번호 순서대로 읽어서 투두별 마지막 대기 값 계산
+     * 2. 대기 값만 새 세그먼트에 써서 fsync 한 뒤 이전 세그먼트 삭제
+     */
+    public List<TodoDoneChange> recover() throws IOException {
+        List<Long> segments = listSegments();
+        Map<Long, TodoDoneChange> changes = new LinkedHashMap<>();
+        for (long id : segments) {
+            replay(segmentPath(id), changes);
+        }
+
+        lock.lock();
+        try {
+            segment = segments.isEmpty() ? 1 : segments.get(segments.size() - 1) + 1;
+            channel = FileChannel.open(segmentPath(segment), APPEND_OPTIONS);
+            for (TodoDoneChange change : changes.values()) {
+                segmentBytes += write(channel, line(change.todoId(), change.userId(), change.done() ? "1" : "0"));
+            }
+            channel.force(false);
+        } finally {
+            lock.unlock();
+        }
+        for (long id : segments) {
+            Files.deleteIfExists(segmentPath(id));
+        }
+        return new ArrayList<>(changes.values());
+    }
+
+    // 변경 기록, 리턴값은 sync() 에 넘길 순번
+    public long append(TodoDoneChange change) throws IOException {
+        return append(line(change.todoId(), change.userId(), change.done() ? "1" : "0"));
+    }
+
+    // 정리 기록(DB 에 반영했거나 버린 변경), 리턴값은 sync() 에 넘길 순번
+    public long appendClear(TodoDoneChange change) throws IOException {
+        return append(line(change.todoId(), change.userId(), "-"));
+    }
+
+    // seq 까지의 기록을 디스크에 반영(이미 다른 요청의 fsync 로 반영되었으면 바로 리턴)
+    public void sync(long seq) throws IOException {
+        syncLock.lock();
+        try {
+            if (synced >= seq) {
+                return;
+            }
+            long target;
+            FileChannel current;
+            lock.lock();
+            try {
+                target = written;
+                current = channel;
+            } finally {
+                lock.unlock();
+            }
+            // roll() 도 syncLock 을 잡으므로 그 사이 채널이 닫히지 않는다.
+            current.force(false);
+            synced = target;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    // 현재 세그먼트 번호(새 기록이 들어가는 세그먼트)
+    public long currentSegment() {
+        lock.lock();
+        try {
+            return segment;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isSegmentFull() {
+        lock.lock();
+        try {
+            return segmentBytes >= SEGMENT_BYTES;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 현재 세그먼트를 fsync 후 닫고 새 세그먼트 시작(비어 있으면 그대로)
+    public void roll() throws IOException {
+        syncLock.lock();
+        try {
+            lock.lock();
+            try {
+                if (segmentBytes == 0) {
+                    return;
+                }
+                channel.force(false);
+                channel.close();
+                sealed.add(segment);
+                segment++;
+                segmentBytes = 0;
+                channel = FileChannel.open(segmentPath(segment), APPEND_OPTIONS);
+                synced = written;
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    // segmentId 보다 앞의 닫힌 세그먼트 삭제(그 안의 변경이 모두 반영/병합/버려진 뒤에 호출)
+    public void deleteBefore(long segmentId) {
+        List<Long> deletable;
+        lock.lock();
+        try {
+            deletable = new ArrayList<>(sealed.headSet(segmentId));
+            sealed.removeAll(deletable);
+        } finally {
+            lock.unlock();
+        }
+        for (long id : deletable) {
+            try {
+                Files.deleteIfExists(segmentPath(id));
+            } catch (IOException e) {
+                log.warn("Could not delete todo write-behind log segment {}", segmentPath(id), e);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long append(String line) throws IOException {
+        lock.lock();
+        try {
+            segmentBytes += write(channel, line);
+            return ++written;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Path segmentPath(long id) {
+        return directory.resolve(prefix + id);
+    }
+
+    private List<Long> listSegments() throws IOException {
+        List<Long> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix))
+                    .map(name -> name.substring(prefix.length()))
+                    .filter(suffix -> !suffix.isEmpty() && suffix.chars().allMatch(Character::isDigit))
+                    .forEach(suffix -> segments.add(Long.parseLong(suffix)));
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    private void replay(Path file, Map<Long, TodoDoneChange> changes) throws IOException {
+        String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        int start = 0;
+        int end;
+        while ((end = content.indexOf('\n', start)) >= 0) {
+            apply(file, content.substring(start, end), changes);
+            start = end + 1;
+        }
+        if (start < content.length()) {
+            log.warn("Skipping incomplete last line of todo write-behind log {}", file);
+        }
+    }
+
+    private void apply(Path file, String line, Map<Long, TodoDoneChange> changes) {
+        String[] parts = line.split("\t");
+        if (parts.length != 3 || !(parts[2].equals("0") || parts[2].equals("1") || parts[2].equals("-"))) {
+            log.warn("Skipping malformed todo write-behind log line in {}: {}", file, line);
+            return;
+        }
+        long todoId;
+        try {
+            todoId = Long.parseLong(parts[0]);
+        } catch (NumberFormatException e) {
+            log.warn("Skipping malformed todo write-behind log line in {}: {}", file, line);
+            return;
+        }
+
+        // 같은 투두는 마지막 기록만 의미가 있다(파일에 쓴 순서 유지).
+        changes.remove(todoId);
+        if (!parts[2].equals("-")) {
+            changes.put(todoId, new TodoDoneChange(todoId, parts[1], parts[2].equals("1")));
+        }
+    }
+
+    private static String line(long todoId, String userId, String value) {
+        return todoId + "\t" + userId + "\t" + value + "\n";
+    }
+
+    private static int write(FileChannel target, String line) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+        int length = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+        return length;
+    }
+}
@@ -0,0 +1,335 @@
+package security.demo.writebehind;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import security.demo.config.writebehind.TodoWriteBehindProperties;
+import security.demo.entity.TodoEntity;
+import security.demo.service.TodoService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * 투두 done 변경 write-behind(todo.write-behind.enabled=true 일 때만)
+ * 1. 요청(PATCH /api/todo/{id}): 로그(TodoDoneLog)에 기록 + fsync 후 바로 응답, 변경은 투두별로 마지막 값만 보관(병합)
+ *    -> 1초 안에 같은 투두를 여러 번 바꿔도 DB 에는 마지막 값 한번만 쓴다.
+ * 2. flush-interval 마다 모인 변경을 JDBC 배치 update 한번으로 반영(TodoService.flushDone)
+ *    -> 반영된 변경은 로그에 정리 기록을 한 줄씩 추가하고, 대기 중인 변경이 없는 앞쪽 세그먼트는 삭제
+ * 3. 재시작 시 로그에 남은 변경을 다시 읽어서 반영
+ * 4. 반영 전 조회는 TodoService 가 overlay() 로 대기 중인 값을 덮어서 리턴(read-your-writes)
+ *
+ * 같은 투두를 동기 경로(PUT, DELETE, 일괄 처리)로 바꿀 때는 discard() 로 대기 중인 변경을 먼저 버린다.
+ * -> 나중에 반영되는 오래된 done 값이 새 값을 덮어쓰지 않도록
+ *
+ * 잠금은 synchronized 대신 ReentrantLock -> 가상 스레드(vt 프로필)가 로그 쓰기/fsync 중 carrier 스레드를 고정하지 않도록
+ * 순서: flushLock -> lock -> TodoDoneLog 의 잠금
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "todo.write-behind.enabled", havingValue = "true")
+public class TodoWriteBehind {
+    @Autowired
+    private TodoWriteBehindProperties properties;
+
+    @Autowired
+    private TodoService todoService;
+
+    private TodoDoneLog doneLog;
+
+    // 유저 아이디 -> (투두 id -> 대기 중인 변경), 수정은 lock 안에서(로그 기록과 같은 순서)
+    private final Map<String, Map<Long, Pending>> pending = new ConcurrentHashMap<>();
+    // 유저 아이디 -> 마지막 변경 순번(ETag 에 붙여서 반영 전 변경도 조건부 조회에 반영)
+    private final Map<String, Long> stamps = new ConcurrentHashMap<>();
+    // 세그먼트 번호 -> 그 세그먼트에 기록된 대기 중인 변경 수(lock 으로 보호), 0 이 되면 삭제 가능
+    private final TreeMap<Long, Integer> liveBySegment = new TreeMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    // 재시작 전후로 순번이 겹치지 않도록 기동 시각에서 시작
+    private long stamp = System.currentTimeMillis() * 1000;
+
+    // 접수/병합/제거와 로그 기록 순서를 맞추는 잠금
+    private final ReentrantLock lock = new ReentrantLock();
+    // flush 와 discard 가 겹치지 않도록(반영 중인 변경을 버리려는 요청은 반영이 끝날 때까지 기다림)
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder flushed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    // 대기 중인 변경 + 기록된 세그먼트
+    private record Pending(TodoDoneChange change, long segment) {
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        doneLog = new TodoDoneLog(Path.of(properties.getLogPath()));
+
+        Collection<TodoDoneChange> recovered = doneLog.recover();
+        lock.lock();
+        try {
+            for (TodoDoneChange change : recovered) {
+                put(change, doneLog.currentSegment());
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (!recovered.isEmpty()) {
+            log.info("{} pending todo done changes recovered from {}", recovered.size(), properties.getLogPath());
+        }
+    }
+
+    /*
+     * done 변경 접수(소유자 확인은 호출한 쪽에서)
+     * - 로그에 기록되고 fsync 까지 끝나면 true
+     * - 대기 중인 변경이 max-pending 이상이면 false -> 호출한 쪽에서 바로 DB 에 쓴다.
+     */
+    public boolean submit(TodoDoneChange change) {
+        if (pendingCount.get() >= properties.getMaxPending()) {
+            rejected.increment();
+            return false;
+        }
+
+        long seq;
+        try {
+            lock.lock();
+            try {
+                seq = doneLog.append(change);
+                put(change, doneLog.currentSegment());
+            } finally {
+                lock.unlock();
+            }
+            if (properties.isFsync()) {
+                doneLog.sync(seq);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write todo write-behind log", e);
+        }
+        accepted.increment();
+        return true;
+    }
+
+    // 대기 중인 done 값을 덮은 목록(대기 중인 변경이 없으면 그대로 리턴)
+    public List<TodoEntity> overlay(String userId, List<TodoEntity> todos) {
+        Map<Long, Pending> changes = pending.get(userId);
+        if (changes == null || changes.isEmpty()) {
+            return todos;
+        }
+
+        List<TodoEntity> overlaid = new ArrayList<>(todos.size());
+        for (TodoEntity todo : todos) {
+            Pending entry = changes.get(todo.getId());
+            if (entry == null || entry.change().done() == todo.isDone()) {
+                overlaid.add(todo);
+            } else {
+                overlaid.add(TodoEntity.builder()
+                        .id(todo.getId())
+                        .userId(todo.getUserId())
+                        .title(todo.getTitle())
+                        .done(entry.change().done())
+                        .version(todo.getVersion())
+                        .build());
+            }
+        }
+        return overlaid;
+    }
+
+    // 대기 중인 done 값, 없으면 null
+    public Boolean pendingDone(String userId, long todoId) {
+        Map<Long, Pending> changes = pending.get(userId);
+        Pending entry = changes == null ? null : changes.get(todoId);
+        return entry == null ? null : entry.change().done();
+    }
+
+    // 유저의 마지막 변경 순번, 대기 중인 변경이 없으면 0
+    public long stamp(String userId) {
+        return stamps.getOrDefault(userId, 0L);
+    }
+
+    // 동기 경로로 바꾸기 전에 대기 중인 변경 버리기(반영 중이면 끝날 때까지 기다림)
+    // - 정리 기록을 fsync 한 뒤 리턴 -> 재시작해도 버린 값이 다시 반영되지 않는다.
+    public void discard(String userId, Collection<Long> todoIds) {
+        Map<Long, Pending> changes = pending.get(userId);
+        if (changes == null || todoIds.stream().noneMatch(changes::containsKey)) {
+            return;
+        }
+
+        flushLock.lock();
+        try {
+            long seq = 0;
+            lock.lock();
+            try {
+                Map<Long, Pending> current = pending.get(userId);
+                for (Long todoId : todoIds) {
+                    Pending entry = current == null ? null : current.get(todoId);
+                    if (entry != null && remove(entry)) {
+                        seq = doneLog.appendClear(entry.change());
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (seq > 0) {
+                doneLog.sync(seq);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write todo write-behind log", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /*
+     * 모인 변경을 DB 에 반영
+     * - 실패하면(DB 장애 등) 변경은 그대로 남고 다음 주기에 다시 시도
+     * - 반영하는 사이 같은 투두가 다시 바뀌었으면 새 변경은 남겨둔다.
+     * - 반영한 변경은 정리 기록을 추가(fsync)하고, 대기 중인 변경이 없는 앞쪽 세그먼트를 삭제
+     */
+    @Scheduled(fixedDelayString = "${todo.write-behind.flush-interval:PT0.2S}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<Pending> batch = new ArrayList<>();
+            for (Map<Long, Pending> changes : pending.values()) {
+                for (Pending entry : changes.values()) {
+                    if (batch.size() >= properties.getBatchSize()) {
+                        break;
+                    }
+                    batch.add(entry);
+                }
+            }
+            if (batch.isEmpty()) {
+                compact();
+                return;
+            }
+
+            try {
+                todoService.flushDone(batch.stream().map(Pending::change).toList());
+            } catch (RuntimeException e) {
+                log.warn("Todo write-behind flush failed, {} changes will be retried", batch.size(), e);
+                return;
+            }
+
+            long seq = 0;
+            lock.lock();
+            try {
+                for (Pending entry : batch) {
+                    if (remove(entry)) {
+                        seq = doneLog.appendClear(entry.change());
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (seq > 0) {
+                doneLog.sync(seq);
+            }
+            flushed.add(batch.size());
+            compact();
+        } catch (IOException e) {
+            // 정리 기록이 없으면 재시작 시 이미 반영된 값이 한번 더 반영될 뿐(같은 값)
+            log.warn("Could not write todo write-behind log", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // 종료 시 남은 변경 반영(실패하면 로그에 남아서 다음 기동 때 반영)
+    @PreDestroy
+    public void shutdown() throws IOException {
+        int before;
+        do {
+            before = pendingCount.get();
+            flush();
+        } while (pendingCount.get() > 0 && pendingCount.get() < before);
+        doneLog.close();
+    }
+
+    public int getPendingCount() {
+        return pendingCount.get();
+    }
+
+    public long getAcceptedCount() {
+        return accepted.sum();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    public long getFlushedCount() {
+        return flushed.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    // lock 안에서 호출
+    private void put(TodoDoneChange change, long segment) {
+        Pending previous = pending.computeIfAbsent(change.userId(), key -> new ConcurrentHashMap<>())
+                .put(change.todoId(), new Pending(change, segment));
+        if (previous == null) {
+            pendingCount.incrementAndGet();
+        } else {
+            coalesced.increment();
+            release(previous.segment());
+        }
+        liveBySegment.merge(segment, 1, Integer::sum);
+        stamps.put(change.userId(), ++stamp);
+    }
+
+    // lock 안에서 호출, 같은 변경이 아직 대기 중일 때만 제거
+    private boolean remove(Pending entry) {
+        Map<Long, Pending> changes = pending.get(entry.change().userId());
+        if (changes == null || !changes.remove(entry.change().todoId(), entry)) {
+            return false;
+        }
+        pendingCount.decrementAndGet();
+        release(entry.segment());
+        if (changes.isEmpty()) {
+            pending.remove(entry.change().userId());
+            stamps.remove(entry.change().userId());
+        }
+        return true;
+    }
+
+    // lock 안에서 호출
+    private void release(long segment) {
+        liveBySegment.computeIfPresent(segment, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    /*
+     * 로그 정리(flushLock 안에서 호출)
+     * - 현재 세그먼트가 가득 찼거나, 대기 중인 변경이 하나도 없으면 새 세그먼트로 넘긴다.
+     * - 대기 중인 변경이 남아 있는 가장 오래된 세그먼트 앞쪽은 모두 삭제(앞에서부터 차례로만 삭제
+     *   -> 남은 세그먼트를 순서대로 읽으면 항상 지금의 대기 상태가 된다)
+     */
+    private void compact() throws IOException {
+        long oldestLive;
+        lock.lock();
+        try {
+            if (liveBySegment.isEmpty() || doneLog.isSegmentFull()) {
+                doneLog.roll();
+            }
+            oldestLive = liveBySegment.isEmpty() ? doneLog.currentSegment() : liveBySegment.firstKey();
+        } finally {
+            lock.unlock();
+        }
+        doneLog.deleteBefore(oldestLive);
+    }
+}
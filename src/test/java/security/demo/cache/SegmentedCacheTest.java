@@ -0,0 +1,88 @@
+package security.demo.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * 세그먼트 두 개로 크기를 지키는 캐시 테스트
+ * - 최대 크기를 넘지 않고, 교체 때는 한동안 조회되지 않은 값만 버린다.
+ * - 만료된 값은 조회할 때 제거
+ */
+class SegmentedCacheTest {
+    private static final long NOW = 1_000;
+
+    private final SegmentedCache<String, Entry> cache = new SegmentedCache<>("Test", () -> 4, Entry::expiresAt);
+
+    @Test
+    void staysWithinMaxSize() {
+        for (int i = 0; i < 100; i++) {
+            cache.put("user-" + i, new Entry(i, NOW + 100));
+            assertThat(cache.size()).isLessThanOrEqualTo(4);
+        }
+
+        assertThat(cache.get("user-99", NOW)).isEqualTo(new Entry(99, NOW + 100));
+        assertThat(cache.get("user-0", NOW)).isNull();
+        assertThat(cache.getEvictionCount()).isEqualTo(100 - cache.size());
+    }
+
+    @Test
+    void recentlyReadValuesSurviveRotation() {
+        cache.put("a", new Entry(1, NOW + 100));
+        cache.put("b", new Entry(2, NOW + 100));
+        // a, b -> previous
+
+        // a 는 조회되어 current 로 옮겨짐, b 는 다음 교체 때 버려짐
+        assertThat(cache.get("a", NOW)).isNotNull();
+        cache.put("c", new Entry(3, NOW + 100));
+
+        assertThat(cache.get("a", NOW)).isNotNull();
+        assertThat(cache.get("b", NOW)).isNull();
+        assertThat(cache.get("c", NOW)).isNotNull();
+    }
+
+    @Test
+    void expiredValuesAreRemovedOnRead() {
+        cache.put("a", new Entry(1, NOW + 100));
+
+        assertThat(cache.get("a", NOW + 100)).isNull();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void updatesSeeValuesInEitherSegment() {
+        cache.put("a", new Entry(1, NOW + 100));
+        cache.put("b", new Entry(2, NOW + 100));
+
+        // a 는 previous 에 있다.
+        cache.merge("a", new Entry(5, NOW + 200), SegmentedCacheTest::max);
+        cache.merge("a", new Entry(3, NOW + 300), SegmentedCacheTest::max);
+        assertThat(cache.get("a", NOW)).isEqualTo(new Entry(5, NOW + 300));
+
+        cache.computeIfPresent("b", (key, entry) -> new Entry(entry.value() + 1, entry.expiresAt()));
+        cache.computeIfPresent("x", (key, entry) -> new Entry(0, NOW + 100));
+        assertThat(cache.get("b", NOW)).isEqualTo(new Entry(3, NOW + 100));
+        assertThat(cache.get("x", NOW)).isNull();
+    }
+
+    @Test
+    void removeClearsBothSegments() {
+        Entry a = new Entry(1, NOW + 100);
+        cache.put("a", a);
+        cache.put("b", new Entry(2, NOW + 100));
+
+        assertThat(cache.remove("a", new Entry(9, NOW + 100))).isFalse();
+        assertThat(cache.remove("a", a)).isTrue();
+        assertThat(cache.remove("b")).isTrue();
+        assertThat(cache.remove("b")).isFalse();
+        assertThat(cache.size()).isZero();
+    }
+
+    private static Entry max(Entry current, Entry updated) {
+        return new Entry(Math.max(current.value(), updated.value()), updated.expiresAt());
+    }
+
+    private record Entry(long value, long expiresAt) {
+    }
+}
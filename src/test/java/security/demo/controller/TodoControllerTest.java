@@ -0,0 +1,164 @@
+package security.demo.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import security.demo.entity.TodoEntity;
+import security.demo.security.UserPrincipal;
+import security.demo.service.TodoDelta;
+import security.demo.service.TodoService;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/*
+ * 투두 목록 조건부 조회(ETag/If-None-Match)와 변경분 조회(?since=) 응답 테스트
+ * - 서비스는 mock, 인증은 SecurityContext 에 principal 을 직접 넣는다.
+ */
+class TodoControllerTest {
+    private static final String USER = "user-1";
+
+    private TodoService service;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        service = mock(TodoService.class);
+        TodoController controller = new TodoController();
+        ReflectionTestUtils.setField(controller, "service", service);
+
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+                .build();
+
+        UserPrincipal principal = new UserPrincipal(USER, AuthorityUtils.NO_AUTHORITIES, 0);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void listIsReturnedWithVersionETag() throws Exception {
+        when(service.currentVersion(USER)).thenReturn(5L);
+        when(service.retrieve(USER)).thenReturn(List.of(todo(1, 5)));
+
+        mockMvc.perform(get("/api/todo"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"5\""))
+                .andExpect(jsonPath("$.version").value(5))
+                .andExpect(jsonPath("$.data[0].id").value(1));
+    }
+
+    @Test
+    void matchingETagReturnsNotModifiedWithoutReadingList() throws Exception {
+        when(service.currentVersion(USER)).thenReturn(5L);
+
+        mockMvc.perform(get("/api/todo").header("If-None-Match", "W/\"5\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"5\""))
+                .andExpect(content().string(""));
+
+        verify(service, never()).retrieve(anyString());
+    }
+
+    @Test
+    void pendingWriteBehindChangeIsPartOfETag() throws Exception {
+        when(service.currentVersion(USER)).thenReturn(5L);
+        when(service.pendingStamp(USER)).thenReturn(3L);
+        when(service.retrieve(USER)).thenReturn(List.of(todo(1, 5)));
+
+        // 반영 전 done 변경이 있으면 version 만 같은 ETag 로는 304 가 아니다.
+        mockMvc.perform(get("/api/todo").header("If-None-Match", "W/\"5\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"5.3\""));
+
+        mockMvc.perform(get("/api/todo").header("If-None-Match", "W/\"5.3\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void sinceReturnsUpsertsAndTombstones() throws Exception {
+        when(service.currentVersion(USER)).thenReturn(7L);
+        when(service.retrieveSince(USER, 4)).thenReturn(
+                TodoDelta.changes(7, List.of(todo(1, 5), todo(3, 7)), List.of(2L)));
+
+        mockMvc.perform(get("/api/todo").param("since", "4"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"7\""))
+                .andExpect(jsonPath("$.version").value(7))
+                .andExpect(jsonPath("$.data[*].id", contains(1, 3)))
+                .andExpect(jsonPath("$.deleted", contains(2)))
+                .andExpect(jsonPath("$.reset").doesNotExist());
+    }
+
+    @Test
+    void sinceResetReturnsFullList() throws Exception {
+        when(service.currentVersion(USER)).thenReturn(20L);
+        when(service.retrieveSince(USER, 1)).thenReturn(TodoDelta.reset(20, List.of(todo(1, 5), todo(3, 18))));
+
+        mockMvc.perform(get("/api/todo").param("since", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reset").value(true))
+                .andExpect(jsonPath("$.data[*].id", contains(1, 3)))
+                .andExpect(jsonPath("$.deleted").isEmpty());
+    }
+
+    @Test
+    void sinceAtCurrentVersionSkipsService() throws Exception {
+        when(service.currentVersion(USER)).thenReturn(7L);
+
+        mockMvc.perform(get("/api/todo").param("since", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(7))
+                .andExpect(jsonPath("$.data").isEmpty())
+                .andExpect(jsonPath("$.deleted").isEmpty());
+
+        verify(service, never()).retrieveSince(anyString(), anyLong());
+    }
+
+    @Test
+    void sinceWithMatchingETagReturnsNotModified() throws Exception {
+        when(service.currentVersion(USER)).thenReturn(7L);
+
+        mockMvc.perform(get("/api/todo").param("since", "4").header("If-None-Match", "W/\"7\""))
+                .andExpect(status().isNotModified());
+
+        verify(service, never()).retrieveSince(anyString(), anyLong());
+    }
+
+    @Test
+    void negativeSinceIsRejected() throws Exception {
+        when(service.currentVersion(USER)).thenReturn(7L);
+
+        mockMvc.perform(get("/api/todo").param("since", "-1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+    }
+
+    private static TodoEntity todo(long id, long version) {
+        return TodoEntity.builder().id(id).userId(USER).title("todo " + id).version(version).build();
+    }
+}
@@ -0,0 +1,250 @@
+package security.demo.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * 읽기/쓰기 라우팅 테스트
+ * - primary, 복제본 대신 서로 다른 메모리 H2 DB 두 개를 사용(복제는 없음)
+ *   -> 각 DB 의 marker 테이블에 자기 이름을 넣어두고, 쿼리가 어느 DB 로 갔는지 확인
+ * - 복제는 테스트가 복제본의 heartbeat 를 직접 써서 흉내 낸다.
+ * - 복제본으로는 readFromReplica() 안의 조회만 간다: 읽기 전용 트랜잭션, 리포지토리 findById(SimpleJpaRepository 의
+ *   클래스 레벨 @Transactional(readOnly = true))는 primary -> JDBC 트랜잭션과 JPA 트랜잭션/리포지토리 모두 확인
+ */
+class ReplicaRoutingDataSourceTest {
+    private static final String MARKER_SQL = "select name from marker where id = 1";
+
+    private HikariDataSource primary;
+    private HikariDataSource replica;
+    private ReplicaRoutingDataSource routing;
+    private ReplicaLagMonitor monitor;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    private LocalContainerEntityManagerFactoryBean entityManagerFactory;
+    private MarkerRepository markerRepository;
+    private TransactionTemplate jpaReadOnly;
+
+    @BeforeEach
+    void setUp() {
+        primary = h2("primary");
+        replica = h2("replica");
+
+        ReplicaRoutingDataSource.Replica replicaNode = new ReplicaRoutingDataSource.Replica("replica-1", replica);
+        routing = new ReplicaRoutingDataSource(primary, List.of(replicaNode));
+        routing.afterPropertiesSet();
+        monitor = new ReplicaLagMonitor(primary, List.of(replicaNode), Duration.ofSeconds(2));
+
+        // ReplicaDataSourceConfig 의 dataSource 와 같은 구성
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        EntityManagerFactory emf = entityManagerFactory(dataSource);
+        markerRepository = new JpaRepositoryFactory(SharedEntityManagerCreator.createSharedEntityManager(emf))
+                .getRepository(MarkerRepository.class);
+        jpaReadOnly = new TransactionTemplate(new JpaTransactionManager(emf));
+        jpaReadOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        entityManagerFactory.destroy();
+        routing.close();
+        primary.close();
+    }
+
+    @Test
+    void replicaReadsGoToHealthyReplica() {
+        replicate(System.currentTimeMillis());
+        monitor.check();
+
+        assertThat(routing.getReplicas().get(0).isHealthy()).isTrue();
+        assertThat(replicaMarker()).isEqualTo("replica");
+        assertThat(readWriteMarker()).isEqualTo("primary");
+        assertThat(marker()).isEqualTo("primary");
+        assertThat(routing.getReplicas().get(0).getRoutedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void readOnlyTransactionsStayOnPrimary() {
+        replicate(System.currentTimeMillis());
+        monitor.check();
+
+        // 읽기 전용 트랜잭션이라도 readFromReplica() 밖이면 primary
+        assertThat(readOnlyMarker()).isEqualTo("primary");
+        assertThat(jpaReadOnlyMarker()).isEqualTo("primary");
+        assertThat(routing.getReplicas().get(0).getRoutedCount()).isZero();
+    }
+
+    @Test
+    void repositoryReadsStayOnPrimary() {
+        replicate(System.currentTimeMillis());
+        monitor.check();
+
+        // SimpleJpaRepository.findById 는 @Transactional(readOnly = true) -> 방금 쓴 행을 읽어야 하므로 primary
+        assertThat(repositoryMarker()).isEqualTo("primary");
+        assertThat(routing.getReplicas().get(0).getRoutedCount()).isZero();
+    }
+
+    @Test
+    void jpaReadsOptInToReplica() {
+        replicate(System.currentTimeMillis());
+        monitor.check();
+
+        String inTransaction = ReplicaRoutingDataSource.readFromReplica(this::jpaReadOnlyMarker);
+        String repositoryOnly = ReplicaRoutingDataSource.readFromReplica(this::repositoryMarker);
+
+        assertThat(inTransaction).isEqualTo("replica");
+        assertThat(repositoryOnly).isEqualTo("replica");
+        // readFromReplica() 가 끝나면 다시 primary
+        assertThat(repositoryMarker()).isEqualTo("primary");
+    }
+
+    @Test
+    void readsFallBackToPrimaryBeforeFirstCheck() {
+        assertThat(replicaMarker()).isEqualTo("primary");
+        assertThat(routing.getFallbackCount()).isEqualTo(1);
+    }
+
+    @Test
+    void laggingReplicaIsTakenOutOfRotation() {
+        replicate(System.currentTimeMillis() - Duration.ofSeconds(10).toMillis());
+        monitor.check();
+
+        assertThat(routing.getReplicas().get(0).isHealthy()).isFalse();
+        assertThat(routing.getReplicas().get(0).getLagMillis()).isGreaterThanOrEqualTo(10_000);
+        assertThat(replicaMarker()).isEqualTo("primary");
+
+        // 복제가 따라잡으면 다시 복제본으로
+        replicate(System.currentTimeMillis());
+        monitor.check();
+        assertThat(replicaMarker()).isEqualTo("replica");
+    }
+
+    @Test
+    void unreachableReplicaIsTakenOutOfRotation() {
+        replicate(System.currentTimeMillis());
+        monitor.check();
+        assertThat(replicaMarker()).isEqualTo("replica");
+
+        replica.close();
+        monitor.check();
+
+        assertThat(routing.getReplicas().get(0).isHealthy()).isFalse();
+        assertThat(replicaMarker()).isEqualTo("primary");
+    }
+
+    @Test
+    void heartbeatIsWrittenToPrimary() {
+        monitor.check();
+        monitor.check();
+
+        Long beatAt = new JdbcTemplate(primary).queryForObject("select beat_at from replica_heartbeat where id = 1", Long.class);
+        assertThat(beatAt).isNotNull();
+        // primary 의 heartbeat 는 복제본으로 복제되지 않았으므로 복제본은 제외된 상태
+        assertThat(routing.getReplicas().get(0).isHealthy()).isFalse();
+    }
+
+    private String replicaMarker() {
+        return ReplicaRoutingDataSource.readFromReplica(() -> readOnly.execute(status -> marker()));
+    }
+
+    private String readOnlyMarker() {
+        return readOnly.execute(status -> marker());
+    }
+
+    private String jpaReadOnlyMarker() {
+        return jpaReadOnly.execute(status -> repositoryMarker());
+    }
+
+    private String repositoryMarker() {
+        return markerRepository.findById(1).map(Marker::getName).orElseThrow();
+    }
+
+    private String readWriteMarker() {
+        return readWrite.execute(status -> marker());
+    }
+
+    private String marker() {
+        return jdbcTemplate.queryForObject(MARKER_SQL, String.class);
+    }
+
+    // 복제본에 primary 의 heartbeat 가 beatAt 시각으로 복제된 상태를 만든다.
+    private void replicate(long beatAt) {
+        JdbcTemplate template = new JdbcTemplate(replica);
+        if (template.update("update replica_heartbeat set beat_at = ? where id = 1", beatAt) == 0) {
+            template.update("insert into replica_heartbeat (id, beat_at) values (1, ?)", beatAt);
+        }
+    }
+
+    private EntityManagerFactory entityManagerFactory(DataSource dataSource) {
+        entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactory.setDataSource(dataSource);
+        entityManagerFactory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactory.setManagedTypes(PersistenceManagedTypes.of(Marker.class.getName()));
+        entityManagerFactory.setJpaPropertyMap(Map.of("hibernate.hbm2ddl.auto", "none"));
+        entityManagerFactory.afterPropertiesSet();
+        return entityManagerFactory.getObject();
+    }
+
+    private static HikariDataSource h2(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setPassword("");
+        dataSource.setMaximumPoolSize(2);
+
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("create table marker (id int primary key, name varchar(20))");
+        template.update("insert into marker (id, name) values (1, ?)", name);
+        template.execute("create table replica_heartbeat (id int primary key, beat_at bigint not null)");
+        return dataSource;
+    }
+
+    @Entity
+    @Table(name = "marker")
+    static class Marker {
+        @Id
+        private Integer id;
+        private String name;
+
+        String getName() {
+            return name;
+        }
+    }
+
+    interface MarkerRepository extends JpaRepository<Marker, Integer> {
+    }
+}
@@ -0,0 +1,175 @@
+package security.demo.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SignatureException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+ * HS512 엔진 테스트
+ * - 직접 만든 토큰과 jjwt 0.9.1 로 만든 토큰(기존에 발급된 토큰)을 서로 검증할 수 있는지
+ * - 위조(서명/payload 변경), 다른 알고리즘(alg=none, HS256, RS256), 만료 토큰 거절
+ */
+class HmacJwtCodecTest {
+    private static final long NOW = 1_700_000_000L;
+
+    private final String secret = newSecret();
+    private final HmacJwtCodec codec = new HmacJwtCodec(secret);
+
+    @Test
+    void signedTokenVerifies() {
+        JwtClaims claims = new JwtClaims("jti-1", "42", "demo app", NOW, NOW + 900);
+
+        String token = codec.sign(claims);
+
+        assertThat(codec.verify(token, NOW)).isEqualTo(claims);
+        assertThat(codec.matchesHeader(token, 0, token.length())).isTrue();
+    }
+
+    @Test
+    void verifiesTokenInsideAuthorizationHeader() {
+        JwtClaims claims = new JwtClaims(null, "42", "demo app", NOW, NOW + 900);
+        String authorization = "Bearer " + codec.sign(claims);
+
+        assertThat(codec.verify(authorization, 7, authorization.length(), NOW)).isEqualTo(claims);
+    }
+
+    @Test
+    void verifiesTokenIssuedByJjwt() {
+        String token = Jwts.builder()
+                .signWith(SignatureAlgorithm.HS512, secret)
+                .setId("jti-1")
+                .setSubject("42")
+                .setIssuer("demo app")
+                .setIssuedAt(new Date(NOW * 1000))
+                .setExpiration(new Date((NOW + 900) * 1000))
+                .compact();
+
+        // jjwt 와 header 가 같아야 HS512 토큰으로 구분된다.
+        assertThat(codec.matchesHeader(token, 0, token.length())).isTrue();
+        assertThat(codec.verify(token, NOW)).isEqualTo(new JwtClaims("jti-1", "42", "demo app", NOW, NOW + 900));
+    }
+
+    @Test
+    void jjwtVerifiesSignedToken() {
+        // jjwt 는 현재 시각으로 만료를 확인하므로 만료 시각은 충분히 미래로
+        String token = codec.sign(new JwtClaims("jti-1", "42", "demo app", NOW, NOW + 100L * 365 * 24 * 3600));
+
+        Claims claims = Jwts.parser().setSigningKey(secret).parseClaimsJws(token).getBody();
+
+        assertThat(claims.getId()).isEqualTo("jti-1");
+        assertThat(claims.getSubject()).isEqualTo("42");
+        assertThat(claims.getIssuer()).isEqualTo("demo app");
+        assertThat(claims.getIssuedAt()).isEqualTo(new Date(NOW * 1000));
+    }
+
+    @Test
+    void rejectsTamperedSignature() {
+        String token = codec.sign(new JwtClaims(null, "42", "demo app", NOW, NOW + 900));
+        int lastDot = token.lastIndexOf('.');
+
+        String flipped = token.substring(0, lastDot + 1) + flip(token.charAt(lastDot + 1)) + token.substring(lastDot + 2);
+        assertThatThrownBy(() -> codec.verify(flipped, NOW)).isInstanceOf(SignatureException.class);
+
+        // 잘린 서명, 빈 서명
+        String truncated = token.substring(0, token.length() - 4);
+        assertThatThrownBy(() -> codec.verify(truncated, NOW)).isInstanceOf(SignatureException.class);
+        String empty = token.substring(0, lastDot + 1);
+        assertThatThrownBy(() -> codec.verify(empty, NOW)).isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void rejectsTamperedPayload() {
+        String token = codec.sign(new JwtClaims(null, "42", "demo app", NOW, NOW + 900));
+        String[] parts = token.split("\\.");
+        String payload = encode("{\"sub\":\"1\",\"iss\":\"demo app\",\"iat\":" + NOW + ",\"exp\":" + (NOW + 900) + "}");
+
+        String forged = parts[0] + "." + payload + "." + parts[2];
+
+        assertThatThrownBy(() -> codec.verify(forged, NOW)).isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void rejectsTokenSignedWithOtherSecret() {
+        String token = new HmacJwtCodec(newSecret()).sign(new JwtClaims(null, "42", "demo app", NOW, NOW + 900));
+
+        assertThatThrownBy(() -> codec.verify(token, NOW)).isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void rejectsOtherAlgorithms() {
+        String payload = encode("{\"sub\":\"42\",\"exp\":" + (NOW + 900) + "}");
+
+        // alg=none: 서명 없는 토큰
+        String none = encode("{\"alg\":\"none\"}") + "." + payload + ".";
+        assertThatThrownBy(() -> codec.verify(none, NOW)).isInstanceOf(SignatureException.class);
+
+        // 같은 비밀키라도 HS256 으로 서명된 토큰은 거절
+        String hs256 = Jwts.builder()
+                .signWith(SignatureAlgorithm.HS256, secret)
+                .setSubject("42")
+                .setExpiration(new Date((NOW + 900) * 1000))
+                .compact();
+        assertThat(codec.matchesHeader(hs256, 0, hs256.length())).isFalse();
+        assertThatThrownBy(() -> codec.verify(hs256, NOW)).isInstanceOf(SignatureException.class);
+
+        // RS256 header 에 HS512 서명을 붙인 토큰(alg confusion)
+        String hs512 = codec.sign(new JwtClaims(null, "42", "demo app", NOW, NOW + 900));
+        String rs256 = encode("{\"alg\":\"RS256\",\"kid\":\"k1\"}") + hs512.substring(hs512.indexOf('.'));
+        assertThat(codec.matchesHeader(rs256, 0, rs256.length())).isFalse();
+        assertThatThrownBy(() -> codec.verify(rs256, NOW)).isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void acceptsEquivalentHeaderWithTyp() {
+        // jjwt 는 header 에 typ 가 있어도 검증 -> 다른 형식의 HS512 header 도 받아준다.
+        String token = Jwts.builder()
+                .setHeaderParam("typ", "JWT")
+                .signWith(SignatureAlgorithm.HS512, secret)
+                .setSubject("42")
+                .setExpiration(new Date((NOW + 900) * 1000))
+                .compact();
+
+        assertThat(codec.matchesHeader(token, 0, token.length())).isFalse();
+        assertThat(codec.verify(token, NOW).subject()).isEqualTo("42");
+    }
+
+    @Test
+    void rejectsExpiredToken() {
+        String token = codec.sign(new JwtClaims(null, "42", "demo app", NOW, NOW + 900));
+
+        assertThat(codec.verify(token, NOW + 899).subject()).isEqualTo("42");
+        assertThatThrownBy(() -> codec.verify(token, NOW + 900)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    void rejectsMalformedToken() {
+        assertThatThrownBy(() -> codec.verify("not-a-token", NOW)).isInstanceOf(MalformedJwtException.class);
+        assertThatThrownBy(() -> codec.verify("a.b.c.d", NOW)).isInstanceOf(MalformedJwtException.class);
+    }
+
+    private static String newSecret() {
+        byte[] bytes = new byte[64];
+        new SecureRandom().nextBytes(bytes);
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static char flip(char c) {
+        return c == 'A' ? 'B' : 'A';
+    }
+}
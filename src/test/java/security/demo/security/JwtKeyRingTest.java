@@ -0,0 +1,153 @@
+package security.demo.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import security.demo.config.jwt.JwtProperties;
+import security.demo.entity.JwtSigningKeyEntity;
+import security.demo.repository.JwtSigningKeyRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/*
+ * RS256 서명 키 공유 테스트
+ * - 여러 인스턴스(JwtKeyRing)가 같은 테이블(메모리 리스트로 흉내 낸 mock 리포지토리)을 쓴다.
+ * - 기동한 인스턴스는 새 키를 만들지 않고 DB 의 서명 키를 쓰고, 새 kid 는 다음 키 미리 공개(rotate)로만 생긴다.
+ * - 시간은 저장된 키의 createdAt 을 과거로 옮겨서 흉내 낸다.
+ */
+class JwtKeyRingTest {
+    private static final long NOW = Instant.now().getEpochSecond();
+
+    private final List<JwtSigningKeyEntity> table = new ArrayList<>();
+    private JwtSigningKeyRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(JwtSigningKeyRepository.class);
+        when(repository.save(any())).thenAnswer(invocation -> {
+            table.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        when(repository.findByExpiresAtAfter(any())).thenAnswer(invocation -> {
+            Instant now = invocation.getArgument(0);
+            return table.stream().filter(key -> key.getExpiresAt().isAfter(now)).toList();
+        });
+    }
+
+    @Test
+    void instancesShareSigningKey() {
+        JwtKeyRing first = keyRing(encryptionKey(1));
+        JwtKeyRing second = keyRing(encryptionKey(1));
+
+        // 두 번째 인스턴스는 새 키를 만들지 않는다.
+        assertThat(table).hasSize(1);
+        assertThat(second.signingKey().kid()).isEqualTo(first.signingKey().kid());
+
+        // 다른 인스턴스가 서명한 토큰도 검증
+        JwtClaims claims = new JwtClaims(null, "42", "demo app", NOW, NOW + 900);
+        String token = new RsaJwtCodec(first).sign(claims);
+        assertThat(new RsaJwtCodec(second).verify(token, NOW)).isEqualTo(claims);
+    }
+
+    @Test
+    void privateKeyIsStoredEncrypted() {
+        keyRing(encryptionKey(1));
+
+        JwtSigningKeyEntity stored = table.get(0);
+        assertThat(stored.getPrivateKey()).isNotNull();
+        // PKCS#8 DER(0x30 ...) 그대로가 아니다.
+        assertThat(Base64.getDecoder().decode(stored.getPrivateKey())[0]).isNotEqualTo((byte) 0x30);
+
+        // 암호화 키가 다른 인스턴스는 기동 실패
+        assertThatThrownBy(() -> keyRing(encryptionKey(2)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("jwt.key-encryption-key");
+        // 암호화 키가 없으면 기동 실패
+        assertThatThrownBy(() -> keyRing(null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("jwt.key-encryption-key");
+    }
+
+    @Test
+    void nextKeyIsPublishedBeforeItSigns() {
+        JwtKeyRing instance = keyRing(encryptionKey(1));
+        String firstKid = instance.signingKey().kid();
+
+        // 교체 시각이 JWKS_MAX_AGE 안으로 다가옴 -> 다음 키를 공개만 하고 서명은 기존 키로
+        age(table.get(0), Duration.ofDays(1));
+        JwtKeyRing restarted = keyRing(encryptionKey(1));
+        restarted.rotate();
+
+        assertThat(table).hasSize(2);
+        String nextKid = table.get(1).getKid();
+        assertThat(restarted.signingKey().kid()).isEqualTo(firstKid);
+        assertThat((List<?>) restarted.getJwks().get("keys")).hasSize(2);
+
+        // 다른 인스턴스도 rotate 에서 다음 키를 새로 만들지 않는다.
+        instance.rotate();
+        assertThat(table).hasSize(2);
+
+        // 다음 키가 공개된 지 JWKS_MAX_AGE 가 지나면 모든 인스턴스가 다음 키로 서명
+        age(table.get(1), JwtKeyRing.JWKS_MAX_AGE);
+        assertThat(keyRing(encryptionKey(1)).signingKey().kid()).isEqualTo(nextKid);
+        assertThat(keyRing(encryptionKey(1)).signingKey().kid()).isEqualTo(nextKid);
+        assertThat(table).hasSize(2);
+    }
+
+    @Test
+    void concurrentBootstrapConvergesOnOldestKey() {
+        // 처음 기동에서 두 인스턴스가 동시에 키를 만든 경우(둘 다 아직 JWKS_MAX_AGE 전)
+        JwtKeyRing first = keyRing(encryptionKey(1));
+        table.add(copyOf(table.get(0), "zz-other", table.get(0).getCreatedAt().plusMillis(1)));
+
+        first.rotate();
+        JwtKeyRing second = keyRing(encryptionKey(1));
+
+        assertThat(first.signingKey().kid()).isEqualTo(table.get(0).getKid());
+        assertThat(second.signingKey().kid()).isEqualTo(table.get(0).getKid());
+    }
+
+    private JwtKeyRing keyRing(String keyEncryptionKey) {
+        JwtProperties properties = new JwtProperties();
+        properties.setAlgorithm(JwtKeyRing.ALGORITHM);
+        properties.setKeyEncryptionKey(keyEncryptionKey);
+
+        JwtKeyRing keyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(keyRing, "jwtProperties", properties);
+        ReflectionTestUtils.setField(keyRing, "repository", repository);
+        ReflectionTestUtils.setField(keyRing, "reloadExecutor", (Executor) Runnable::run);
+        keyRing.init();
+        return keyRing;
+    }
+
+    private static String encryptionKey(int seed) {
+        byte[] key = new byte[32];
+        key[0] = (byte) seed;
+        return Base64.getEncoder().encodeToString(key);
+    }
+
+    private static void age(JwtSigningKeyEntity key, Duration duration) {
+        key.setCreatedAt(key.getCreatedAt().minus(duration));
+    }
+
+    private static JwtSigningKeyEntity copyOf(JwtSigningKeyEntity key, String kid, Instant createdAt) {
+        return JwtSigningKeyEntity.builder()
+                .kid(kid)
+                .publicKey(key.getPublicKey())
+                .privateKey(key.getPrivateKey())
+                .createdAt(createdAt)
+                .expiresAt(key.getExpiresAt())
+                .build();
+    }
+}
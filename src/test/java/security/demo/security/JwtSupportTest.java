@@ -0,0 +1,121 @@
+package security.demo.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+ * HS512 / RS256 엔진이 같이 쓰는 JWT 문자열 처리 테스트
+ * - 서명 비교(길이 정확히 일치), base64url 디코딩, 토큰 분리, header/payload 읽기/쓰기, 만료 확인
+ */
+class JwtSupportTest {
+
+    @Test
+    void constantTimeEqualsRequiresSameBytesAndExactLength() {
+        byte[] expected = {1, 2, 3, 4};
+
+        // 디코딩 버퍼는 실제 길이보다 클 수 있다 -> length 만큼만 비교
+        assertThat(JwtSupport.constantTimeEquals(expected, new byte[]{1, 2, 3, 4, 9, 9}, 4)).isTrue();
+        assertThat(JwtSupport.constantTimeEquals(expected, new byte[]{1, 2, 3, 5}, 4)).isFalse();
+        // 서명 앞부분만 보낸 경우(잘린 서명)
+        assertThat(JwtSupport.constantTimeEquals(expected, new byte[]{1, 2, 3, 4}, 3)).isFalse();
+        // 기대값보다 긴 서명
+        assertThat(JwtSupport.constantTimeEquals(expected, new byte[]{1, 2, 3, 4, 5}, 5)).isFalse();
+        // length 가 버퍼보다 큰 경우
+        assertThat(JwtSupport.constantTimeEquals(expected, new byte[]{1, 2, 3}, 4)).isFalse();
+    }
+
+    @Test
+    void decodeMatchesJdkBase64Url() {
+        JwtSupport.Buffer buffer = new JwtSupport.Buffer();
+        for (int size = 0; size < 70; size++) {
+            byte[] bytes = new byte[size];
+            for (int i = 0; i < size; i++) {
+                bytes[i] = (byte) (i * 37 + size);
+            }
+            String encoded = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+            String padded = Base64.getUrlEncoder().encodeToString(bytes);
+
+            // 앞뒤에 다른 문자가 있어도 [start, end) 구간만 디코딩
+            String token = "x." + encoded + ".y";
+            int length = JwtSupport.decode(token, 2, 2 + encoded.length(), buffer);
+            assertThat(copy(buffer.bytes, length)).isEqualTo(bytes);
+
+            length = JwtSupport.decode(padded, 0, padded.length(), buffer);
+            assertThat(copy(buffer.bytes, length)).isEqualTo(bytes);
+        }
+    }
+
+    @Test
+    void decodeRejectsNonBase64UrlCharacters() {
+        JwtSupport.Buffer buffer = new JwtSupport.Buffer();
+
+        assertThatThrownBy(() -> JwtSupport.decode("ab+c", 0, 4, buffer)).isInstanceOf(MalformedJwtException.class);
+        assertThatThrownBy(() -> JwtSupport.decode("ab/c", 0, 4, buffer)).isInstanceOf(MalformedJwtException.class);
+        assertThatThrownBy(() -> JwtSupport.decode("ab한c", 0, 4, buffer)).isInstanceOf(MalformedJwtException.class);
+    }
+
+    @Test
+    void splitRequiresExactlyTwoDots() {
+        assertThat(JwtSupport.split("Bearer a.b.c", 7, 12)).containsExactly(8, 10);
+
+        assertThatThrownBy(() -> JwtSupport.split("a.b", 0, 3)).isInstanceOf(MalformedJwtException.class);
+        assertThatThrownBy(() -> JwtSupport.split("a.b.c.d", 0, 7)).isInstanceOf(MalformedJwtException.class);
+        // header 가 비어 있는 토큰
+        assertThatThrownBy(() -> JwtSupport.split(".b.c", 0, 4)).isInstanceOf(MalformedJwtException.class);
+    }
+
+    @Test
+    void payloadRoundTrip() {
+        JwtClaims claims = new JwtClaims("jti-1", "42", "demo app", 1_700_000_000L, 1_700_000_900L);
+
+        byte[] payload = JwtSupport.writePayload(claims);
+
+        assertThat(JwtSupport.readClaims(payload, payload.length)).isEqualTo(claims);
+    }
+
+    @Test
+    void readClaimsSkipsUnknownFields() {
+        byte[] payload = ("{\"aud\":[\"a\",\"b\"],\"sub\":\"7\",\"ctx\":{\"x\":1},\"exp\":100}")
+                .getBytes(StandardCharsets.UTF_8);
+
+        JwtClaims claims = JwtSupport.readClaims(payload, payload.length);
+
+        assertThat(claims.subject()).isEqualTo("7");
+        assertThat(claims.expiration()).isEqualTo(100);
+        assertThat(claims.id()).isNull();
+    }
+
+    @Test
+    void readHeaderReadsAlgorithmAndKeyId() {
+        byte[] header = "{\"typ\":\"JWT\",\"alg\":\"RS256\",\"kid\":\"k1\"}".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(JwtSupport.readHeader(header, header.length)).isEqualTo(new JwtSupport.Header("RS256", "k1"));
+
+        byte[] notObject = "[\"alg\"]".getBytes(StandardCharsets.UTF_8);
+        assertThatThrownBy(() -> JwtSupport.readHeader(notObject, notObject.length))
+                .isInstanceOf(MalformedJwtException.class);
+    }
+
+    @Test
+    void checkExpirationRejectsExpiredClaims() {
+        JwtSupport.checkExpiration(new JwtClaims(null, "1", "demo", 0, 101), 100);
+        // exp 가 없는 토큰(0)은 만료 확인 안 함
+        JwtSupport.checkExpiration(new JwtClaims(null, "1", "demo", 0, 0), 100);
+
+        assertThatThrownBy(() -> JwtSupport.checkExpiration(new JwtClaims(null, "1", "demo", 0, 100), 100))
+                .isInstanceOf(ExpiredJwtException.class);
+    }
+
+    private static byte[] copy(byte[] bytes, int length) {
+        byte[] out = new byte[length];
+        System.arraycopy(bytes, 0, out, 0, length);
+        return out;
+    }
+}
@@ -0,0 +1,159 @@
+package security.demo.security;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionManager;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.TransactionTemplate;
+import security.demo.config.jwt.JwtProperties;
+import security.demo.entity.RefreshTokenEntity;
+import security.demo.repository.RefreshTokenRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+ * refresh token 재발급(rotation), 재사용 감지, 묶음(family) 폐기 테스트
+ * - H2(메모리 DB) + JPA -> 조건부 update(markUsed), 트랜잭션 롤백을 실제 DB 로 확인
+ * - 리포지토리의 @Transactional 은 스프링 컨테이너 대신 TransactionInterceptor 를 직접 붙여서 적용
+ */
+class RefreshTokenServiceTest {
+    private static final String USER = "42";
+
+    private LocalContainerEntityManagerFactoryBean entityManagerFactory;
+    private RefreshTokenRepository repository;
+    private JwtProperties jwtProperties;
+    private RefreshTokenService service;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:refresh-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+
+        entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactory.setDataSource(dataSource);
+        entityManagerFactory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactory.setManagedTypes(PersistenceManagedTypes.of(RefreshTokenEntity.class.getName()));
+        entityManagerFactory.setJpaPropertyMap(Map.of("hibernate.hbm2ddl.auto", "create-drop"));
+        entityManagerFactory.afterPropertiesSet();
+        EntityManagerFactory emf = entityManagerFactory.getObject();
+
+        JpaTransactionManager transactionManager = new JpaTransactionManager(emf);
+        JpaRepositoryFactory factory = new JpaRepositoryFactory(SharedEntityManagerCreator.createSharedEntityManager(emf));
+        factory.addRepositoryProxyPostProcessor((proxyFactory, information) -> proxyFactory.addAdvice(
+                new TransactionInterceptor((TransactionManager) transactionManager, new AnnotationTransactionAttributeSource())));
+        repository = factory.getRepository(RefreshTokenRepository.class);
+
+        jwtProperties = new JwtProperties();
+        service = new RefreshTokenService();
+        ReflectionTestUtils.setField(service, "repository", repository);
+        ReflectionTestUtils.setField(service, "jwtProperties", jwtProperties);
+        ReflectionTestUtils.setField(service, "transactionTemplate", new TransactionTemplate(transactionManager));
+    }
+
+    @AfterEach
+    void tearDown() {
+        entityManagerFactory.destroy();
+    }
+
+    @Test
+    void rotationIssuesNewTokenInSameFamily() {
+        String first = service.issue(USER);
+
+        RefreshTokenService.Rotation rotation = service.rotate(first);
+
+        assertThat(rotation.userId()).isEqualTo(USER);
+        assertThat(rotation.refreshToken()).isNotEqualTo(first);
+        List<RefreshTokenEntity> tokens = repository.findAll();
+        assertThat(tokens).hasSize(2);
+        assertThat(tokens).extracting(RefreshTokenEntity::getFamilyId).containsOnly(tokens.get(0).getFamilyId());
+        assertThat(tokens).extracting(RefreshTokenEntity::isUsed).containsExactly(true, false);
+
+        // 새 토큰으로 다시 재발급
+        assertThat(service.rotate(rotation.refreshToken()).userId()).isEqualTo(USER);
+    }
+
+    @Test
+    void reusedTokenRevokesWholeFamily() {
+        String first = service.issue(USER);
+        String second = service.rotate(first).refreshToken();
+
+        // 이미 사용된 토큰이 다시 들어옴 -> 탈취로 보고 묶음 전체 폐기
+        assertThatThrownBy(() -> service.rotate(first)).hasMessage("Invalid refresh token");
+
+        assertThat(repository.findAll()).extracting(RefreshTokenEntity::isRevoked).containsOnly(true);
+        // 정상 사용자가 가진 최신 토큰도 폐기됨
+        assertThatThrownBy(() -> service.rotate(second)).hasMessage("Invalid refresh token");
+    }
+
+    @Test
+    void revokeOnlyRevokesOwnFamily() {
+        String phone = service.issue(USER);
+        String laptop = service.issue(USER);
+        String rotated = service.rotate(phone).refreshToken();
+
+        // 로그아웃(phone 묶음) -> 재발급된 토큰까지 폐기, 다른 로그인(laptop)은 그대로
+        assertThat(service.revoke(rotated)).isEqualTo(2);
+
+        assertThatThrownBy(() -> service.rotate(rotated)).hasMessage("Invalid refresh token");
+        assertThat(service.rotate(laptop).userId()).isEqualTo(USER);
+        assertThat(service.revoke("unknown")).isZero();
+    }
+
+    @Test
+    void revokeAllRevokesEveryFamilyOfUser() {
+        String phone = service.issue(USER);
+        String laptop = service.issue(USER);
+        String other = service.issue("7");
+
+        assertThat(service.revokeAll(USER)).isEqualTo(2);
+
+        assertThatThrownBy(() -> service.rotate(phone)).hasMessage("Invalid refresh token");
+        assertThatThrownBy(() -> service.rotate(laptop)).hasMessage("Invalid refresh token");
+        assertThat(service.rotate(other).userId()).isEqualTo("7");
+    }
+
+    @Test
+    void failedIssueRollsBackMarkUsed() {
+        String first = service.issue(USER);
+
+        // 새 토큰 저장 실패(만료 시각 계산 실패)
+        jwtProperties.setRefreshTokenValidity(null);
+        assertThatThrownBy(() -> service.rotate(first)).isInstanceOf(NullPointerException.class);
+
+        // 사용 처리도 롤백 -> 재사용으로 판단하지 않고 같은 토큰으로 다시 재발급
+        assertThat(repository.findAll()).extracting(RefreshTokenEntity::isUsed).containsExactly(false);
+        jwtProperties.setRefreshTokenValidity(Duration.ofDays(14));
+        assertThat(service.rotate(first).userId()).isEqualTo(USER);
+    }
+
+    @Test
+    void expiredAndUnknownTokensAreRejected() {
+        jwtProperties.setRefreshTokenValidity(Duration.ofSeconds(-1));
+        String expired = service.issue(USER);
+
+        assertThatThrownBy(() -> service.rotate(expired)).hasMessage("Refresh token expired");
+        assertThatThrownBy(() -> service.rotate("unknown")).hasMessage("Invalid refresh token");
+        assertThatThrownBy(() -> service.rotate("")).hasMessage("Invalid refresh token");
+
+        // 만료된 토큰은 사용 처리도, 묶음 폐기도 하지 않는다.
+        assertThat(repository.findAll()).extracting(RefreshTokenEntity::isUsed).containsExactly(false);
+        assertThat(repository.findAll()).extracting(RefreshTokenEntity::isRevoked).containsExactly(false);
+    }
+}
@@ -0,0 +1,165 @@
+package security.demo.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import security.demo.config.jwt.JwtProperties;
+import security.demo.repository.JwtSigningKeyRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/*
+ * RS256 엔진 테스트
+ * - JwtKeyRing 은 DB 대신 mock 리포지토리 사용(다른 인스턴스의 공개키 없음)
+ * - reload 요청은 바로 실행하지 않고 모아둔다 -> 검증 중에 DB 를 조회하지 않는지 확인
+ */
+class RsaJwtCodecTest {
+    private static final long NOW = Instant.now().getEpochSecond();
+
+    private JwtSigningKeyRepository repository;
+    private final List<Runnable> reloads = new ArrayList<>();
+    private JwtKeyRing keyRing;
+    private RsaJwtCodec codec;
+
+    @BeforeEach
+    void setUp() {
+        JwtProperties properties = new JwtProperties();
+        properties.setAlgorithm(JwtKeyRing.ALGORITHM);
+        properties.setKeyEncryptionKey(Base64.getEncoder().encodeToString(new byte[32]));
+        repository = mock(JwtSigningKeyRepository.class);
+
+        keyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(keyRing, "jwtProperties", properties);
+        ReflectionTestUtils.setField(keyRing, "repository", repository);
+        ReflectionTestUtils.setField(keyRing, "reloadExecutor", (Executor) reloads::add);
+        keyRing.init();
+
+        codec = new RsaJwtCodec(keyRing);
+    }
+
+    @Test
+    void signedTokenVerifies() {
+        JwtClaims claims = new JwtClaims("jti-1", "42", "demo app", NOW, NOW + 900);
+
+        String token = codec.sign(claims);
+
+        assertThat(codec.verify(token, NOW)).isEqualTo(claims);
+        assertThat(header(token)).isEqualTo(
+                "{\"alg\":\"RS256\",\"kid\":\"" + keyRing.signingKey().kid() + "\"}");
+    }
+
+    @Test
+    void verifiesTokenInsideAuthorizationHeader() {
+        JwtClaims claims = new JwtClaims(null, "42", "demo app", NOW, NOW + 900);
+        String authorization = "Bearer " + codec.sign(claims);
+
+        assertThat(codec.verify(authorization, 7, authorization.length(), NOW)).isEqualTo(claims);
+    }
+
+    @Test
+    void rejectsTamperedSignature() {
+        String token = codec.sign(new JwtClaims(null, "42", "demo app", NOW, NOW + 900));
+        int lastDot = token.lastIndexOf('.');
+
+        String flipped = token.substring(0, lastDot + 1)
+                + (token.charAt(lastDot + 1) == 'A' ? 'B' : 'A') + token.substring(lastDot + 2);
+        assertThatThrownBy(() -> codec.verify(flipped, NOW)).isInstanceOf(SignatureException.class);
+
+        String truncated = token.substring(0, token.length() - 4);
+        assertThatThrownBy(() -> codec.verify(truncated, NOW)).isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void rejectsTamperedPayload() {
+        String token = codec.sign(new JwtClaims(null, "42", "demo app", NOW, NOW + 900));
+        String[] parts = token.split("\\.");
+        String payload = encode("{\"sub\":\"1\",\"iss\":\"demo app\",\"iat\":" + NOW + ",\"exp\":" + (NOW + 900) + "}");
+
+        String forged = parts[0] + "." + payload + "." + parts[2];
+
+        assertThatThrownBy(() -> codec.verify(forged, NOW)).isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void rejectsAlgorithmConfusion() {
+        String kid = keyRing.signingKey().kid();
+        String payload = encode("{\"sub\":\"42\",\"exp\":" + (NOW + 900) + "}");
+
+        // 공개키를 HMAC 비밀키로 써서 HS256 으로 서명한 토큰(공개키는 JWKS 로 누구나 알 수 있음)
+        byte[] publicKey = keyRing.verificationKey(kid).publicKey().getEncoded();
+        String hs256 = Jwts.builder()
+                .setHeaderParam("kid", kid)
+                .signWith(SignatureAlgorithm.HS256, publicKey)
+                .setSubject("42")
+                .setExpiration(new Date((NOW + 900) * 1000))
+                .compact();
+        assertThatThrownBy(() -> codec.verify(hs256, NOW)).isInstanceOf(SignatureException.class);
+
+        // alg=none
+        String none = encode("{\"alg\":\"none\",\"kid\":\"" + kid + "\"}") + "." + payload + ".";
+        assertThatThrownBy(() -> codec.verify(none, NOW)).isInstanceOf(SignatureException.class);
+
+        // kid 없는 RS256 토큰
+        String token = codec.sign(new JwtClaims(null, "42", "demo app", NOW, NOW + 900));
+        String noKid = encode("{\"alg\":\"RS256\"}") + token.substring(token.indexOf('.'));
+        assertThatThrownBy(() -> codec.verify(noKid, NOW)).isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void rejectsUnknownKeyIdWithoutQueryingDatabase() {
+        String token = codec.sign(new JwtClaims(null, "42", "demo app", NOW, NOW + 900));
+        String unknown = encode("{\"alg\":\"RS256\",\"kid\":\"unknown\"}") + token.substring(token.indexOf('.'));
+
+        assertThatThrownBy(() -> codec.verify(unknown, NOW)).isInstanceOf(SignatureException.class);
+        assertThatThrownBy(() -> codec.verify(unknown, NOW)).isInstanceOf(SignatureException.class);
+
+        // init() 의 reload 한번뿐, 모르는 kid 는 백그라운드 reload 를 한번만 요청
+        verify(repository, times(1)).findByExpiresAtAfter(any());
+        assertThat(reloads).hasSize(1);
+
+        reloads.get(0).run();
+        verify(repository, times(2)).findByExpiresAtAfter(any());
+    }
+
+    @Test
+    void rejectsExpiredToken() {
+        String token = codec.sign(new JwtClaims(null, "42", "demo app", NOW, NOW + 900));
+
+        assertThat(codec.verify(token, NOW + 899).subject()).isEqualTo("42");
+        assertThatThrownBy(() -> codec.verify(token, NOW + 900)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    void hmacCodecRejectsRsaToken() {
+        String token = codec.sign(new JwtClaims(null, "42", "demo app", NOW, NOW + 900));
+        HmacJwtCodec hmac = new HmacJwtCodec(Base64.getEncoder().encodeToString(new byte[64]));
+
+        assertThat(hmac.matchesHeader(token, 0, token.length())).isFalse();
+        assertThatThrownBy(() -> hmac.verify(token, NOW)).isInstanceOf(SignatureException.class);
+    }
+
+    private static String header(String token) {
+        return new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))), StandardCharsets.UTF_8);
+    }
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,90 @@
+package security.demo.security;
+
+import io.jsonwebtoken.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import security.demo.config.jwt.JwtProperties;
+import security.demo.repository.JwtSigningKeyRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/*
+ * RS256 전환 후 HS512 토큰 처리 테스트
+ * - jwt.legacy-hs512-until 이 없거나 지났으면 jwt.secret_key 가 있어도 HS512 토큰 거절
+ * - jwt.algorithm=HS512 이면 HS512 토큰만 검증
+ */
+class TokenProviderTest {
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[64]);
+
+    private String hs512Token;
+
+    @BeforeEach
+    void setUp() {
+        long now = Instant.now().getEpochSecond();
+        hs512Token = new HmacJwtCodec(SECRET).sign(new JwtClaims(null, "7", "demo app", now, now + 900));
+    }
+
+    @Test
+    void rs256RejectsHs512WithoutLegacyFlag() {
+        TokenProvider provider = tokenProvider(properties(JwtKeyRing.ALGORITHM));
+
+        assertThatThrownBy(() -> provider.validateAndGetUserId(hs512Token)).isInstanceOf(SignatureException.class);
+        assertThat(provider.validateAndGetUserId(provider.create("42"))).isEqualTo("42");
+    }
+
+    @Test
+    void rs256AcceptsHs512UntilCutoff() {
+        JwtProperties properties = properties(JwtKeyRing.ALGORITHM);
+        TokenProvider provider = tokenProvider(properties);
+
+        properties.setLegacyHs512Until(Instant.now().plus(Duration.ofMinutes(5)));
+        assertThat(provider.validateAndGetUserId(hs512Token)).isEqualTo("7");
+
+        properties.setLegacyHs512Until(Instant.now().minusSeconds(1));
+        assertThatThrownBy(() -> provider.validateAndGetUserId(hs512Token)).isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void hs512ModeVerifiesOnlyHs512() {
+        TokenProvider provider = tokenProvider(properties("HS512"));
+        String rs256Token = tokenProvider(properties(JwtKeyRing.ALGORITHM)).create("42");
+
+        assertThat(provider.validateAndGetUserId(hs512Token)).isEqualTo("7");
+        assertThat(provider.validateAndGetUserId(provider.create("42"))).isEqualTo("42");
+        assertThatThrownBy(() -> provider.validateAndGetUserId(rs256Token)).isInstanceOf(SignatureException.class);
+    }
+
+    private static JwtProperties properties(String algorithm) {
+        JwtProperties properties = new JwtProperties();
+        properties.setAlgorithm(algorithm);
+        properties.setSecretKey(SECRET);
+        properties.setKeyEncryptionKey(Base64.getEncoder().encodeToString(new byte[32]));
+        return properties;
+    }
+
+    private static TokenProvider tokenProvider(JwtProperties properties) {
+        JwtKeyRing keyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(keyRing, "jwtProperties", properties);
+        ReflectionTestUtils.setField(keyRing, "repository", mock(JwtSigningKeyRepository.class));
+        ReflectionTestUtils.setField(keyRing, "reloadExecutor", (Executor) Runnable::run);
+        keyRing.init();
+
+        VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(verifiedTokenCache, "jwtProperties", properties);
+
+        TokenProvider provider = new TokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtProperties", properties);
+        ReflectionTestUtils.setField(provider, "verifiedTokenCache", verifiedTokenCache);
+        ReflectionTestUtils.setField(provider, "jwtKeyRing", keyRing);
+        provider.init();
+        return provider;
+    }
+}
@@ -0,0 +1,210 @@
+package security.demo.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import security.demo.cache.TodoVersionCache;
+import security.demo.datasource.ReplicaRoutingDataSource;
+import security.demo.entity.TodoEntity;
+import security.demo.entity.TodoSyncEntity;
+import security.demo.repository.TodoRepository;
+import security.demo.repository.TodoSyncRepository;
+import security.demo.repository.TodoTombstoneRepository;
+import security.demo.writebehind.TodoWriteBehind;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/*
+ * 변경분 조회(TodoService.retrieveSince) 테스트
+ * - since 이후 생성/수정된 투두(upsert)와 삭제 기록(tombstone)을 같이 리턴
+ * - since 가 현재 version 과 같으면 조회 없이 빈 변경분
+ * - since 가 현재 version 보다 크거나, 정리된 삭제 기록보다 오래되었으면 전체 목록(reset)
+ * - 복제본에서 읽은 version 이 이미 알고 있는 version 이나 since 보다 작으면(복제 지연) primary 에서 다시 읽기
+ * 리포지토리는 mock -> 쿼리 자체(where user_id = ? and version > ?)는 리포지토리 메서드 이름/JPQL 그대로
+ */
+class TodoServiceSinceTest {
+    private static final String USER = "user-1";
+
+    private TodoRepository repository;
+    private TodoSyncRepository syncRepository;
+    private TodoTombstoneRepository tombstoneRepository;
+    private TodoVersionCache versionCache;
+    private ObjectProvider<ReplicaRoutingDataSource> replicaRouting;
+    private TodoService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        repository = mock(TodoRepository.class);
+        syncRepository = mock(TodoSyncRepository.class);
+        tombstoneRepository = mock(TodoTombstoneRepository.class);
+        versionCache = mock(TodoVersionCache.class);
+        // 복제본 없음(replicaRouting.getIfAvailable() == null)
+        replicaRouting = mock(ObjectProvider.class);
+
+        service = new TodoService();
+        ReflectionTestUtils.setField(service, "repository", repository);
+        ReflectionTestUtils.setField(service, "syncRepository", syncRepository);
+        ReflectionTestUtils.setField(service, "tombstoneRepository", tombstoneRepository);
+        ReflectionTestUtils.setField(service, "versionCache", versionCache);
+        // write-behind 꺼짐(대기 중인 done 변경 없음)
+        ReflectionTestUtils.setField(service, "writeBehind", mock(ObjectProvider.class));
+        ReflectionTestUtils.setField(service, "replicaRouting", replicaRouting);
+        ReflectionTestUtils.setField(service, "transactionTemplate",
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        service.init();
+    }
+
+    @Test
+    void returnsUpsertsAndTombstonesAfterSince() {
+        sync(7, 0);
+        List<TodoEntity> changed = List.of(todo(1, 5), todo(3, 7));
+        when(repository.findByUserIdAndVersionGreaterThan(USER, 4)).thenReturn(changed);
+        when(tombstoneRepository.findTodoIdsDeletedAfter(USER, 4)).thenReturn(List.of(2L, 9L));
+
+        TodoDelta delta = service.retrieveSince(USER, 4);
+
+        assertThat(delta.reset()).isFalse();
+        assertThat(delta.version()).isEqualTo(7);
+        assertThat(delta.todos()).isEqualTo(changed);
+        assertThat(delta.deleted()).containsExactly(2L, 9L);
+        verify(versionCache).advance(USER, 7);
+        verify(repository, never()).findByUserId(anyString());
+    }
+
+    @Test
+    void sinceEqualToVersionReturnsEmptyDelta() {
+        sync(7, 0);
+
+        TodoDelta delta = service.retrieveSince(USER, 7);
+
+        assertThat(delta.reset()).isFalse();
+        assertThat(delta.version()).isEqualTo(7);
+        assertThat(delta.todos()).isEmpty();
+        assertThat(delta.deleted()).isEmpty();
+        verify(repository, never()).findByUserIdAndVersionGreaterThan(anyString(), anyLong());
+        verify(tombstoneRepository, never()).findTodoIdsDeletedAfter(anyString(), anyLong());
+    }
+
+    @Test
+    void sinceBeforePurgedTombstonesResetsToFullList() {
+        sync(20, 10);
+        List<TodoEntity> all = List.of(todo(1, 5), todo(3, 18));
+        when(repository.findByUserId(USER)).thenReturn(all);
+
+        // version 10 까지의 삭제 기록은 정리됨 -> since=9 이후 삭제를 모두 알 수 없다.
+        TodoDelta delta = service.retrieveSince(USER, 9);
+
+        assertThat(delta.reset()).isTrue();
+        assertThat(delta.version()).isEqualTo(20);
+        assertThat(delta.todos()).isEqualTo(all);
+        assertThat(delta.deleted()).isEmpty();
+        verify(tombstoneRepository, never()).findTodoIdsDeletedAfter(anyString(), anyLong());
+
+        // 정리된 version 이후면 다시 변경분
+        when(repository.findByUserIdAndVersionGreaterThan(USER, 10)).thenReturn(List.of(todo(3, 18)));
+        when(tombstoneRepository.findTodoIdsDeletedAfter(USER, 10)).thenReturn(List.of(4L));
+        TodoDelta changes = service.retrieveSince(USER, 10);
+        assertThat(changes.reset()).isFalse();
+        assertThat(changes.deleted()).containsExactly(4L);
+    }
+
+    @Test
+    void sinceAheadOfVersionResetsToFullList() {
+        // DB 초기화 등으로 클라이언트가 가진 version 이 더 큰 경우
+        sync(3, 0);
+        when(repository.findByUserId(USER)).thenReturn(List.of(todo(1, 3)));
+
+        TodoDelta delta = service.retrieveSince(USER, 8);
+
+        assertThat(delta.reset()).isTrue();
+        assertThat(delta.version()).isEqualTo(3);
+        assertThat(delta.todos()).hasSize(1);
+    }
+
+    @Test
+    void userWithoutChangesHasVersionZero() {
+        when(syncRepository.findById(USER)).thenReturn(Optional.empty());
+
+        TodoDelta delta = service.retrieveSince(USER, 0);
+
+        assertThat(delta.reset()).isFalse();
+        assertThat(delta.version()).isZero();
+        assertThat(delta.todos()).isEmpty();
+    }
+
+    @Test
+    void laggingReplicaBehindKnownVersionIsReadAgainFromPrimary() {
+        replicated();
+        when(versionCache.get(USER)).thenReturn(7L);
+        // 복제본: version 5(이 인스턴스가 커밋한 7 이 아직 안 옴), primary: version 7
+        when(syncRepository.findById(USER)).thenReturn(syncOf(5, 0)).thenReturn(syncOf(7, 0));
+        List<TodoEntity> changed = List.of(todo(1, 7));
+        when(repository.findByUserIdAndVersionGreaterThan(USER, 4)).thenReturn(changed);
+
+        TodoDelta delta = service.retrieveSince(USER, 4);
+
+        assertThat(delta.reset()).isFalse();
+        assertThat(delta.version()).isEqualTo(7);
+        assertThat(delta.todos()).isEqualTo(changed);
+        verify(syncRepository, times(2)).findById(USER);
+        verify(versionCache, never()).advance(USER, 5);
+        verify(repository, times(1)).findByUserIdAndVersionGreaterThan(USER, 4);
+    }
+
+    @Test
+    void laggingReplicaBehindSinceIsReadAgainFromPrimary() {
+        replicated();
+        // 다른 인스턴스에서 받은 version 8 -> 이 인스턴스는 모름, 복제본은 아직 6
+        when(syncRepository.findById(USER)).thenReturn(syncOf(6, 0)).thenReturn(syncOf(8, 0));
+
+        TodoDelta delta = service.retrieveSince(USER, 8);
+
+        // 복제 지연을 DB 초기화로 오해해 전체 목록(reset)을 주지 않는다.
+        assertThat(delta.reset()).isFalse();
+        assertThat(delta.version()).isEqualTo(8);
+        assertThat(delta.todos()).isEmpty();
+        verify(repository, never()).findByUserId(anyString());
+    }
+
+    @Test
+    void upToDateReplicaIsReadOnce() {
+        replicated();
+        when(versionCache.get(USER)).thenReturn(7L);
+        sync(7, 0);
+
+        TodoDelta delta = service.retrieveSince(USER, 7);
+
+        assertThat(delta.version()).isEqualTo(7);
+        verify(syncRepository, times(1)).findById(USER);
+    }
+
+    private void replicated() {
+        when(replicaRouting.getIfAvailable()).thenReturn(mock(ReplicaRoutingDataSource.class));
+    }
+
+    private void sync(long version, long purgedVersion) {
+        when(syncRepository.findById(USER)).thenReturn(syncOf(version, purgedVersion));
+    }
+
+    private static Optional<TodoSyncEntity> syncOf(long version, long purgedVersion) {
+        return Optional.of(TodoSyncEntity.builder().userId(USER).version(version).purgedVersion(purgedVersion).build());
+    }
+
+    private static TodoEntity todo(long id, long version) {
+        return TodoEntity.builder().id(id).userId(USER).title("todo " + id).version(version).build();
+    }
+}
@@ -0,0 +1,184 @@
+package security.demo.stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import security.demo.config.stream.TodoStreamProperties;
+import security.demo.entity.TodoEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * 투두 변경 스트림 이어받기(Last-Event-ID) 테스트
+ * - 처음 연결, 기록에 없는 id(오래됨, 다른 stream, 잘못된 형식)는 SNAPSHOT 부터
+ * - 기록에 있는 id 는 그 다음 이벤트부터
+ * - 구독자 대기열이 넘치면 SNAPSHOT 하나로 바뀌고, 그 SNAPSHOT 의 id 로 다시 이어받을 수 있다.
+ */
+class TodoChangeFeedTest {
+    private static final String USER = "user-1";
+
+    private TodoStreamProperties properties;
+    private TodoChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        properties = new TodoStreamProperties();
+        properties.setBufferSize(16);
+        properties.setHistorySize(8);
+
+        feed = new TodoChangeFeed();
+        ReflectionTestUtils.setField(feed, "properties", properties);
+    }
+
+    @Test
+    void firstConnectStartsWithSnapshot() {
+        try (TodoChangeSubscription subscription = feed.subscribe(USER, null)) {
+            assertThat(types(drain(subscription))).containsExactly(TodoChange.Type.SNAPSHOT);
+        }
+    }
+
+    @Test
+    void resumesAfterLastEventId() {
+        TodoChangeSubscription first = feed.subscribe(USER, null);
+        feed.created(USER, todo(1));
+        feed.updated(USER, todo(1));
+        feed.created(USER, todo(2));
+        List<TodoChange> received = drain(first);
+        first.close();
+
+        // 연결이 끊긴 사이의 변경
+        feed.deleted(USER, 1);
+        feed.updated(USER, todo(2));
+
+        String lastEventId = received.get(received.size() - 1).eventId();
+        try (TodoChangeSubscription resumed = feed.subscribe(USER, lastEventId)) {
+            List<TodoChange> missed = drain(resumed);
+
+            assertThat(types(missed)).containsExactly(TodoChange.Type.DELETED, TodoChange.Type.UPDATED);
+            assertThat(missed.get(0).id()).isEqualTo(1L);
+            assertThat(missed.get(1).todo().getId()).isEqualTo(2L);
+            assertThat(versions(missed)).containsExactly(4L, 5L);
+        }
+    }
+
+    @Test
+    void resumeFromLatestEventSendsNothing() {
+        TodoChangeSubscription first = feed.subscribe(USER, null);
+        feed.created(USER, todo(1));
+        List<TodoChange> received = drain(first);
+        first.close();
+
+        try (TodoChangeSubscription resumed = feed.subscribe(USER, received.get(received.size() - 1).eventId())) {
+            assertThat(drain(resumed)).isEmpty();
+
+            feed.updated(USER, todo(1));
+            assertThat(versions(drain(resumed))).containsExactly(2L);
+        }
+    }
+
+    @Test
+    void eventIdOlderThanHistoryStartsWithSnapshot() {
+        TodoChangeSubscription first = feed.subscribe(USER, null);
+        feed.created(USER, todo(1));
+        String oldId = drain(first).get(1).eventId();
+        first.close();
+
+        // history-size(8) 보다 많이 밀려남
+        for (int i = 0; i < 10; i++) {
+            feed.updated(USER, todo(1));
+        }
+
+        try (TodoChangeSubscription resumed = feed.subscribe(USER, oldId)) {
+            List<TodoChange> changes = drain(resumed);
+            assertThat(types(changes)).containsExactly(TodoChange.Type.SNAPSHOT);
+            assertThat(changes.get(0).version()).isEqualTo(11L);
+        }
+    }
+
+    @Test
+    void unknownEventIdStartsWithSnapshot() {
+        TodoChangeSubscription first = feed.subscribe(USER, null);
+        feed.created(USER, todo(1));
+        String stream = drain(first).get(0).stream();
+
+        // 재시작 전(다른 stream), 아직 없는 version, 잘못된 형식
+        for (String lastEventId : List.of("other-stream.1", stream + ".99", stream + ".x", "garbage")) {
+            try (TodoChangeSubscription resumed = feed.subscribe(USER, lastEventId)) {
+                assertThat(types(drain(resumed))).as(lastEventId).containsExactly(TodoChange.Type.SNAPSHOT);
+            }
+        }
+        first.close();
+    }
+
+    @Test
+    void bufferOverflowCollapsesToSnapshotAndCanBeResumed() {
+        properties.setBufferSize(3);
+
+        try (TodoChangeSubscription slow = feed.subscribe(USER, null)) {
+            // 대기열: SNAPSHOT(0), created(1), updated(2) -> 다음 이벤트에서 넘침
+            feed.created(USER, todo(1));
+            feed.updated(USER, todo(1));
+            feed.updated(USER, todo(1));
+
+            List<TodoChange> changes = drain(slow);
+            assertThat(types(changes)).containsExactly(TodoChange.Type.SNAPSHOT);
+            assertThat(changes.get(0).version()).isEqualTo(3L);
+            assertThat(feed.getOverflowCount()).isEqualTo(1);
+
+            // 넘친 뒤에도 같은 연결로 계속 받는다.
+            feed.deleted(USER, 1);
+            assertThat(versions(drain(slow))).containsExactly(4L);
+
+            // SNAPSHOT 의 id 로 다시 연결하면 그 이후 변경만
+            try (TodoChangeSubscription resumed = feed.subscribe(USER, changes.get(0).eventId())) {
+                List<TodoChange> missed = drain(resumed);
+                assertThat(types(missed)).containsExactly(TodoChange.Type.DELETED);
+                assertThat(versions(missed)).containsExactly(4L);
+            }
+        }
+    }
+
+    @Test
+    void changesWithoutSubscribersAreNotRecorded() {
+        feed.created(USER, todo(1));
+
+        assertThat(feed.getPublishedCount()).isZero();
+        try (TodoChangeSubscription subscription = feed.subscribe(USER, null)) {
+            List<TodoChange> changes = drain(subscription);
+            assertThat(types(changes)).containsExactly(TodoChange.Type.SNAPSHOT);
+            assertThat(changes.get(0).version()).isZero();
+        }
+    }
+
+    @Test
+    void closedSubscriptionIsRemoved() {
+        TodoChangeSubscription subscription = feed.subscribe(USER, null);
+        assertThat(feed.getSubscriberCount()).isEqualTo(1);
+
+        subscription.close();
+
+        assertThat(feed.getSubscriberCount()).isZero();
+        assertThat(subscription.isClosed()).isTrue();
+    }
+
+    private static List<TodoChange> drain(TodoChangeSubscription subscription) {
+        List<TodoChange> changes = new ArrayList<>();
+        subscription.drain(() -> true, changes::add);
+        return changes;
+    }
+
+    private static List<TodoChange.Type> types(List<TodoChange> changes) {
+        return changes.stream().map(TodoChange::type).toList();
+    }
+
+    private static List<Long> versions(List<TodoChange> changes) {
+        return changes.stream().map(TodoChange::version).toList();
+    }
+
+    private static TodoEntity todo(long id) {
+        return TodoEntity.builder().id(id).userId(USER).title("todo " + id).done(false).build();
+    }
+}
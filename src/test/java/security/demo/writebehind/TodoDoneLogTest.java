@@ -0,0 +1,152 @@
+package security.demo.writebehind;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * done 변경 로그 복구(replay) 테스트
+ * - 투두별 마지막 기록만 남고, 정리 기록("-")은 대기 값을 지운다.
+ * - 쓰다 만 마지막 줄(줄바꿈 없음), 형식이 잘못된 줄은 건너뛰고 나머지는 복구
+ * - 세그먼트는 번호 순서대로 읽고, 복구가 끝나면 대기 값만 새 세그먼트에 남긴다.
+ */
+class TodoDoneLogTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoversLastPendingValuePerTodo() throws IOException {
+        Path path = directory.resolve("todo-done.log");
+        try (TodoDoneLog log = new TodoDoneLog(path)) {
+            assertThat(log.recover()).isEmpty();
+            log.append(new TodoDoneChange(1, "u1", true));
+            log.append(new TodoDoneChange(2, "u1", true));
+            log.append(new TodoDoneChange(1, "u1", false));
+            log.append(new TodoDoneChange(3, "u2", true));
+            log.sync(log.appendClear(new TodoDoneChange(2, "u1", true)));
+        }
+
+        try (TodoDoneLog log = new TodoDoneLog(path)) {
+            assertThat(log.recover()).containsExactlyInAnyOrder(
+                    new TodoDoneChange(1, "u1", false),
+                    new TodoDoneChange(3, "u2", true));
+        }
+    }
+
+    @Test
+    void skipsTruncatedLastLine() throws IOException {
+        Path path = directory.resolve("todo-done.log");
+        try (TodoDoneLog log = new TodoDoneLog(path)) {
+            log.recover();
+            log.append(new TodoDoneChange(1, "u1", true));
+            log.sync(log.append(new TodoDoneChange(2, "u1", true)));
+        }
+        // 기록 도중 프로세스 종료 -> 마지막 줄이 중간에 잘림
+        appendRaw(directory.resolve("todo-done.log.1"), "2\tu1\t-");
+
+        try (TodoDoneLog log = new TodoDoneLog(path)) {
+            // 잘린 정리 기록은 무시 -> 2 번 대기 값은 그대로
+            assertThat(log.recover()).containsExactlyInAnyOrder(
+                    new TodoDoneChange(1, "u1", true),
+                    new TodoDoneChange(2, "u1", true));
+
+            // 복구 후 새 기록은 잘린 줄에 이어 붙지 않는다(새 세그먼트).
+            log.sync(log.append(new TodoDoneChange(3, "u1", false)));
+        }
+
+        try (TodoDoneLog log = new TodoDoneLog(path)) {
+            assertThat(log.recover()).containsExactlyInAnyOrder(
+                    new TodoDoneChange(1, "u1", true),
+                    new TodoDoneChange(2, "u1", true),
+                    new TodoDoneChange(3, "u1", false));
+        }
+    }
+
+    @Test
+    void skipsPartialAndMalformedLines() throws IOException {
+        Path path = directory.resolve("todo-done.log");
+        Files.writeString(directory.resolve("todo-done.log.1"),
+                "1\tu1\t1\n"
+                        + "garbage\n"
+                        + "x\tu1\t1\n"
+                        + "4\tu1\t2\n"
+                        + "5\tu1\n"
+                        + "6\tu2\t0\n"
+                        + "7\tu", StandardCharsets.UTF_8);
+
+        try (TodoDoneLog log = new TodoDoneLog(path)) {
+            assertThat(log.recover()).containsExactlyInAnyOrder(
+                    new TodoDoneChange(1, "u1", true),
+                    new TodoDoneChange(6, "u2", false));
+        }
+    }
+
+    @Test
+    void replaysSegmentsInOrder() throws IOException {
+        Path path = directory.resolve("todo-done.log");
+        try (TodoDoneLog log = new TodoDoneLog(path)) {
+            log.recover();
+            log.append(new TodoDoneChange(1, "u1", true));
+            log.append(new TodoDoneChange(2, "u1", true));
+            log.roll();
+            log.append(new TodoDoneChange(1, "u1", false));
+            log.sync(log.appendClear(new TodoDoneChange(2, "u1", true)));
+            assertThat(segments()).containsExactly("todo-done.log.1", "todo-done.log.2");
+        }
+
+        try (TodoDoneLog log = new TodoDoneLog(path)) {
+            assertThat(log.recover()).containsExactly(new TodoDoneChange(1, "u1", false));
+            // 이전 세그먼트는 지우고 대기 값만 새 세그먼트에
+            assertThat(segments()).containsExactly("todo-done.log.3");
+            assertThat(Files.readString(directory.resolve("todo-done.log.3"))).isEqualTo("1\tu1\t0\n");
+        }
+    }
+
+    @Test
+    void deleteBeforeKeepsActiveSegment() throws IOException {
+        Path path = directory.resolve("todo-done.log");
+        try (TodoDoneLog log = new TodoDoneLog(path)) {
+            log.recover();
+            log.sync(log.append(new TodoDoneChange(1, "u1", true)));
+            log.roll();
+            log.sync(log.append(new TodoDoneChange(2, "u1", true)));
+            assertThat(log.currentSegment()).isEqualTo(2);
+
+            log.deleteBefore(2);
+            assertThat(segments()).containsExactly("todo-done.log.2");
+
+            // 현재 세그먼트는 닫히기 전까지 지우지 않는다.
+            log.deleteBefore(10);
+            assertThat(segments()).containsExactly("todo-done.log.2");
+        }
+    }
+
+    @Test
+    void rollKeepsEmptySegment() throws IOException {
+        Path path = directory.resolve("todo-done.log");
+        try (TodoDoneLog log = new TodoDoneLog(path)) {
+            log.recover();
+            log.roll();
+            assertThat(log.currentSegment()).isEqualTo(1);
+        }
+    }
+
+    private List<String> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    private static void appendRaw(Path file, String text) throws IOException {
+        Files.writeString(file, text, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+}